@@ -4,6 +4,7 @@ import {BookReview, RootState} from "./types";
 import BookReviewComponent from "./BookReviewComponent";
 import {connect, ConnectedProps} from "react-redux";
 import {Link} from "react-router-dom";
+import {subscribeToReviewStream} from "./ReviewStream";
 
 const mapState = (state: RootState) => ({
   isModerator: state.authentication.details?.roles?.includes('moderator'),
@@ -19,15 +20,29 @@ const AllReviewContainer: React.FC<Props> = ({token, isModerator}) => {
   const [reviews, setReviews] = useState<BookReview[]>([])
 
   useEffect(() => {
-    fetch(`/api/books/reviews`, {
-      method: 'GET',
-      headers: {
-        'Content-Type': 'application/json',
-      }
-    }).then(result => result.json())
-      .then((result: BookReview[]) => {
-        setReviews(result)
-      })
+    const loadReviews = () => {
+      fetch(`/api/books/reviews`, {
+        method: 'GET',
+        headers: {
+          'Content-Type': 'application/json',
+        }
+      }).then(result => result.json())
+        .then((result: BookReview[]) => {
+          setReviews(result)
+        })
+    }
+
+    // subscribed before loading, a review created in between is part of either
+    const closeReviewStream = subscribeToReviewStream({
+      onCreated: review => setReviews(prevState =>
+        [review, ...prevState.filter(existing => existing.reviewId !== review.reviewId)]),
+      onDeleted: reviewId => setReviews(prevState =>
+        prevState.filter(review => review.reviewId !== reviewId)),
+      onReset: loadReviews
+    })
+    loadReviews()
+
+    return closeReviewStream
   }, [])
 
   const deleteReview = (bookIsbn: string, reviewId: number) => {
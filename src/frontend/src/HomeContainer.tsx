@@ -4,6 +4,14 @@ import LatestBookListComponent from "./LatestBookListComponent";
 import LatestReviewComponent from "./LatestReviewComponent";
 import {Book, BookReview, ReviewStatistic, RootState} from "./types";
 import {connect, ConnectedProps} from "react-redux";
+import {subscribeToReviewStream} from "./ReviewStream";
+
+const RECENT_REVIEWS = 5;
+const BEST_RATED_REVIEWS = 5;
+
+// the order of the leaderboard: highest rating first, the latest review first on equal ratings
+const bestRatedFirst = (first: BookReview, second: BookReview) =>
+  second.rating - first.rating || second.submittedAt - first.submittedAt;
 
 const mapState = (state: RootState) => ({
   isAuthenticated: state.authentication.isAuthenticated,
@@ -22,26 +30,56 @@ const HomeContainer: React.FC<Props> = ({isAuthenticated, token}) => {
   const [reviewStatistics, setReviewStatistics] = useState<ReviewStatistic[]>([])
 
   useEffect(() => {
-    fetch(`/api/books/reviews?size=5`, {
-      method: 'GET',
-      headers: {
-        'Content-Type': 'application/json',
-      }
-    }).then(result => result.json())
-      .then((result: BookReview[]) => {
-        setRecentReviews(result)
-      })
+    const loadBestRatedReviews = () => {
+      fetch(`/api/books/reviews?size=${BEST_RATED_REVIEWS}&orderBy=rating`, {
+        method: 'GET',
+        headers: {
+          'Content-Type': 'application/json',
+        }
+      }).then(result => result.json())
+        .then((result: BookReview[]) => {
+          setBestRatedReviews(result)
+        })
+    }
 
-    fetch(`/api/books/reviews?orderBy=rating`, {
-      method: 'GET',
-      headers: {
-        'Content-Type': 'application/json',
-      }
-    }).then(result => result.json())
-      .then((result: BookReview[]) => {
-        setBestRatedReviews(result)
-      })
+    const loadReviews = () => {
+      fetch(`/api/books/reviews?size=${RECENT_REVIEWS}`, {
+        method: 'GET',
+        headers: {
+          'Content-Type': 'application/json',
+        }
+      }).then(result => result.json())
+        .then((result: BookReview[]) => {
+          setRecentReviews(result)
+        })
+
+      loadBestRatedReviews()
+    }
 
+    // subscribed before loading, a review created in between is part of either
+    const closeReviewStream = subscribeToReviewStream({
+      onCreated: review => {
+        setRecentReviews(prevState =>
+          [review, ...prevState.filter(existing => existing.reviewId !== review.reviewId)]
+            .slice(0, RECENT_REVIEWS))
+        setBestRatedReviews(prevState =>
+          [...prevState.filter(existing => existing.reviewId !== review.reviewId), review]
+            .sort(bestRatedFirst)
+            .slice(0, BEST_RATED_REVIEWS))
+      },
+      onDeleted: reviewId => {
+        setRecentReviews(prevState => prevState.filter(review => review.reviewId !== reviewId))
+        // the next best-rated review is only known to the backend
+        loadBestRatedReviews()
+      },
+      onReset: loadReviews
+    })
+    loadReviews()
+
+    return closeReviewStream
+  }, [])
+
+  useEffect(() => {
     fetch(`/api/books`, {
       method: 'GET',
       headers: {
@@ -0,0 +1,30 @@
+import {BookReview} from "./types";
+
+export interface ReviewStreamHandlers {
+  onCreated: (review: BookReview) => void,
+  onDeleted: (reviewId: number) => void,
+  onReset: () => void
+}
+
+/**
+ * Follows the review changes pushed by the backend. The browser reconnects on its own and resumes
+ * from the last received event, a reset tells that events were lost and the reviews have to be
+ * loaded again. Returns the function closing the stream.
+ */
+export const subscribeToReviewStream = (handlers: ReviewStreamHandlers): () => void => {
+  if (typeof EventSource === 'undefined') {
+    return () => {};
+  }
+
+  const eventSource = new EventSource('/api/books/reviews/stream');
+
+  eventSource.addEventListener('review-created', event => {
+    handlers.onCreated(JSON.parse((event as MessageEvent).data));
+  });
+  eventSource.addEventListener('review-deleted', event => {
+    handlers.onDeleted(JSON.parse((event as MessageEvent).data).reviewId);
+  });
+  eventSource.addEventListener('reset', () => handlers.onReset());
+
+  return () => eventSource.close();
+};
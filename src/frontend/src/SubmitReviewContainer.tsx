@@ -61,7 +61,7 @@ const SubmitReviewContainer: React.FC<Props> = ({isAuthenticated, token}) => {
         rating
       })
     }).then(result => {
-      if (result.status === 201) {
+      if (result.status === 201 || result.status === 202) {
         setSuccess(true)
         setConfirmation(false)
         setRating(0)
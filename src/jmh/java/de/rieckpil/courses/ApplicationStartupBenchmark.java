@@ -0,0 +1,115 @@
+package de.rieckpil.courses;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Wall-clock time from launching the application until {@code ApplicationReadyEvent}, as reported
+ * by the {@code StartupTimer}. Requires the artifacts of the {@code aot} profile and the
+ * infrastructure of {@code docker-compose up}: {@code ./mvnw -Paot,jmh verify -DskipTests
+ * -Djmh.includes=ApplicationStartupBenchmark}.
+ *
+ * <ul>
+ *   <li>{@code default}: the executable fat jar as deployed so far
+ *   <li>{@code aot}: the plain jar with {@code target/lib}, using the AOT-generated bean
+ *       definitions
+ *   <li>{@code cds}: the plain jar with {@code target/lib}, using the AppCDS archive
+ *   <li>{@code aot-cds}: both optimizations together
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ApplicationStartupBenchmark {
+
+  private static final Pattern READY = Pattern.compile("Application ready in (\\d+) ms");
+
+  private static final Path TARGET = Path.of(System.getProperty("startup.target", "target"));
+
+  @Param({"default", "aot", "cds", "aot-cds"})
+  public String mode;
+
+  private List<String> command;
+  private Process application;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    command = new ArrayList<>(List.of("java"));
+
+    if (mode.startsWith("aot")) {
+      command.add("-Dspring.aot.enabled=true");
+    }
+    if (mode.endsWith("cds")) {
+      command.add("-XX:SharedArchiveFile=" + existing(TARGET.resolve("application.jsa")));
+    }
+
+    String jar =
+        mode.equals("default")
+            ? "testing-spring-boot-applications-masterclass-exec.jar"
+            : "testing-spring-boot-applications-masterclass.jar";
+    command.addAll(List.of("-jar", existing(TARGET.resolve(jar)), "--server.port=0"));
+  }
+
+  @Benchmark
+  public long startUntilReady() throws IOException {
+    application = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+    try (BufferedReader output =
+        new BufferedReader(
+            new InputStreamReader(application.getInputStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = output.readLine()) != null) {
+        Matcher ready = READY.matcher(line);
+        if (ready.find()) {
+          return Long.parseLong(ready.group(1));
+        }
+      }
+    }
+
+    throw new IllegalStateException(
+        "Application exited with " + application.exitValue() + " before it was ready");
+  }
+
+  @TearDown(Level.Invocation)
+  public void stopApplication() throws InterruptedException {
+    if (application != null) {
+      application.destroy();
+      if (!application.waitFor(30, TimeUnit.SECONDS)) {
+        application.destroyForcibly().waitFor();
+      }
+    }
+  }
+
+  private static String existing(Path path) {
+    if (!Files.exists(path)) {
+      throw new IllegalStateException(path + " is missing, build it with ./mvnw -Paot package");
+    }
+    return path.toString();
+  }
+}
@@ -0,0 +1,71 @@
+package de.rieckpil.courses.book.management;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookSuggestionIndexBenchmark {
+
+  private static final String[] WORDS = {
+    "java", "spring", "boot", "testing", "effective", "concurrency", "practice", "action",
+    "kotlin", "patterns", "design", "clean", "code", "microservices", "cloud", "reactive"
+  };
+
+  private static final String[] AUTHORS = {
+    "Joshua Bloch", "Brian Goetz", "Craig Walls", "Martin Fowler", "Robert Martin", "Sam Newman"
+  };
+
+  @Param({"10000"})
+  private int books;
+
+  @Param({"j", "spr", "spring boo"})
+  private String prefix;
+
+  private BookSuggestionIndex bookSuggestionIndex;
+
+  @Setup
+  public void setup() {
+    SplittableRandom random = new SplittableRandom(42);
+    List<Book> catalog = new ArrayList<>(books);
+
+    for (int i = 0; i < books; i++) {
+      Book book = new Book();
+      book.setIsbn(String.format("%013d", i));
+      book.setTitle(
+          WORDS[random.nextInt(WORDS.length)]
+              + " "
+              + WORDS[random.nextInt(WORDS.length)]
+              + " "
+              + WORDS[random.nextInt(WORDS.length)]);
+      book.setAuthor(AUTHORS[random.nextInt(AUTHORS.length)]);
+      catalog.add(book);
+    }
+
+    bookSuggestionIndex = new BookSuggestionIndex(null);
+    bookSuggestionIndex.index(catalog);
+  }
+
+  @Benchmark
+  public List<BookSuggestion> suggest() {
+    return bookSuggestionIndex.suggest(prefix, 10);
+  }
+}
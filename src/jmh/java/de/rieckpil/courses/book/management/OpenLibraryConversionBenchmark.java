@@ -0,0 +1,63 @@
+package de.rieckpil.courses.book.management;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Converts the recorded Open Library responses from {@code stubs/openlibrary} into books. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpenLibraryConversionBenchmark {
+
+  @Param({"9780321160768", "9780321751041", "9780596004651"})
+  private String isbn;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private OpenLibraryApiClient openLibraryApiClient;
+  private byte[] response;
+  private JsonNode content;
+
+  @Setup
+  public void setup() throws IOException {
+    openLibraryApiClient = new OpenLibraryApiClient(null, new SimpleMeterRegistry());
+
+    try (InputStream inputStream =
+        OpenLibraryConversionBenchmark.class
+            .getClassLoader()
+            .getResourceAsStream("stubs/openlibrary/success-" + isbn + ".json")) {
+      response = inputStream.readAllBytes();
+    }
+
+    content = objectMapper.readTree(response).get(isbn);
+  }
+
+  @Benchmark
+  public Book convertToBook() {
+    return openLibraryApiClient.convertToBook(isbn, content);
+  }
+
+  @Benchmark
+  public Book parseAndConvertToBook() throws IOException {
+    return openLibraryApiClient.convertToBook(isbn, objectMapper.readTree(response).get(isbn));
+  }
+}
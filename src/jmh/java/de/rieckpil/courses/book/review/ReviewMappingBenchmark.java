@@ -0,0 +1,77 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Mapping and serializing a page of reviews the way {@code GET /api/books/reviews} does. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReviewMappingBenchmark {
+
+  @Param({"5", "20", "100"})
+  private int size;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private List<Review> reviews;
+
+  @Setup
+  public void setup() {
+    Book book = new Book();
+    book.setIsbn("9780596004651");
+    book.setTitle("Head first Java");
+    book.setThumbnailUrl("https://covers.openlibrary.org/b/id/388761-S.jpg");
+
+    User user = new User();
+    user.setName("duke");
+
+    reviews = new ArrayList<>();
+    for (long i = 0; i < size; i++) {
+      Review review = new Review();
+      review.setId(i);
+      review.setTitle("Great book with lots of tips & tricks");
+      review.setContent(
+          "I can really recommend reading this book. It includes up-to-date library versions and real-world examples");
+      review.setRating(4);
+      review.setCreatedAt(LocalDateTime.of(2020, 8, 11, 7, 45));
+      review.setBook(book);
+      review.setUser(user);
+      reviews.add(review);
+    }
+  }
+
+  @Benchmark
+  public ArrayNode mapReviews() {
+    ArrayNode result = objectMapper.createArrayNode();
+    reviews.stream().map(ReviewService::mapReview).forEach(result::add);
+    return result;
+  }
+
+  @Benchmark
+  public byte[] mapAndSerializeReviews() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(mapReviews());
+  }
+}
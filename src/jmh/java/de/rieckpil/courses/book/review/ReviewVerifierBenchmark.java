@@ -0,0 +1,52 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReviewVerifierBenchmark {
+
+  private static final String GOOD_REVIEW =
+      "I can totally recommend this book who is interested in learning how to write Java code! ";
+
+  @Param({"short", "long", "pathological"})
+  private String input;
+
+  private ReviewVerifier reviewVerifier;
+  private String review;
+
+  @Setup
+  public void setup() {
+    reviewVerifier = new ReviewVerifier();
+    review =
+        switch (input) {
+          case "short" -> GOOD_REVIEW;
+          case "long" -> GOOD_REVIEW.repeat(500);
+            // passes every rule but maximizes the work per character: runs of separators, near
+            // misses for the word rules and no early exit
+          case "pathological" -> "goad  o  gold  a    ".repeat(1_000) + GOOD_REVIEW;
+          default -> throw new IllegalArgumentException("Unknown input: " + input);
+        };
+  }
+
+  @Benchmark
+  public boolean doesMeetQualityStandards() {
+    return reviewVerifier.doesMeetQualityStandards(review);
+  }
+}
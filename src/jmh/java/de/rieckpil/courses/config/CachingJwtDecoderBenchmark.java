@@ -0,0 +1,84 @@
+package de.rieckpil.courses.config;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+/**
+ * Authentication cost of a request reusing a bearer token, with and without the {@link
+ * CachingJwtDecoder} in front of the RS256 signature verification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachingJwtDecoderBenchmark {
+
+  private JwtDecoder nimbusJwtDecoder;
+  private JwtDecoder cachingJwtDecoder;
+  private CustomAuthenticationConverter customAuthenticationConverter;
+  private String token;
+
+  @Setup
+  public void setup() throws Exception {
+    KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+    keyPairGenerator.initialize(2048);
+    KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+    SignedJWT signedJwt =
+        new SignedJWT(
+            new JWSHeader(JWSAlgorithm.RS256),
+            new JWTClaimsSet.Builder()
+                .subject("duke")
+                .claim("preferred_username", "duke")
+                .claim("email", "duke@spring.io")
+                .claim(
+                    "realm_access",
+                    Map.of("roles", List.of("offline_access", "uma_authorization", "moderator")))
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(3600)))
+                .build());
+    signedJwt.sign(new RSASSASigner(keyPair.getPrivate()));
+    token = signedJwt.serialize();
+
+    nimbusJwtDecoder = NimbusJwtDecoder.withPublicKey((RSAPublicKey) keyPair.getPublic()).build();
+    cachingJwtDecoder = new CachingJwtDecoder(nimbusJwtDecoder, 10_000);
+    customAuthenticationConverter = new CustomAuthenticationConverter();
+  }
+
+  @Benchmark
+  public AbstractAuthenticationToken verifySignatureOnEveryRequest() {
+    return customAuthenticationConverter.convert(nimbusJwtDecoder.decode(token));
+  }
+
+  @Benchmark
+  public AbstractAuthenticationToken reuseValidatedToken() {
+    return customAuthenticationConverter.convert(cachingJwtDecoder.decode(token));
+  }
+}
@@ -0,0 +1,53 @@
+package de.rieckpil.courses.config;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomAuthenticationConverterBenchmark {
+
+  private CustomAuthenticationConverter customAuthenticationConverter;
+  private Jwt jwt;
+
+  @Setup
+  public void setup() {
+    customAuthenticationConverter = new CustomAuthenticationConverter();
+    jwt =
+        Jwt.withTokenValue("token")
+            .header("alg", "RS256")
+            .subject("duke")
+            .claim("preferred_username", "duke")
+            .claim("email", "duke@spring.io")
+            .claim(
+                "realm_access",
+                Map.of("roles", List.of("offline_access", "uma_authorization", "moderator")))
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(300))
+            .build();
+  }
+
+  @Benchmark
+  public AbstractAuthenticationToken convert() {
+    return customAuthenticationConverter.convert(jwt);
+  }
+}
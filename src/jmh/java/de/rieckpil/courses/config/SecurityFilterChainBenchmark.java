@@ -0,0 +1,136 @@
+package de.rieckpil.courses.config;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+/**
+ * Security overhead of an anonymous {@code GET /api/books}, passing the main filter chain like
+ * before the {@code publicSecurityFilterChain} existed, and the public chain serving it now. With a
+ * bearer token the main chain also verifies the token a signed-in user's browser sends along.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityFilterChainBenchmark {
+
+  private static RSAPublicKey publicKey;
+
+  @Param({"false", "true"})
+  public boolean withBearerToken;
+
+  private AnnotationConfigWebApplicationContext context;
+  private Filter securityFilterChains;
+  private Filter mainSecurityFilterChain;
+  private String token;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+    keyPairGenerator.initialize(2048);
+    KeyPair keyPair = keyPairGenerator.generateKeyPair();
+    publicKey = (RSAPublicKey) keyPair.getPublic();
+
+    SignedJWT signedJwt =
+        new SignedJWT(
+            new JWSHeader(JWSAlgorithm.RS256),
+            new JWTClaimsSet.Builder()
+                .subject("duke")
+                .claim("realm_access", Map.of("roles", List.of("offline_access", "moderator")))
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(3600)))
+                .build());
+    signedJwt.sign(new RSASSASigner(keyPair.getPrivate()));
+    token = signedJwt.serialize();
+
+    context = new AnnotationConfigWebApplicationContext();
+    context.setServletContext(new MockServletContext());
+    context.register(BenchmarkSecurityConfig.class);
+    context.refresh();
+
+    securityFilterChains = context.getBean("springSecurityFilterChain", Filter.class);
+    mainSecurityFilterChain =
+        new FilterChainProxy(context.getBean("securityFilterChain", SecurityFilterChain.class));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public int mainChain() throws Exception {
+    return getBooks(mainSecurityFilterChain);
+  }
+
+  @Benchmark
+  public int publicChain() throws Exception {
+    return getBooks(securityFilterChains);
+  }
+
+  private int getBooks(Filter filter) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+    request.setServletPath("/api/books");
+    if (withBearerToken) {
+      request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, (servletRequest, servletResponse) -> {});
+    return response.getStatus();
+  }
+
+  @Configuration
+  @EnableWebMvc
+  @EnableWebSecurity
+  @Import(WebSecurityConfig.class)
+  static class BenchmarkSecurityConfig {
+
+    @Bean
+    JwtDecoder jwtDecoder() {
+      return NimbusJwtDecoder.withPublicKey(publicKey).build();
+    }
+  }
+}
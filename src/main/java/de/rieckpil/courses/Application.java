@@ -1,13 +1,20 @@
 package de.rieckpil.courses;
 
+import de.rieckpil.courses.config.NativeRuntimeHints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
-@SpringBootApplication
+// the R2DBC connections are pooled by R2dbcConfig, see there why
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@ConfigurationPropertiesScan
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class Application {
 
   private static final Logger LOG = LoggerFactory.getLogger(Application.class);
@@ -26,6 +26,14 @@ public class Book {
 
   private String thumbnailUrl;
 
+  /** Where the {@link BookThumbnailCache} fetches the cover served at the thumbnail URL from. */
+  @JsonIgnore private String thumbnailSourceUrl;
+
+  /** SHA-256 of the cover once fetched, the name of its file in the {@link BookThumbnailCache}. */
+  @JsonIgnore private String thumbnailHash;
+
+  @JsonIgnore private String thumbnailContentType;
+
   private String description;
 
   private String publisher;
@@ -80,6 +88,30 @@ public class Book {
     this.thumbnailUrl = thumbnailUrl;
   }
 
+  public String getThumbnailSourceUrl() {
+    return thumbnailSourceUrl;
+  }
+
+  public void setThumbnailSourceUrl(String thumbnailSourceUrl) {
+    this.thumbnailSourceUrl = thumbnailSourceUrl;
+  }
+
+  public String getThumbnailHash() {
+    return thumbnailHash;
+  }
+
+  public void setThumbnailHash(String thumbnailHash) {
+    this.thumbnailHash = thumbnailHash;
+  }
+
+  public String getThumbnailContentType() {
+    return thumbnailContentType;
+  }
+
+  public void setThumbnailContentType(String thumbnailContentType) {
+    this.thumbnailContentType = thumbnailContentType;
+  }
+
   public String getDescription() {
     return description;
   }
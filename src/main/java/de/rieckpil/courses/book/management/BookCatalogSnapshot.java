@@ -0,0 +1,59 @@
+package de.rieckpil.courses.book.management;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The serialized book catalog, together with its gzip encoding, as of {@link
+ * BookCatalogVersion#getVersion()} {@code version}. The arrays are written to responses as they are
+ * and must never be modified.
+ */
+final class BookCatalogSnapshot {
+
+  private final long version;
+  private final byte[] json;
+  private final byte[] gzip;
+
+  private BookCatalogSnapshot(long version, byte[] json, byte[] gzip) {
+    this.version = version;
+    this.json = json;
+    this.gzip = gzip;
+  }
+
+  static BookCatalogSnapshot of(long version, byte[] json) {
+    return new BookCatalogSnapshot(version, json, gzip(json));
+  }
+
+  long getVersion() {
+    return version;
+  }
+
+  byte[] getJson() {
+    return json;
+  }
+
+  byte[] getGzip() {
+    return gzip;
+  }
+
+  private static byte[] gzip(byte[] content) {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+
+    // compressed once per catalog change, so spend the time on the smallest encoding
+    try (GZIPOutputStream gzip =
+        new GZIPOutputStream(compressed) {
+          {
+            def.setLevel(Deflater.BEST_COMPRESSION);
+          }
+        }) {
+      gzip.write(content);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return compressed.toByteArray();
+  }
+}
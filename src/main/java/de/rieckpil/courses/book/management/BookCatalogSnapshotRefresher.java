@@ -0,0 +1,32 @@
+package de.rieckpil.courses.book.management;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Triggers the catalog snapshot rebuild on startup, after every stored book and periodically to
+ * pick up books stored by other instances. Without it the catalog is always serialized live.
+ */
+@Component
+@ConditionalOnProperty(
+    prefix = "book.catalog",
+    name = "snapshot-refresh-enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class BookCatalogSnapshotRefresher {
+
+  private final BookManagementService bookManagementService;
+
+  public BookCatalogSnapshotRefresher(BookManagementService bookManagementService) {
+    this.bookManagementService = bookManagementService;
+  }
+
+  @EventListener({ApplicationReadyEvent.class, BookStoredEvent.class})
+  @Scheduled(fixedDelayString = "${book.catalog.snapshot-refresh-interval:PT1M}")
+  public void refreshCatalogSnapshot() {
+    bookManagementService.refreshCatalogSnapshot();
+  }
+}
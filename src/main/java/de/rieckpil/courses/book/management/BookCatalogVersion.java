@@ -0,0 +1,16 @@
+package de.rieckpil.courses.book.management;
+
+import java.time.Clock;
+
+import de.rieckpil.courses.config.ETagProperties;
+import de.rieckpil.courses.config.ResourceVersion;
+import org.springframework.stereotype.Component;
+
+/** Version of {@code /api/books}, incremented for every stored book. */
+@Component
+public class BookCatalogVersion extends ResourceVersion {
+
+  public BookCatalogVersion(ETagProperties eTagProperties) {
+    super(eTagProperties, Clock.systemUTC());
+  }
+}
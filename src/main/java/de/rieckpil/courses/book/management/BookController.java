@@ -2,22 +2,118 @@ package de.rieckpil.courses.book.management;
 
 import java.util.List;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/books")
 public class BookController {
 
   private final BookManagementService bookManagementService;
+  private final BookSuggestionIndex bookSuggestionIndex;
+  private final BookCatalogVersion bookCatalogVersion;
 
-  public BookController(BookManagementService bookManagementService) {
+  public BookController(
+      BookManagementService bookManagementService,
+      BookSuggestionIndex bookSuggestionIndex,
+      BookCatalogVersion bookCatalogVersion) {
     this.bookManagementService = bookManagementService;
+    this.bookSuggestionIndex = bookSuggestionIndex;
+    this.bookCatalogVersion = bookCatalogVersion;
   }
 
-  @GetMapping
-  public List<Book> getAvailableBooks() {
-    return bookManagementService.getAllBooks();
+  /**
+   * Writes the pre-serialized catalog snapshot as it is, falling back to loading and serializing
+   * the books while the snapshot gets rebuilt.
+   */
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> getAvailableBooks(
+      @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      WebRequest webRequest) {
+
+    String eTag = bookCatalogVersion.getETag();
+    BookCatalogSnapshot snapshot = bookManagementService.getCatalogSnapshot();
+    boolean gzip = snapshot != null && acceptsGzip(acceptEncoding);
+
+    // every encoding is a representation of its own and needs its own strong ETag
+    if (gzip) {
+      eTag = eTag.substring(0, eTag.length() - 1) + "-gzip\"";
+    }
+
+    if (webRequest.checkNotModified(eTag)) {
+      return null;
+    }
+
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePublic())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+    if (snapshot == null) {
+      return response.body(bookManagementService.getAllBooks());
+    }
+
+    if (gzip) {
+      return response
+          .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+          .contentType(MediaType.APPLICATION_JSON)
+          .body(snapshot.getGzip());
+    }
+
+    return response.contentType(MediaType.APPLICATION_JSON).body(snapshot.getJson());
+  }
+
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parameters = coding.split(";");
+      String name = parameters[0].trim();
+
+      if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+        return parameters.length == 1 || !parameters[1].trim().matches("q=0(\\.0*)?");
+      }
+    }
+
+    return false;
+  }
+
+  @GetMapping("/search")
+  public BookSearchResult searchBooks(
+      @RequestParam(name = "q") String query,
+      @RequestParam(name = "size", defaultValue = "20") Integer size,
+      @RequestParam(name = "after", required = false) String after) {
+
+    if (query.isBlank()) {
+      throw new InvalidBookSearchException("Search query must not be blank");
+    }
+
+    if (size < 1 || size > 100) {
+      throw new InvalidBookSearchException("Page size must be between 1 and 100");
+    }
+
+    return bookManagementService.searchBooks(query, size, after);
+  }
+
+  @GetMapping("/suggest")
+  public List<BookSuggestion> suggestBooks(
+      @RequestParam(name = "prefix") String prefix,
+      @RequestParam(name = "size", defaultValue = "10") Integer size) {
+
+    if (size < 1 || size > 50) {
+      throw new InvalidBookSearchException("Number of suggestions must be between 1 and 50");
+    }
+
+    return bookSuggestionIndex.suggest(prefix, size);
   }
 }
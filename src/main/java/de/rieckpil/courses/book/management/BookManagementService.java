@@ -1,19 +1,146 @@
 package de.rieckpil.courses.book.management;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class BookManagementService {
 
+  private static final Logger LOG = LoggerFactory.getLogger(BookManagementService.class);
+
   private final BookRepository bookRepository;
+  private final BookCatalogVersion bookCatalogVersion;
+  private final ObjectMapper objectMapper;
+
+  private final ExecutorService snapshotBuilder =
+      Executors.newSingleThreadExecutor(new CustomizableThreadFactory("book-catalog-snapshot-"));
+  private final AtomicInteger snapshotRequests = new AtomicInteger();
+  private volatile BookCatalogSnapshot catalogSnapshot;
 
-  public BookManagementService(BookRepository bookRepository) {
+  public BookManagementService(
+      BookRepository bookRepository,
+      BookCatalogVersion bookCatalogVersion,
+      ObjectMapper objectMapper) {
     this.bookRepository = bookRepository;
+    this.bookCatalogVersion = bookCatalogVersion;
+    this.objectMapper = objectMapper;
   }
 
+  @Transactional(readOnly = true)
   public List<Book> getAllBooks() {
     return bookRepository.findAll();
   }
+
+  /**
+   * The serialized catalog, or {@code null} while a book stored on this instance is not part of the
+   * snapshot yet.
+   */
+  BookCatalogSnapshot getCatalogSnapshot() {
+    BookCatalogSnapshot snapshot = catalogSnapshot;
+    return snapshot != null && snapshot.getVersion() == bookCatalogVersion.getVersion()
+        ? snapshot
+        : null;
+  }
+
+  /**
+   * Rebuilds the catalog snapshot off the calling thread, see {@link BookCatalogSnapshotRefresher}
+   * for when.
+   */
+  public void refreshCatalogSnapshot() {
+    if (snapshotRequests.getAndIncrement() == 0) {
+      snapshotBuilder.execute(this::rebuildCatalogSnapshot);
+    }
+  }
+
+  private void rebuildCatalogSnapshot() {
+    int seenRequests;
+    do {
+      seenRequests = snapshotRequests.get();
+      try {
+        catalogSnapshot = buildCatalogSnapshot();
+      } catch (RuntimeException e) {
+        LOG.error("Failed to rebuild the book catalog snapshot, serving the catalog live", e);
+      }
+    } while (!snapshotRequests.compareAndSet(seenRequests, 0));
+  }
+
+  BookCatalogSnapshot buildCatalogSnapshot() {
+    // read before the books, a book stored in between only leaves the snapshot outdated
+    long version = bookCatalogVersion.getVersion();
+
+    try {
+      return BookCatalogSnapshot.of(
+          version, objectMapper.writeValueAsBytes(bookRepository.findAll()));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize the book catalog", e);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    snapshotBuilder.shutdownNow();
+  }
+
+  /**
+   * Full-text search over the books and their published reviews. {@code after} is the {@code next}
+   * cursor of the previous page or {@code null} for the first page.
+   */
+  @Transactional(readOnly = true)
+  public BookSearchResult searchBooks(String query, int size, String after) {
+    SearchCursor cursor = after == null ? SearchCursor.FIRST_PAGE : SearchCursor.decode(after);
+
+    // one more hit than requested tells whether there is a next page
+    List<BookSearchHit> hits =
+        bookRepository.search(query, cursor.rank(), cursor.bookId(), size + 1);
+    List<BookSearchHit> page = hits.subList(0, Math.min(size, hits.size()));
+
+    Map<Long, Book> books =
+        bookRepository.findAllById(page.stream().map(BookSearchHit::getId).toList()).stream()
+            .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+    String next = null;
+    if (hits.size() > size) {
+      BookSearchHit last = page.get(page.size() - 1);
+      next = new SearchCursor(last.getRank(), last.getId()).encode();
+    }
+
+    return new BookSearchResult(page.stream().map(hit -> books.get(hit.getId())).toList(), next);
+  }
+
+  private record SearchCursor(float rank, long bookId) {
+
+    static final SearchCursor FIRST_PAGE = new SearchCursor(Float.MAX_VALUE, 0);
+
+    String encode() {
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString((rank + ":" + bookId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SearchCursor decode(String cursor) {
+      try {
+        String[] parts =
+            new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        return new SearchCursor(Float.parseFloat(parts[0]), Long.parseLong(parts[1]));
+      } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+        throw new InvalidBookSearchException("Invalid search cursor");
+      }
+    }
+  }
 }
@@ -1,7 +1,49 @@
 package de.rieckpil.courses.book.management;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
   Book findByIsbn(String isbn);
+
+  @Transactional
+  @Modifying
+  @Query(
+      "UPDATE Book b SET b.thumbnailHash = :hash, b.thumbnailContentType = :contentType "
+          + "WHERE b.isbn = :isbn")
+  int updateThumbnail(String isbn, String hash, String contentType);
+
+  /**
+   * Ranks books matching the query in their own search vector or in one of their published reviews,
+   * see {@code V007__ADD_SEARCH_VECTORS.sql}. Returns the hits ranked below {@code (afterRank,
+   * afterId)} so pages are addressed by the last hit instead of an offset.
+   */
+  @Query(
+      value =
+          """
+          WITH query AS (SELECT WEBSEARCH_TO_TSQUERY('english', :query) AS tsquery),
+          hits AS (
+            SELECT books.id, TS_RANK(books.search_vector, query.tsquery) AS rank
+            FROM books, query
+            WHERE books.search_vector @@ query.tsquery
+            UNION ALL
+            SELECT reviews.book_id, MAX(TS_RANK(reviews.search_vector, query.tsquery)) / 2
+            FROM reviews, query
+            WHERE reviews.search_vector @@ query.tsquery AND reviews.status = 'PUBLISHED'
+            GROUP BY reviews.book_id
+          ),
+          ranked AS (SELECT id, CAST(SUM(rank) AS REAL) AS rank FROM hits GROUP BY id)
+          SELECT id, rank
+          FROM ranked
+          WHERE rank < CAST(:afterRank AS REAL)
+            OR (rank = CAST(:afterRank AS REAL) AND id > :afterId)
+          ORDER BY rank DESC, id
+          LIMIT :limit
+          """,
+      nativeQuery = true)
+  List<BookSearchHit> search(String query, Float afterRank, Long afterId, int limit);
 }
@@ -0,0 +1,7 @@
+package de.rieckpil.courses.book.management;
+
+public interface BookSearchHit {
+  Long getId();
+
+  Float getRank();
+}
@@ -0,0 +1,9 @@
+package de.rieckpil.courses.book.management;
+
+import java.util.List;
+
+/**
+ * One page of books matching a search, best match first. {@code next} is the cursor for the
+ * following page and {@code null} on the last page.
+ */
+public record BookSearchResult(List<Book> books, String next) {}
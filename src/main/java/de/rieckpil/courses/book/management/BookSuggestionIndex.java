@@ -0,0 +1,275 @@
+package de.rieckpil.courses.book.management;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory prefix index over the words of all book titles and authors for type-ahead suggestions.
+ *
+ * <p>The index is an immutable snapshot of a sorted term dictionary where every term points to the
+ * ascending positions of the books containing it. Lookups binary search the range of terms starting
+ * with the prefix and never block. A stored book only changes the postings of its own words, all
+ * others are shared with the previous snapshot. The whole index is reloaded every {@code
+ * book.suggestions.reload-interval} to pick up books stored by other instances.
+ */
+@Component
+public class BookSuggestionIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BookSuggestionIndex.class);
+
+  private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+  private final BookRepository bookRepository;
+
+  // the position of every indexed book, only accessed by the synchronized writers
+  private final Map<String, Integer> positions = new HashMap<>();
+  private volatile Snapshot snapshot = Snapshot.of(List.of());
+
+  public BookSuggestionIndex(BookRepository bookRepository) {
+    this.bookRepository = bookRepository;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      fixedDelayString = "${book.suggestions.reload-interval:PT5M}",
+      initialDelayString = "${book.suggestions.reload-interval:PT5M}")
+  public synchronized void load() {
+    // loaded while holding the lock, a book stored meanwhile is indexed on top afterwards
+    List<Book> allBooks = bookRepository.findAll();
+
+    List<BookSuggestion> suggestions = new ArrayList<>(allBooks.size());
+    positions.clear();
+    for (Book book : allBooks) {
+      if (positions.putIfAbsent(book.getIsbn(), suggestions.size()) == null) {
+        suggestions.add(suggestionOf(book));
+      }
+    }
+
+    snapshot = Snapshot.of(suggestions);
+    LOG.info("Indexed {} books for suggestions", suggestions.size());
+  }
+
+  @EventListener
+  public void onBookStored(BookStoredEvent event) {
+    index(List.of(event.book()));
+  }
+
+  synchronized void index(List<Book> newBooks) {
+    Snapshot current = snapshot;
+    for (Book book : newBooks) {
+      int position = positions.computeIfAbsent(book.getIsbn(), isbn -> positions.size());
+      current = current.with(position, suggestionOf(book));
+    }
+    snapshot = current;
+  }
+
+  /**
+   * Books whose title or author contain a word starting with every word of the prefix, ordered by
+   * title.
+   */
+  public List<BookSuggestion> suggest(String prefix, int limit) {
+    return snapshot.suggest(tokenize(prefix), limit);
+  }
+
+  static List<String> tokenize(String text) {
+    if (text == null) {
+      return List.of();
+    }
+
+    String normalized =
+        DIACRITICS
+            .matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+            .replaceAll("")
+            .toLowerCase(Locale.ROOT);
+
+    return Arrays.stream(NON_WORD.split(normalized)).filter(term -> !term.isEmpty()).toList();
+  }
+
+  private static BookSuggestion suggestionOf(Book book) {
+    return new BookSuggestion(book.getIsbn(), book.getTitle(), book.getAuthor());
+  }
+
+  private static Set<String> wordsOf(BookSuggestion book) {
+    Set<String> words = new HashSet<>(tokenize(book.title()));
+    words.addAll(tokenize(book.author()));
+    return words;
+  }
+
+  private static final class Snapshot {
+
+    private static final Comparator<BookSuggestion> TITLE_ORDER =
+        Comparator.comparing(BookSuggestion::title, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(BookSuggestion::isbn);
+
+    private static final int[] NO_POSTINGS = new int[0];
+
+    // in the order they were indexed, new books are appended
+    private final BookSuggestion[] books;
+    private final String[] terms;
+    private final int[][] postings;
+
+    private Snapshot(BookSuggestion[] books, String[] terms, int[][] postings) {
+      this.books = books;
+      this.terms = terms;
+      this.postings = postings;
+    }
+
+    static Snapshot of(List<BookSuggestion> books) {
+      TreeMap<String, List<Integer>> dictionary = new TreeMap<>();
+      for (int position = 0; position < books.size(); position++) {
+        for (String word : wordsOf(books.get(position))) {
+          dictionary.computeIfAbsent(word, term -> new ArrayList<>()).add(position);
+        }
+      }
+
+      String[] terms = dictionary.keySet().toArray(String[]::new);
+      int[][] postings =
+          dictionary.values().stream()
+              .map(positions -> positions.stream().mapToInt(Integer::intValue).toArray())
+              .toArray(int[][]::new);
+
+      return new Snapshot(books.toArray(BookSuggestion[]::new), terms, postings);
+    }
+
+    /**
+     * A copy with the book at the given position, either appended or replacing a previous version
+     * of it. Only the postings of words that the book gained or lost are copied.
+     */
+    Snapshot with(int position, BookSuggestion book) {
+      Set<String> previousWords = position < books.length ? wordsOf(books[position]) : Set.of();
+      Set<String> words = wordsOf(book);
+
+      TreeSet<String> changedWords = new TreeSet<>();
+      words.stream().filter(word -> !previousWords.contains(word)).forEach(changedWords::add);
+      previousWords.stream().filter(word -> !words.contains(word)).forEach(changedWords::add);
+
+      BookSuggestion[] newBooks = Arrays.copyOf(books, Math.max(books.length, position + 1));
+      newBooks[position] = book;
+
+      // merges the changed words into the sorted dictionary
+      List<String> newTerms = new ArrayList<>(terms.length + changedWords.size());
+      List<int[]> newPostings = new ArrayList<>(terms.length + changedWords.size());
+      int term = 0;
+      for (String word : changedWords) {
+        while (term < terms.length && terms[term].compareTo(word) < 0) {
+          newTerms.add(terms[term]);
+          newPostings.add(postings[term++]);
+        }
+
+        boolean known = term < terms.length && terms[term].equals(word);
+        int[] wordPostings = known ? postings[term++] : NO_POSTINGS;
+        wordPostings =
+            words.contains(word)
+                ? withPosition(wordPostings, position)
+                : withoutPosition(wordPostings, position);
+
+        if (wordPostings.length > 0) {
+          newTerms.add(word);
+          newPostings.add(wordPostings);
+        }
+      }
+      while (term < terms.length) {
+        newTerms.add(terms[term]);
+        newPostings.add(postings[term++]);
+      }
+
+      return new Snapshot(
+          newBooks, newTerms.toArray(String[]::new), newPostings.toArray(int[][]::new));
+    }
+
+    private static int[] withPosition(int[] positions, int position) {
+      int index = Arrays.binarySearch(positions, position);
+      if (index >= 0) {
+        return positions;
+      }
+
+      int insertAt = -index - 1;
+      int[] result = new int[positions.length + 1];
+      System.arraycopy(positions, 0, result, 0, insertAt);
+      result[insertAt] = position;
+      System.arraycopy(positions, insertAt, result, insertAt + 1, positions.length - insertAt);
+      return result;
+    }
+
+    private static int[] withoutPosition(int[] positions, int position) {
+      int index = Arrays.binarySearch(positions, position);
+      if (index < 0) {
+        return positions;
+      }
+
+      int[] result = new int[positions.length - 1];
+      System.arraycopy(positions, 0, result, 0, index);
+      System.arraycopy(positions, index + 1, result, index, result.length - index);
+      return result;
+    }
+
+    List<BookSuggestion> suggest(List<String> prefixes, int limit) {
+      if (prefixes.isEmpty() || limit < 1) {
+        return List.of();
+      }
+
+      BitSet matches = null;
+      for (String prefix : prefixes) {
+        BitSet prefixMatches = new BitSet(books.length);
+        for (int term = firstTermWithPrefix(prefix);
+            term < terms.length && terms[term].startsWith(prefix);
+            term++) {
+          for (int position : postings[term]) {
+            prefixMatches.set(position);
+          }
+        }
+
+        if (matches == null) {
+          matches = prefixMatches;
+        } else {
+          matches.and(prefixMatches);
+        }
+
+        if (matches.isEmpty()) {
+          return List.of();
+        }
+      }
+
+      // keeps the first books by title among all matches
+      PriorityQueue<BookSuggestion> first = new PriorityQueue<>(TITLE_ORDER.reversed());
+      for (int position = matches.nextSetBit(0);
+          position >= 0;
+          position = matches.nextSetBit(position + 1)) {
+        first.add(books[position]);
+        if (first.size() > limit) {
+          first.poll();
+        }
+      }
+
+      List<BookSuggestion> result = new ArrayList<>(first);
+      result.sort(TITLE_ORDER);
+      return result;
+    }
+
+    private int firstTermWithPrefix(String prefix) {
+      int index = Arrays.binarySearch(terms, prefix);
+      return index >= 0 ? index : -index - 1;
+    }
+  }
+}
@@ -1,8 +1,11 @@
 package de.rieckpil.courses.book.management;
 
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -13,32 +16,66 @@ public class BookSynchronizationListener {
 
   private final BookRepository bookRepository;
   private final OpenLibraryApiClient openLibraryApiClient;
+  private final MeterRegistry meterRegistry;
+  private final ApplicationEventPublisher applicationEventPublisher;
+  private final BookCatalogVersion bookCatalogVersion;
 
   public BookSynchronizationListener(
-      BookRepository bookRepository, OpenLibraryApiClient openLibraryApiClient) {
+      BookRepository bookRepository,
+      OpenLibraryApiClient openLibraryApiClient,
+      MeterRegistry meterRegistry,
+      ApplicationEventPublisher applicationEventPublisher,
+      BookCatalogVersion bookCatalogVersion) {
     this.bookRepository = bookRepository;
     this.openLibraryApiClient = openLibraryApiClient;
+    this.meterRegistry = meterRegistry;
+    this.applicationEventPublisher = applicationEventPublisher;
+    this.bookCatalogVersion = bookCatalogVersion;
   }
 
   @SqsListener("${sqs.book-synchronization-queue}")
   public void consumeBookUpdates(BookSynchronization bookSynchronization) {
 
-    String isbn = bookSynchronization.isbn();
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = "failed";
+
+    try {
+      outcome = synchronizeBook(bookSynchronization.isbn());
+    } finally {
+      sample.stop(
+          Timer.builder("book.synchronization")
+              .description("Time spent processing an incoming book update")
+              .tag("outcome", outcome)
+              .register(meterRegistry));
+    }
+  }
+
+  private String synchronizeBook(String isbn) {
     LOG.info("Incoming book update for isbn '{}'", isbn);
 
     if (isbn.length() != 13) {
       LOG.warn("Incoming isbn for book is not 13 characters long, rejecting it");
-      return;
+      return "rejected-length";
     }
 
     if (bookRepository.findByIsbn(isbn) != null) {
       LOG.debug("Book with isbn '{}' is already present, rejecting it", isbn);
-      return;
+      return "duplicate";
     }
 
     Book book = openLibraryApiClient.fetchMetadataForBook(isbn);
+
+    // clients load the cover through the BookThumbnailController, which fetches it from the source
+    if (book.getThumbnailUrl() != null) {
+      book.setThumbnailSourceUrl(book.getThumbnailUrl());
+      book.setThumbnailUrl(BookThumbnailController.thumbnailUrl(isbn));
+    }
+
     book = bookRepository.save(book);
+    bookCatalogVersion.increment();
+    applicationEventPublisher.publishEvent(new BookStoredEvent(book));
 
     LOG.info("Successfully stored new book '{}'", book);
+    return "stored";
   }
 }
@@ -0,0 +1,373 @@
+package de.rieckpil.courses.book.management;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Disk cache of the book covers served by the {@link BookThumbnailController}. Files are named by
+ * the SHA-256 of their content, so books sharing a cover share a file, and the least recently
+ * served files are evicted once the cache outgrows {@link BookThumbnailProperties#getMaxSize()}.
+ * The hash is stored with the book, so after a restart its cover is served from the file still in
+ * place.
+ *
+ * <p>Concurrent requests for a cover that is not cached yet wait for the one fetching it. A cover
+ * that could not be fetched is answered as missing for {@link
+ * BookThumbnailProperties#getRetryDelay()} instead of asking the source again on every request.
+ *
+ * <p>The controller only hands the file name to the connector, which opens the file after the
+ * request handler returned. A file evicted within {@link #PIN_DURATION} of being handed out is
+ * therefore only deleted once that time passed.
+ */
+@Component
+public class BookThumbnailCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BookThumbnailCache.class);
+
+  private static final String DOWNLOAD_SUFFIX = ".download";
+
+  static final Duration PIN_DURATION = Duration.ofSeconds(30);
+
+  private final BookRepository bookRepository;
+  private final RestTemplate restTemplate;
+  private final Path directory;
+  private final long maxSize;
+  private final boolean prefetch;
+  private final Duration retryDelay;
+  private final Clock clock;
+
+  private final Map<String, Thumbnail> thumbnailsByIsbn = new ConcurrentHashMap<>();
+
+  // running loads by ISBN, and until when a stored book is answered without a cover
+  private final Map<String, CompletableFuture<Thumbnail>> loads = new ConcurrentHashMap<>();
+  private final Map<String, Instant> missingUntil = new ConcurrentHashMap<>();
+
+  // file sizes by file name in the order the files were last served, guarded by itself, like the
+  // pins below
+  private final LinkedHashMap<String, Long> files = new LinkedHashMap<>(16, 0.75f, true);
+  private long size;
+
+  // until when a file handed out must not be deleted, and the evicted files still pinned
+  private final Map<String, Instant> pinnedUntil = new HashMap<>();
+  private final Set<String> pendingDeletions = new HashSet<>();
+
+  @Autowired
+  public BookThumbnailCache(
+      BookRepository bookRepository,
+      RestTemplateBuilder restTemplateBuilder,
+      BookThumbnailProperties bookThumbnailProperties) {
+    this(bookRepository, restTemplateBuilder, bookThumbnailProperties, Clock.systemUTC());
+  }
+
+  BookThumbnailCache(
+      BookRepository bookRepository,
+      RestTemplateBuilder restTemplateBuilder,
+      BookThumbnailProperties bookThumbnailProperties,
+      Clock clock) {
+    this.clock = clock;
+    this.bookRepository = bookRepository;
+    this.restTemplate =
+        restTemplateBuilder
+            .setConnectTimeout(bookThumbnailProperties.getTimeout())
+            .setReadTimeout(bookThumbnailProperties.getTimeout())
+            .build();
+    this.directory = bookThumbnailProperties.getDirectory();
+    this.maxSize = bookThumbnailProperties.getMaxSize().toBytes();
+    this.prefetch = bookThumbnailProperties.isPrefetch();
+    this.retryDelay = bookThumbnailProperties.getRetryDelay();
+
+    try {
+      Files.createDirectories(directory);
+      loadFiles();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open the thumbnail cache at " + directory, e);
+    }
+  }
+
+  /** Takes over the files of a previous run, the least recently written ones are evicted first. */
+  private void loadFiles() throws IOException {
+    List<Path> existing;
+    try (Stream<Path> paths = Files.list(directory)) {
+      existing = paths.filter(Files::isRegularFile).toList();
+    }
+
+    for (Path file : existing) {
+      if (file.getFileName().toString().endsWith(DOWNLOAD_SUFFIX)) {
+        Files.deleteIfExists(file);
+      }
+    }
+
+    synchronized (files) {
+      existing.stream()
+          .filter(Files::exists)
+          .sorted(Comparator.comparing(BookThumbnailCache::lastModified))
+          .forEach(file -> add(file.getFileName().toString(), file.toFile().length()));
+    }
+  }
+
+  /**
+   * The cover of the book, fetched from its source if it is not cached yet. Its file is pinned for
+   * {@link #PIN_DURATION}.
+   */
+  public Optional<Thumbnail> get(String isbn) {
+    Thumbnail thumbnail = cached(isbn);
+
+    if (thumbnail != null || isMissing(isbn)) {
+      return Optional.ofNullable(thumbnail);
+    }
+
+    return Optional.ofNullable(coalesce(isbn, () -> load(isbn)));
+  }
+
+  @EventListener
+  public void onBookStored(BookStoredEvent event) {
+    Book book = event.book();
+    if (prefetch && book.getThumbnailSourceUrl() != null) {
+      coalesce(book.getIsbn(), () -> fetch(book.getIsbn(), book));
+    }
+  }
+
+  /** Runs the loader unless a load of the cover is running already, then waits for that one. */
+  private Thumbnail coalesce(String isbn, Supplier<Thumbnail> loader) {
+    CompletableFuture<Thumbnail> load = new CompletableFuture<>();
+    CompletableFuture<Thumbnail> running = loads.putIfAbsent(isbn, load);
+
+    if (running != null) {
+      return running.join();
+    }
+
+    try {
+      Thumbnail thumbnail = loader.get();
+      load.complete(thumbnail);
+      return thumbnail;
+    } catch (RuntimeException e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      loads.remove(isbn, load);
+    }
+  }
+
+  private Thumbnail load(String isbn) {
+    // settled by a load completing after the checks of get
+    Thumbnail cached = cached(isbn);
+
+    if (cached != null || isMissing(isbn)) {
+      return cached;
+    }
+
+    Book book = bookRepository.findByIsbn(isbn);
+
+    if (book == null) {
+      return null;
+    }
+
+    String hash = book.getThumbnailHash();
+    Long fileSize = hash == null ? null : touch(hash);
+
+    if (fileSize == null) {
+      return fetch(isbn, book);
+    }
+
+    Thumbnail thumbnail =
+        new Thumbnail(
+            directory.resolve(hash),
+            fileSize,
+            book.getThumbnailContentType() == null
+                ? MediaType.IMAGE_JPEG
+                : MediaType.parseMediaType(book.getThumbnailContentType()),
+            hash);
+
+    thumbnailsByIsbn.put(isbn, thumbnail);
+    return thumbnail;
+  }
+
+  private Thumbnail fetch(String isbn, Book book) {
+    if (book.getThumbnailSourceUrl() == null) {
+      missingUntil.put(isbn, clock.instant().plus(retryDelay));
+      return null;
+    }
+
+    Thumbnail thumbnail;
+    try {
+      thumbnail =
+          restTemplate.execute(
+              URI.create(book.getThumbnailSourceUrl()),
+              HttpMethod.GET,
+              null,
+              response -> store(response.getBody(), response.getHeaders().getContentType()));
+    } catch (RestClientException e) {
+      LOG.warn(
+          "Failed to fetch the thumbnail of book '{}' from '{}'",
+          isbn,
+          book.getThumbnailSourceUrl(),
+          e);
+      missingUntil.put(isbn, clock.instant().plus(retryDelay));
+      return null;
+    }
+
+    missingUntil.remove(isbn);
+    thumbnailsByIsbn.put(isbn, thumbnail);
+
+    if (!thumbnail.hash().equals(book.getThumbnailHash())) {
+      bookRepository.updateThumbnail(isbn, thumbnail.hash(), thumbnail.contentType().toString());
+    }
+
+    return thumbnail;
+  }
+
+  private Thumbnail store(InputStream content, MediaType contentType) throws IOException {
+    MessageDigest digest = sha256();
+    Path download = Files.createTempFile(directory, "thumbnail-", DOWNLOAD_SUFFIX);
+
+    try {
+      long fileSize;
+      try (OutputStream out = new DigestOutputStream(Files.newOutputStream(download), digest)) {
+        fileSize = content.transferTo(out);
+      }
+
+      String hash = HexFormat.of().formatHex(digest.digest());
+      Path file = directory.resolve(hash);
+
+      synchronized (files) {
+        // an identical cover replaces its file with the very same bytes
+        Files.move(download, file, StandardCopyOption.ATOMIC_MOVE);
+        pinnedUntil.put(hash, clock.instant().plus(PIN_DURATION));
+        add(hash, fileSize);
+      }
+
+      return new Thumbnail(
+          file, fileSize, contentType == null ? MediaType.IMAGE_JPEG : contentType, hash);
+    } finally {
+      Files.deleteIfExists(download);
+    }
+  }
+
+  private Thumbnail cached(String isbn) {
+    Thumbnail thumbnail = thumbnailsByIsbn.get(isbn);
+    return thumbnail != null && touch(thumbnail.hash()) != null ? thumbnail : null;
+  }
+
+  private boolean isMissing(String isbn) {
+    Instant until = missingUntil.get(isbn);
+    return until != null && until.isAfter(clock.instant());
+  }
+
+  /** Marks the file as served and pins it, returns its size or null if it got evicted. */
+  private Long touch(String hash) {
+    synchronized (files) {
+      Long fileSize = files.get(hash);
+
+      if (fileSize != null) {
+        pinnedUntil.put(hash, clock.instant().plus(PIN_DURATION));
+      }
+
+      return fileSize;
+    }
+  }
+
+  // callers hold the lock on files
+  private void add(String hash, long fileSize) {
+    Instant now = clock.instant();
+    pinnedUntil.values().removeIf(until -> !until.isAfter(now));
+    pendingDeletions.removeIf(pending -> deleteUnpinned(pending, now));
+
+    // the file was just written again
+    pendingDeletions.remove(hash);
+
+    Long previousSize = files.put(hash, fileSize);
+    size += fileSize - (previousSize == null ? 0 : previousSize);
+
+    Iterator<Map.Entry<String, Long>> leastRecentlyServed = files.entrySet().iterator();
+    while (size > maxSize && leastRecentlyServed.hasNext()) {
+      Map.Entry<String, Long> eldest = leastRecentlyServed.next();
+
+      if (eldest.getKey().equals(hash)) {
+        break;
+      }
+
+      if (!deleteUnpinned(eldest.getKey(), now)) {
+        pendingDeletions.add(eldest.getKey());
+      }
+
+      size -= eldest.getValue();
+      leastRecentlyServed.remove();
+    }
+  }
+
+  /** Deletes the file unless it is pinned, true if it is gone. */
+  private boolean deleteUnpinned(String hash, Instant now) {
+    Instant until = pinnedUntil.get(hash);
+    if (until != null && until.isAfter(now)) {
+      return false;
+    }
+
+    try {
+      Files.deleteIfExists(directory.resolve(hash));
+    } catch (IOException e) {
+      LOG.warn("Failed to evict thumbnail '{}'", hash, e);
+    }
+    return true;
+  }
+
+  long getSize() {
+    synchronized (files) {
+      return size;
+    }
+  }
+
+  private static FileTime lastModified(Path file) {
+    try {
+      return Files.getLastModifiedTime(file);
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is required by the Java platform", e);
+    }
+  }
+
+  public record Thumbnail(Path file, long size, MediaType contentType, String hash) {}
+}
@@ -0,0 +1,75 @@
+package de.rieckpil.courses.book.management;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Serves the book covers from the {@link BookThumbnailCache} instead of sending every client to the
+ * source. On Tomcat the file is handed to the connector, which transfers it to the socket with
+ * {@code sendfile} without copying it through the JVM.
+ */
+@RestController
+@RequestMapping("/api/books")
+public class BookThumbnailController {
+
+  // request attributes of Tomcat's sendfile support, see org.apache.catalina.Globals
+  static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+  static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  private final BookThumbnailCache bookThumbnailCache;
+  private final BookThumbnailProperties bookThumbnailProperties;
+
+  public BookThumbnailController(
+      BookThumbnailCache bookThumbnailCache, BookThumbnailProperties bookThumbnailProperties) {
+    this.bookThumbnailCache = bookThumbnailCache;
+    this.bookThumbnailProperties = bookThumbnailProperties;
+  }
+
+  /** The thumbnail URL handed out to clients for the cover of the book. */
+  static String thumbnailUrl(String isbn) {
+    return "/api/books/" + isbn + "/thumbnail";
+  }
+
+  @GetMapping("/{isbn}/thumbnail")
+  public ResponseEntity<Resource> getThumbnail(
+      @PathVariable("isbn") String isbn, HttpServletRequest request, WebRequest webRequest) {
+
+    BookThumbnailCache.Thumbnail thumbnail = bookThumbnailCache.get(isbn).orElse(null);
+
+    if (thumbnail == null) {
+      return ResponseEntity.notFound().build();
+    }
+
+    // the cover of a book rarely changes, revalidating it is cheap once the max age is over
+    if (webRequest.checkNotModified("\"" + thumbnail.hash() + "\"")) {
+      return null;
+    }
+
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(bookThumbnailProperties.getMaxAge()).cachePublic())
+            .contentType(thumbnail.contentType())
+            .contentLength(thumbnail.size());
+
+    if (HttpMethod.GET.matches(request.getMethod())
+        && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+      request.setAttribute(SENDFILE_FILENAME, thumbnail.file().toAbsolutePath().toString());
+      request.setAttribute(SENDFILE_START, 0L);
+      request.setAttribute(SENDFILE_END, thumbnail.size());
+      return response.build();
+    }
+
+    return response.body(new FileSystemResource(thumbnail.file()));
+  }
+}
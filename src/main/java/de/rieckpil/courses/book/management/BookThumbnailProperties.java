@@ -0,0 +1,75 @@
+package de.rieckpil.courses.book.management;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "book.thumbnails")
+public class BookThumbnailProperties {
+
+  private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "book-thumbnails");
+
+  /** The least recently served covers are evicted beyond this size. */
+  private DataSize maxSize = DataSize.ofMegabytes(256);
+
+  /** How long clients may reuse a cover without asking again. */
+  private Duration maxAge = Duration.ofDays(30);
+
+  /** Fetch the cover of a newly synchronized book right away instead of on its first request. */
+  private boolean prefetch = true;
+
+  private Duration timeout = Duration.ofSeconds(2);
+
+  /** How long a cover that could not be fetched is answered as missing before fetching it again. */
+  private Duration retryDelay = Duration.ofMinutes(1);
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  public void setDirectory(Path directory) {
+    this.directory = directory;
+  }
+
+  public DataSize getMaxSize() {
+    return maxSize;
+  }
+
+  public void setMaxSize(DataSize maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  public Duration getMaxAge() {
+    return maxAge;
+  }
+
+  public void setMaxAge(Duration maxAge) {
+    this.maxAge = maxAge;
+  }
+
+  public boolean isPrefetch() {
+    return prefetch;
+  }
+
+  public void setPrefetch(boolean prefetch) {
+    this.prefetch = prefetch;
+  }
+
+  public Duration getTimeout() {
+    return timeout;
+  }
+
+  public void setTimeout(Duration timeout) {
+    this.timeout = timeout;
+  }
+
+  public Duration getRetryDelay() {
+    return retryDelay;
+  }
+
+  public void setRetryDelay(Duration retryDelay) {
+    this.retryDelay = retryDelay;
+  }
+}
@@ -11,6 +11,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.messaging.support.GenericMessage;
 import org.springframework.stereotype.Component;
 
@@ -33,6 +35,8 @@ public class InitialBookCreator {
     this.bookSynchronizationQueueName = bookSynchronizationQueueName;
   }
 
+  // ahead of the StartupTimer, whose ready time includes queuing the initial books
+  @Order(Ordered.HIGHEST_PRECEDENCE)
   @EventListener
   public void initialize(ApplicationReadyEvent event) {
     LOG.info("InitialBookCreator running ...");
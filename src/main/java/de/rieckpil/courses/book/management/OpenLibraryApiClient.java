@@ -4,43 +4,84 @@ import java.time.Duration;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
 import reactor.util.retry.Retry;
 
 @Component
 public class OpenLibraryApiClient {
 
   private final WebClient openLibraryWebClient;
+  private final MeterRegistry meterRegistry;
+  private final Counter retries;
 
-  public OpenLibraryApiClient(WebClient openLibraryWebClient) {
+  public OpenLibraryApiClient(WebClient openLibraryWebClient, MeterRegistry meterRegistry) {
     this.openLibraryWebClient = openLibraryWebClient;
+    this.meterRegistry = meterRegistry;
+    this.retries =
+        Counter.builder("open.library.retries")
+            .description("Retried requests to the Open Library API")
+            .register(meterRegistry);
   }
 
   public Book fetchMetadataForBook(String isbn) {
 
-    ObjectNode result =
-        openLibraryWebClient
-            .get()
-            .uri(
-                "/api/books",
-                uriBuilder ->
-                    uriBuilder
-                        .queryParam("jscmd", "data")
-                        .queryParam("format", "json")
-                        .queryParam("bibkeys", isbn)
-                        .build())
-            .retrieve()
-            .bodyToMono(ObjectNode.class)
-            .retryWhen(Retry.fixedDelay(2, Duration.ofMillis(200)))
-            .block();
-
-    JsonNode content = result.get(isbn);
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String status = "IO_ERROR";
+    ResponseEntity<ObjectNode> response;
+
+    try {
+      response = requestMetadata(isbn);
+      status = String.valueOf(response.getStatusCode().value());
+    } catch (RuntimeException e) {
+      status = statusOf(e);
+      throw e;
+    } finally {
+      sample.stop(
+          Timer.builder("open.library.requests")
+              .description("Time spent fetching book metadata including retries")
+              .tag("status", status)
+              .register(meterRegistry));
+    }
+
+    JsonNode content = response.getBody().get(isbn);
 
     return convertToBook(isbn, content);
   }
 
-  private Book convertToBook(String isbn, JsonNode content) {
+  private ResponseEntity<ObjectNode> requestMetadata(String isbn) {
+    return openLibraryWebClient
+        .get()
+        .uri(
+            "/api/books",
+            uriBuilder ->
+                uriBuilder
+                    .queryParam("jscmd", "data")
+                    .queryParam("format", "json")
+                    .queryParam("bibkeys", isbn)
+                    .build())
+        .retrieve()
+        .toEntity(ObjectNode.class)
+        .retryWhen(
+            Retry.fixedDelay(2, Duration.ofMillis(200))
+                .doBeforeRetry(retrySignal -> retries.increment()))
+        .block();
+  }
+
+  private static String statusOf(RuntimeException exception) {
+    Throwable cause = Exceptions.isRetryExhausted(exception) ? exception.getCause() : exception;
+    return cause instanceof WebClientResponseException responseException
+        ? String.valueOf(responseException.getStatusCode().value())
+        : "IO_ERROR";
+  }
+
+  Book convertToBook(String isbn, JsonNode content) {
     Book book = new Book();
     book.setIsbn(isbn);
     book.setThumbnailUrl(content.get("cover").get("small").asText());
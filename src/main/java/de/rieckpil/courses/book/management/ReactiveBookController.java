@@ -0,0 +1,27 @@
+package de.rieckpil.courses.book.management;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * Streams the catalog of the {@link BookController} as newline delimited JSON to clients asking for
+ * it, straight from the database without materializing it first.
+ */
+@RestController
+@RequestMapping(path = "/api/books", produces = MediaType.APPLICATION_NDJSON_VALUE)
+public class ReactiveBookController {
+
+  private final ReactiveBookRepository reactiveBookRepository;
+
+  public ReactiveBookController(ReactiveBookRepository reactiveBookRepository) {
+    this.reactiveBookRepository = reactiveBookRepository;
+  }
+
+  @GetMapping
+  public Flux<Book> streamAvailableBooks() {
+    return reactiveBookRepository.findAll();
+  }
+}
@@ -0,0 +1,46 @@
+package de.rieckpil.courses.book.management;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reads books over R2DBC without holding a thread while waiting for the database. The rows are
+ * fetched in chunks as the subscriber requests them.
+ */
+@Repository
+public class ReactiveBookRepository {
+
+  static final int FETCH_SIZE = 256;
+
+  private final DatabaseClient databaseClient;
+
+  public ReactiveBookRepository(DatabaseClient databaseClient) {
+    this.databaseClient = databaseClient;
+  }
+
+  public Flux<Book> findAll() {
+    return databaseClient
+        .sql(
+            "SELECT id, title, isbn, author, genre, thumbnail_url, description, publisher, pages "
+                + "FROM books")
+        .filter(statement -> statement.fetchSize(FETCH_SIZE))
+        .map(ReactiveBookRepository::mapBook)
+        .all();
+  }
+
+  static Book mapBook(Readable row) {
+    Book book = new Book();
+    book.setId(row.get("id", Long.class));
+    book.setTitle(row.get("title", String.class));
+    book.setIsbn(row.get("isbn", String.class));
+    book.setAuthor(row.get("author", String.class));
+    book.setGenre(row.get("genre", String.class));
+    book.setThumbnailUrl(row.get("thumbnail_url", String.class));
+    book.setDescription(row.get("description", String.class));
+    book.setPublisher(row.get("publisher", String.class));
+    book.setPages(row.get("pages", Long.class));
+    return book;
+  }
+}
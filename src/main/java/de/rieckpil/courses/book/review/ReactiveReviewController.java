@@ -0,0 +1,37 @@
+package de.rieckpil.courses.book.review;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * Streams the review listings of the {@link ReviewController} as newline delimited JSON to clients
+ * asking for it. The request thread is released while the database works, each review is written as
+ * soon as it arrives and the next one is requested once it has been written.
+ */
+@RestController
+@RequestMapping(path = "/api/books", produces = MediaType.APPLICATION_NDJSON_VALUE)
+public class ReactiveReviewController {
+
+  private final ReactiveReviewService reactiveReviewService;
+
+  public ReactiveReviewController(ReactiveReviewService reactiveReviewService) {
+    this.reactiveReviewService = reactiveReviewService;
+  }
+
+  @GetMapping("/reviews")
+  public Flux<ObjectNode> streamAllReviews(
+      @RequestParam(name = "size", defaultValue = "20") Integer size,
+      @RequestParam(name = "orderBy", defaultValue = "none") String orderBy) {
+    return reactiveReviewService.getAllReviews(size, orderBy);
+  }
+
+  @GetMapping("/reviews/statistics")
+  public Flux<ObjectNode> streamReviewStatistics() {
+    return reactiveReviewService.getReviewStatistics();
+  }
+}
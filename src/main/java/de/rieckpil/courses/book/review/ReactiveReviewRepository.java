@@ -0,0 +1,123 @@
+package de.rieckpil.courses.book.review;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.User;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * The published review reads of {@link ReviewRepository} over R2DBC. The rows are mapped to
+ * detached {@link Review} entities, so {@link ReviewService} renders them the same way.
+ */
+@Repository
+public class ReactiveReviewRepository {
+
+  private static final String SELECT_PUBLISHED_REVIEWS =
+      "SELECT r.id, r.title, r.content, r.rating, r.created_at, "
+          + "b.isbn, b.title AS book_title, b.thumbnail_url, u.name AS user_name "
+          + "FROM reviews r JOIN books b ON b.id = r.book_id JOIN users u ON u.id = r.user_id "
+          + "WHERE r.status = 'PUBLISHED' ";
+
+  private final DatabaseClient databaseClient;
+
+  public ReactiveReviewRepository(DatabaseClient databaseClient) {
+    this.databaseClient = databaseClient;
+  }
+
+  public Flux<Review> findLatest(int size) {
+    return databaseClient
+        .sql(SELECT_PUBLISHED_REVIEWS + "ORDER BY r.created_at DESC LIMIT :size")
+        .bind("size", size)
+        .map(ReactiveReviewRepository::mapReview)
+        .all();
+  }
+
+  /** Bounded by creation time on both sides so that PostgreSQL prunes all other partitions. */
+  public Flux<Review> findLatestCreatedBetween(LocalDateTime from, LocalDateTime to, int size) {
+    return databaseClient
+        .sql(
+            SELECT_PUBLISHED_REVIEWS
+                + "AND r.created_at BETWEEN :from AND :to ORDER BY r.created_at DESC LIMIT :size")
+        .bind("from", from)
+        .bind("to", to)
+        .bind("size", size)
+        .map(ReactiveReviewRepository::mapReview)
+        .all();
+  }
+
+  public Flux<Review> findBestRated(int size) {
+    return databaseClient
+        .sql(SELECT_PUBLISHED_REVIEWS + "ORDER BY r.rating DESC, r.created_at DESC LIMIT :size")
+        .bind("size", size)
+        .map(ReactiveReviewRepository::mapReview)
+        .all();
+  }
+
+  public Flux<ReviewStatistic> getReviewStatistics() {
+    return databaseClient
+        .sql(
+            "SELECT id, ratings, isbn, avg FROM books JOIN "
+                + "(SELECT book_id, ROUND(AVG(rating), 2) AS avg, COUNT(*) ratings FROM reviews "
+                + "WHERE status = 'PUBLISHED' group by book_id) AS statistics "
+                + "ON statistics.book_id = id")
+        .map(
+            row ->
+                (ReviewStatistic)
+                    new Statistic(
+                        row.get("id", Long.class),
+                        row.get("ratings", Long.class),
+                        row.get("isbn", String.class),
+                        row.get("avg", BigDecimal.class)))
+        .all();
+  }
+
+  private static Review mapReview(Readable row) {
+    Book book = new Book();
+    book.setIsbn(row.get("isbn", String.class));
+    book.setTitle(row.get("book_title", String.class));
+    book.setThumbnailUrl(row.get("thumbnail_url", String.class));
+
+    User user = new User();
+    user.setName(row.get("user_name", String.class));
+
+    Review review = new Review();
+    review.setId(row.get("id", Long.class));
+    review.setTitle(row.get("title", String.class));
+    review.setContent(row.get("content", String.class));
+    review.setRating(row.get("rating", Integer.class));
+    review.setCreatedAt(row.get("created_at", LocalDateTime.class));
+    review.setStatus(ReviewStatus.PUBLISHED);
+    review.setBook(book);
+    review.setUser(user);
+    return review;
+  }
+
+  private record Statistic(Long id, Long ratings, String isbn, BigDecimal avg)
+      implements ReviewStatistic {
+
+    @Override
+    public Long getId() {
+      return id;
+    }
+
+    @Override
+    public Long getRatings() {
+      return ratings;
+    }
+
+    @Override
+    public String getIsbn() {
+      return isbn;
+    }
+
+    @Override
+    public BigDecimal getAvg() {
+      return avg;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+/**
+ * Streams the review listings of {@link ReviewService} from the {@link ReactiveReviewRepository},
+ * rendered by the same mapping. Not transactional, every listing is a single statement.
+ */
+@Service
+public class ReactiveReviewService {
+
+  private final ReactiveReviewRepository reactiveReviewRepository;
+  private final ReviewLeaderboard reviewLeaderboard;
+  private final ReviewPartitionProperties reviewPartitionProperties;
+
+  public ReactiveReviewService(
+      ReactiveReviewRepository reactiveReviewRepository,
+      ReviewLeaderboard reviewLeaderboard,
+      ReviewPartitionProperties reviewPartitionProperties) {
+    this.reactiveReviewRepository = reactiveReviewRepository;
+    this.reviewLeaderboard = reviewLeaderboard;
+    this.reviewPartitionProperties = reviewPartitionProperties;
+  }
+
+  public Flux<ObjectNode> getReviewStatistics() {
+    return reactiveReviewRepository.getReviewStatistics().map(ReviewService::mapReviewStatistic);
+  }
+
+  public Flux<ObjectNode> getAllReviews(int size, String orderBy) {
+    if (orderBy.equals("rating")) {
+      return Flux.defer(
+          () ->
+              reviewLeaderboard.isLoaded()
+                  ? Flux.fromIterable(reviewLeaderboard.top(size)).map(ObjectNode::deepCopy)
+                  : reactiveReviewRepository
+                      .findBestRated(Math.min(size, reviewLeaderboard.getSize()))
+                      .map(ReviewService::mapReview));
+    }
+
+    return Flux.defer(
+        () -> {
+          LocalDateTime now = LocalDateTime.now();
+          return reactiveReviewRepository
+              .findLatestCreatedBetween(
+                  now.minus(reviewPartitionProperties.getLatestReviewsWindow()), now, size)
+              .collectList()
+              .flatMapMany(
+                  recentReviews ->
+                      // not enough recent reviews, look through all partitions
+                      recentReviews.size() < size
+                          ? reactiveReviewRepository.findLatest(size)
+                          : Flux.fromIterable(recentReviews))
+              .map(ReviewService::mapReview);
+        });
+  }
+}
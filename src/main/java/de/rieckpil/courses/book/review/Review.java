@@ -26,6 +26,10 @@ public class Review {
   @Column(nullable = false)
   private LocalDateTime createdAt;
 
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private ReviewStatus status = ReviewStatus.PUBLISHED;
+
   @ManyToOne private Book book;
 
   @ManyToOne private User user;
@@ -70,6 +74,14 @@ public class Review {
     this.createdAt = createdAt;
   }
 
+  public ReviewStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(ReviewStatus status) {
+    this.status = status;
+  }
+
   public Book getBook() {
     return book;
   }
@@ -101,6 +113,8 @@ public class Review {
         + rating
         + ", createdAt="
         + createdAt
+        + ", status="
+        + status
         + ", book="
         + book
         + ", user="
@@ -1,13 +1,18 @@
 package de.rieckpil.courses.book.review;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -17,21 +22,51 @@ import org.springframework.web.util.UriComponentsBuilder;
 public class ReviewController {
 
   private final ReviewService reviewService;
+  private final ReviewModerationProperties reviewModerationProperties;
+  private final ReviewEventBroadcaster reviewEventBroadcaster;
+  private final ReviewListingVersion reviewListingVersion;
+  private final ObjectMapper objectMapper = new ObjectMapper();
 
-  public ReviewController(ReviewService reviewService) {
+  public ReviewController(
+      ReviewService reviewService,
+      ReviewModerationProperties reviewModerationProperties,
+      ReviewEventBroadcaster reviewEventBroadcaster,
+      ReviewListingVersion reviewListingVersion) {
     this.reviewService = reviewService;
+    this.reviewModerationProperties = reviewModerationProperties;
+    this.reviewEventBroadcaster = reviewEventBroadcaster;
+    this.reviewListingVersion = reviewListingVersion;
   }
 
   @GetMapping("/reviews")
-  public ArrayNode getAllReviews(
+  public ResponseEntity<ArrayNode> getAllReviews(
       @RequestParam(name = "size", defaultValue = "20") Integer size,
-      @RequestParam(name = "orderBy", defaultValue = "none") String orderBy) {
-    return reviewService.getAllReviews(size, orderBy);
+      @RequestParam(name = "orderBy", defaultValue = "none") String orderBy,
+      WebRequest webRequest) {
+    if (webRequest.checkNotModified(reviewListingVersion.getETag())) {
+      return null;
+    }
+
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.noCache().cachePublic())
+        .body(reviewService.getAllReviews(size, orderBy));
+  }
+
+  @GetMapping(path = "/reviews/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamReviews(
+      @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+    return reviewEventBroadcaster.subscribe(lastEventId);
   }
 
   @GetMapping("/reviews/statistics")
-  public ArrayNode getReviewStatistics() {
-    return reviewService.getReviewStatistics();
+  public ResponseEntity<ArrayNode> getReviewStatistics(WebRequest webRequest) {
+    if (webRequest.checkNotModified(reviewListingVersion.getETag())) {
+      return null;
+    }
+
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.noCache().cachePrivate())
+        .body(reviewService.getReviewStatistics());
   }
 
   @PostMapping("/{isbn}/reviews")
@@ -41,6 +76,21 @@ public class ReviewController {
       JwtAuthenticationToken jwt,
       UriComponentsBuilder uriComponentsBuilder) {
 
+    if (reviewModerationProperties.isAsync()) {
+      Long reviewId =
+          reviewService.submitBookReview(
+              isbn,
+              bookReviewRequest,
+              jwt.getTokenAttributes().get("preferred_username").toString(),
+              jwt.getTokenAttributes().get("email").toString());
+
+      UriComponents uriComponents =
+          uriComponentsBuilder
+              .path("/api/books/{isbn}/reviews/{reviewId}/status")
+              .buildAndExpand(isbn, reviewId);
+      return ResponseEntity.accepted().location(uriComponents.toUri()).build();
+    }
+
     Long reviewId =
         reviewService.createBookReview(
             isbn,
@@ -61,6 +111,14 @@ public class ReviewController {
     reviewService.deleteReview(isbn, reviewId);
   }
 
+  @GetMapping("/{isbn}/reviews/{reviewId}/status")
+  public ObjectNode getReviewStatus(@PathVariable String isbn, @PathVariable Long reviewId) {
+    ObjectNode result = objectMapper.createObjectNode();
+    result.put("reviewId", reviewId);
+    result.put("status", reviewService.getReviewStatus(isbn, reviewId).name());
+    return result;
+  }
+
   @GetMapping("/{isbn}/reviews/{reviewId}")
   public ObjectNode getReviewById(@PathVariable String isbn, @PathVariable Long reviewId) {
     return reviewService.getReviewById(isbn, reviewId);
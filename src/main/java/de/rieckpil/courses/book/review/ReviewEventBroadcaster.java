@@ -0,0 +1,287 @@
+package de.rieckpil.courses.book.review;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes review changes to the clients of {@code /api/books/reviews/stream}. Every event is
+ * serialized once and queued per client, a small sender pool writes the queues to the clients.
+ * Publishing never blocks on a client: a client whose queue is full gets disconnected and has to
+ * reconnect, catching up through {@code Last-Event-ID} while the missed events are still retained.
+ *
+ * <p>Event ids are prefixed with an epoch unique to this instance. Ids of another instance, or of
+ * this one before a restart, say nothing about the events retained here, such clients get a reset.
+ */
+@Component
+public class ReviewEventBroadcaster {
+
+  static final String REVIEW_CREATED = "review-created";
+  static final String REVIEW_DELETED = "review-deleted";
+
+  /** Tells a reconnecting client that events were lost and it has to reload the reviews. */
+  static final String RESET = "reset";
+
+  private static final Logger LOG = LoggerFactory.getLogger(ReviewEventBroadcaster.class);
+
+  private static final Event HEARTBEAT = new Event(0, null, null);
+
+  private final int maxSubscribers;
+  private final int bufferSize;
+  private final long timeout;
+  private final Executor senders;
+  private final Counter evictions;
+
+  private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+  private final Deque<Event> recentEvents;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final String epoch;
+  private long lastEventId;
+
+  @Autowired
+  public ReviewEventBroadcaster(
+      ReviewStreamProperties reviewStreamProperties, MeterRegistry meterRegistry) {
+    this(
+        reviewStreamProperties,
+        meterRegistry,
+        Executors.newFixedThreadPool(
+            reviewStreamProperties.getSenderThreads(),
+            new CustomizableThreadFactory("review-stream-")),
+        Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36));
+  }
+
+  ReviewEventBroadcaster(
+      ReviewStreamProperties reviewStreamProperties,
+      MeterRegistry meterRegistry,
+      Executor senders,
+      String epoch) {
+    this.maxSubscribers = reviewStreamProperties.getMaxSubscribers();
+    this.bufferSize = reviewStreamProperties.getBufferSize();
+    this.timeout = reviewStreamProperties.getTimeout().toMillis();
+    this.senders = senders;
+    this.epoch = epoch;
+    this.recentEvents = new ArrayDeque<>(bufferSize);
+    this.evictions =
+        Counter.builder("review.stream.evictions")
+            .description("Clients disconnected for falling behind the review stream")
+            .register(meterRegistry);
+    meterRegistry.gauge("review.stream.subscribers", subscribers, List::size);
+  }
+
+  public SseEmitter subscribe(String lastEventId) {
+    return subscribe(new SseEmitter(timeout), lastEventId);
+  }
+
+  SseEmitter subscribe(SseEmitter emitter, String lastEventId) {
+    if (subscribers.size() >= maxSubscribers) {
+      throw new ResponseStatusException(
+          HttpStatus.SERVICE_UNAVAILABLE, "Too many clients connected to the review stream");
+    }
+
+    Subscriber subscriber = new Subscriber(emitter, bufferSize);
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> subscribers.remove(subscriber));
+    emitter.onError(e -> subscribers.remove(subscriber));
+
+    // registering and replaying under the publishing lock neither loses nor duplicates an event
+    synchronized (this) {
+      if (lastEventId != null) {
+        long lastSeenEventId = parseEventId(lastEventId);
+        if (lastSeenEventId < 0 || lastSeenEventId > this.lastEventId) {
+          subscriber.queue.offer(resetEvent());
+        } else if (lastSeenEventId < this.lastEventId) {
+          replay(subscriber, lastSeenEventId);
+        }
+      }
+      subscribers.add(subscriber);
+    }
+
+    schedule(subscriber);
+    return emitter;
+  }
+
+  private void replay(Subscriber subscriber, long lastSeenEventId) {
+    Event oldestRetained = recentEvents.peekFirst();
+
+    if (oldestRetained == null || oldestRetained.id() > lastSeenEventId + 1) {
+      subscriber.queue.offer(resetEvent());
+      return;
+    }
+
+    for (Event event : recentEvents) {
+      if (event.id() > lastSeenEventId) {
+        subscriber.queue.offer(event);
+      }
+    }
+  }
+
+  private Event resetEvent() {
+    return new Event(lastEventId, RESET, "{}");
+  }
+
+  /** The sequence number of an id of this epoch, or {@code -1}. */
+  private long parseEventId(String eventId) {
+    String prefix = epoch + "-";
+    if (eventId.startsWith(prefix)) {
+      try {
+        return Long.parseLong(eventId.substring(prefix.length()));
+      } catch (NumberFormatException e) {
+        // not an id of this instance either
+      }
+    }
+    return -1;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onReviewPublished(ReviewPublishedEvent event) {
+    publish(REVIEW_CREATED, event.review());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onReviewDeleted(ReviewDeletedEvent event) {
+    ObjectNode deletion = objectMapper.createObjectNode();
+    deletion.put("reviewId", event.reviewId());
+    deletion.put("bookIsbn", event.bookIsbn());
+    publish(REVIEW_DELETED, deletion);
+  }
+
+  @Scheduled(fixedDelayString = "${review.stream.heartbeat-interval:PT15S}")
+  public void sendHeartbeat() {
+    subscribers.forEach(subscriber -> enqueue(subscriber, HEARTBEAT));
+  }
+
+  void publish(String name, ObjectNode data) {
+    String json;
+    try {
+      json = objectMapper.writeValueAsString(data);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize review event", e);
+    }
+
+    synchronized (this) {
+      Event event = new Event(++lastEventId, name, json);
+
+      if (recentEvents.size() == bufferSize) {
+        recentEvents.removeFirst();
+      }
+      recentEvents.addLast(event);
+
+      subscribers.forEach(subscriber -> enqueue(subscriber, event));
+    }
+  }
+
+  int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  private void enqueue(Subscriber subscriber, Event event) {
+    if (!subscriber.queue.offer(event)) {
+      evict(subscriber);
+    }
+    schedule(subscriber);
+  }
+
+  /**
+   * The emitter is completed by the sender, a publisher calling into it would have to wait for a
+   * blocked write to the slow client.
+   */
+  private void evict(Subscriber subscriber) {
+    if (subscribers.remove(subscriber)) {
+      subscriber.evicted = true;
+      subscriber.queue.clear();
+      evictions.increment();
+      LOG.debug("Disconnecting review stream client that fell {} events behind", bufferSize);
+    }
+  }
+
+  private void schedule(Subscriber subscriber) {
+    if (subscriber.draining.compareAndSet(false, true)) {
+      senders.execute(() -> drain(subscriber));
+    }
+  }
+
+  private void drain(Subscriber subscriber) {
+    do {
+      Event event;
+      while (!subscriber.evicted && (event = subscriber.queue.poll()) != null) {
+        try {
+          subscriber.emitter.send(toSseEvent(event));
+        } catch (IOException | IllegalStateException e) {
+          // the client went away, the emitter's error callback removes it
+          subscribers.remove(subscriber);
+          subscriber.evicted = true;
+          return;
+        }
+      }
+
+      if (subscriber.evicted) {
+        subscriber.emitter.complete();
+        return;
+      }
+
+      subscriber.draining.set(false);
+      // an event queued after polling the last one but before releasing the flag
+    } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+  }
+
+  private SseEmitter.SseEventBuilder toSseEvent(Event event) {
+    if (event == HEARTBEAT) {
+      return SseEmitter.event().comment("heartbeat");
+    }
+    return SseEmitter.event()
+        .id(epoch + "-" + event.id())
+        .name(event.name())
+        .data(event.json(), MediaType.APPLICATION_JSON);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (senders instanceof ExecutorService executorService) {
+      executorService.shutdownNow();
+    }
+    subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    subscribers.clear();
+  }
+
+  private record Event(long id, String name, String json) {}
+
+  private static final class Subscriber {
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<Event> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean evicted;
+
+    private Subscriber(SseEmitter emitter, int bufferSize) {
+      this.emitter = emitter;
+      this.queue = new ArrayBlockingQueue<>(bufferSize);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, ordered set of the best-rated published reviews. Keeps twice the configured size so
+ * deleting a few of them does not require going back to the database right away.
+ *
+ * <p>Until it has been loaded, or once deletions shrank it below the configured size while more
+ * reviews may exist, the leaderboard is not {@link #isLoaded() loaded} and callers have to query
+ * the database instead.
+ */
+@Component
+public class ReviewLeaderboard {
+
+  static final Comparator<Entry> BEST_RATED_FIRST =
+      Comparator.comparingInt(Entry::rating)
+          .thenComparing(Entry::createdAt)
+          .thenComparingLong(Entry::reviewId)
+          .reversed();
+
+  private final int size;
+  private final int capacity;
+
+  private final TreeSet<Entry> entries = new TreeSet<>(BEST_RATED_FIRST);
+  private boolean loaded = false;
+  // holds all published reviews, so nothing is missing after a deletion
+  private boolean complete = false;
+  private long version = 0;
+
+  public ReviewLeaderboard(ReviewLeaderboardProperties reviewLeaderboardProperties) {
+    this.size = reviewLeaderboardProperties.getSize();
+    this.capacity = size * 2;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  /** Number of reviews to load when replacing the leaderboard. */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public synchronized boolean isLoaded() {
+    return loaded;
+  }
+
+  /** Changes with every update, used to detect updates racing with a reload. */
+  public synchronized long getVersion() {
+    return version;
+  }
+
+  /**
+   * Replaces all entries with the best-rated reviews read from the database, unless the leaderboard
+   * got updated since {@code basedOnVersion} and the entries might be outdated.
+   */
+  public synchronized boolean replaceAll(List<Entry> bestRated, long basedOnVersion) {
+    if (version != basedOnVersion) {
+      return false;
+    }
+
+    entries.clear();
+    bestRated.stream().limit(capacity).forEach(entries::add);
+    complete = bestRated.size() < capacity;
+    loaded = true;
+    version++;
+    return true;
+  }
+
+  public synchronized void offer(Entry entry) {
+    version++;
+    entries.add(entry);
+    if (entries.size() > capacity) {
+      entries.pollLast();
+      complete = false;
+    }
+  }
+
+  public synchronized void remove(Long reviewId) {
+    version++;
+    if (entries.removeIf(entry -> entry.reviewId() == reviewId)
+        && !complete
+        && entries.size() < size) {
+      loaded = false;
+    }
+  }
+
+  /** The best-rated reviews, at most {@code limit} and never more than the configured size. */
+  public synchronized List<ObjectNode> top(int limit) {
+    return entries.stream().limit(Math.min(limit, size)).map(Entry::review).toList();
+  }
+
+  public record Entry(long reviewId, int rating, LocalDateTime createdAt, ObjectNode review) {}
+}
@@ -0,0 +1,31 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "review.leaderboard")
+public class ReviewLeaderboardProperties {
+
+  /** Number of best-rated reviews served for {@code orderBy=rating}. */
+  private int size = 5;
+
+  /** Reloads the leaderboard from the database to repair missed updates. */
+  private Duration reconciliationInterval = Duration.ofMinutes(5);
+
+  public int getSize() {
+    return size;
+  }
+
+  public void setSize(int size) {
+    this.size = size;
+  }
+
+  public Duration getReconciliationInterval() {
+    return reconciliationInterval;
+  }
+
+  public void setReconciliationInterval(Duration reconciliationInterval) {
+    this.reconciliationInterval = reconciliationInterval;
+  }
+}
@@ -0,0 +1,19 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.Clock;
+
+import de.rieckpil.courses.config.ETagProperties;
+import de.rieckpil.courses.config.ResourceVersion;
+import org.springframework.stereotype.Component;
+
+/**
+ * Version of {@code /api/books/reviews} and its statistics, incremented for every published or
+ * deleted review.
+ */
+@Component
+public class ReviewListingVersion extends ResourceVersion {
+
+  public ReviewListingVersion(ETagProperties eTagProperties) {
+    super(eTagProperties, Clock.systemUTC());
+  }
+}
@@ -0,0 +1,51 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "review.moderation")
+public class ReviewModerationProperties {
+
+  /** Accept new reviews with 202 and verify them in the background instead of synchronously. */
+  private boolean async = false;
+
+  private int workers = 2;
+
+  private int batchSize = 50;
+
+  /** Safety net for pending reviews whose submission event got lost, e.g. due to a restart. */
+  private Duration pollInterval = Duration.ofSeconds(5);
+
+  public boolean isAsync() {
+    return async;
+  }
+
+  public void setAsync(boolean async) {
+    this.async = async;
+  }
+
+  public int getWorkers() {
+    return workers;
+  }
+
+  public void setWorkers(int workers) {
+    this.workers = workers;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public Duration getPollInterval() {
+    return pollInterval;
+  }
+
+  public void setPollInterval(Duration pollInterval) {
+    this.pollInterval = pollInterval;
+  }
+}
@@ -0,0 +1,128 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Drains {@link ReviewStatus#PENDING} reviews in batches on a bounded worker pool. A single
+ * dispatcher thread fetches the batches, so concurrent submissions coalesce into one drain run.
+ */
+@Component
+@ConditionalOnProperty(prefix = "review.moderation", name = "async", havingValue = "true")
+public class ReviewModerationWorker {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ReviewModerationWorker.class);
+
+  private final ReviewService reviewService;
+  private final ReviewRepository reviewRepository;
+  private final int batchSize;
+
+  private final ExecutorService dispatcher;
+  private final ExecutorService workers;
+  private final AtomicInteger drainRequests = new AtomicInteger();
+
+  public ReviewModerationWorker(
+      ReviewService reviewService,
+      ReviewRepository reviewRepository,
+      ReviewModerationProperties reviewModerationProperties) {
+    this.reviewService = reviewService;
+    this.reviewRepository = reviewRepository;
+    this.batchSize = reviewModerationProperties.getBatchSize();
+    this.dispatcher =
+        Executors.newSingleThreadExecutor(new CustomizableThreadFactory("review-moderation-"));
+    this.workers =
+        new ThreadPoolExecutor(
+            reviewModerationProperties.getWorkers(),
+            reviewModerationProperties.getWorkers(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(batchSize),
+            new CustomizableThreadFactory("review-moderation-worker-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  @TransactionalEventListener
+  public void onReviewSubmitted(ReviewSubmittedEvent event) {
+    requestDrain();
+  }
+
+  @Scheduled(fixedDelayString = "${review.moderation.poll-interval:PT5S}")
+  public void pollPendingReviews() {
+    requestDrain();
+  }
+
+  void requestDrain() {
+    if (drainRequests.getAndIncrement() == 0) {
+      dispatcher.execute(this::drain);
+    }
+  }
+
+  private void drain() {
+    int seenRequests;
+    do {
+      seenRequests = drainRequests.get();
+      try {
+        drainPendingReviews();
+      } catch (RuntimeException e) {
+        LOG.error("Failed to drain pending reviews, retrying with the next poll", e);
+      }
+    } while (!drainRequests.compareAndSet(seenRequests, 0));
+  }
+
+  void drainPendingReviews() {
+    long lastReviewId = 0;
+    List<Long> pendingReviewIds;
+
+    while (!(pendingReviewIds =
+            reviewRepository.findIdsByStatusAfter(
+                ReviewStatus.PENDING, lastReviewId, PageRequest.of(0, batchSize)))
+        .isEmpty()) {
+
+      List<Callable<ReviewStatus>> finalizations =
+          pendingReviewIds.stream()
+              .<Callable<ReviewStatus>>map(id -> () -> reviewService.finalizeReview(id))
+              .toList();
+
+      try {
+        for (Future<ReviewStatus> finalization : workers.invokeAll(finalizations)) {
+          try {
+            finalization.get();
+          } catch (ExecutionException e) {
+            // stays pending and is retried with the next poll
+            LOG.warn("Failed to finalize pending review", e.getCause());
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+
+      LOG.debug("Finalized batch of {} pending reviews", pendingReviewIds.size());
+      lastReviewId = pendingReviewIds.get(pendingReviewIds.size() - 1);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    dispatcher.shutdownNow();
+    workers.shutdownNow();
+  }
+}
@@ -0,0 +1,57 @@
+package de.rieckpil.courses.book.review;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stores review events in the {@code review_outbox} table within the transaction publishing or
+ * deleting the review, so downstream systems learn about a change if and only if it commits. The
+ * {@link ReviewOutboxRelay} forwards them to SQS.
+ */
+@Component
+public class ReviewOutbox {
+
+  static final String REVIEW_PUBLISHED = "REVIEW_PUBLISHED";
+  static final String REVIEW_DELETED = "REVIEW_DELETED";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public ReviewOutbox(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @EventListener
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void onReviewPublished(ReviewPublishedEvent event) {
+    append(REVIEW_PUBLISHED, event.reviewId(), event.review());
+  }
+
+  @EventListener
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void onReviewDeleted(ReviewDeletedEvent event) {
+    append(
+        REVIEW_DELETED,
+        event.reviewId(),
+        JsonNodeFactory.instance
+            .objectNode()
+            .put("reviewId", event.reviewId())
+            .put("bookIsbn", event.bookIsbn()));
+  }
+
+  private void append(String eventType, Long reviewId, JsonNode payload) {
+    jdbcTemplate.update(
+        "INSERT INTO review_outbox (event_type, review_id, payload, created_at) VALUES (?, ?, ?::jsonb, ?)",
+        eventType,
+        reviewId,
+        payload.toString(),
+        Timestamp.valueOf(LocalDateTime.now()));
+  }
+}
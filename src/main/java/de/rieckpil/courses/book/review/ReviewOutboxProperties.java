@@ -0,0 +1,72 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "review.outbox")
+public class ReviewOutboxProperties {
+
+  /** Forward the stored review events to SQS, disable where no queue is available. */
+  private boolean relayEnabled = true;
+
+  private String queue = "review-events";
+
+  /** Number of events locked and sent per transaction, sent to SQS in batches of ten. */
+  private int batchSize = 100;
+
+  private Duration pollInterval = Duration.ofSeconds(1);
+
+  /** Keeps sent events for inspection and replay before purging them. */
+  private Duration retention = Duration.ofDays(7);
+
+  private Duration purgeInterval = Duration.ofHours(1);
+
+  public boolean isRelayEnabled() {
+    return relayEnabled;
+  }
+
+  public void setRelayEnabled(boolean relayEnabled) {
+    this.relayEnabled = relayEnabled;
+  }
+
+  public String getQueue() {
+    return queue;
+  }
+
+  public void setQueue(String queue) {
+    this.queue = queue;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public Duration getPollInterval() {
+    return pollInterval;
+  }
+
+  public void setPollInterval(Duration pollInterval) {
+    this.pollInterval = pollInterval;
+  }
+
+  public Duration getRetention() {
+    return retention;
+  }
+
+  public void setRetention(Duration retention) {
+    this.retention = retention;
+  }
+
+  public Duration getPurgeInterval() {
+    return purgeInterval;
+  }
+
+  public void setPurgeInterval(Duration purgeInterval) {
+    this.purgeInterval = purgeInterval;
+  }
+}
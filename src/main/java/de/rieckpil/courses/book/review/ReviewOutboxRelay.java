@@ -0,0 +1,179 @@
+package de.rieckpil.courses.book.review;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.awspring.cloud.sqs.operations.SendBatchOperationFailedException;
+import io.awspring.cloud.sqs.operations.SendResult;
+import io.awspring.cloud.sqs.operations.SqsTemplate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Forwards the events of the {@link ReviewOutbox} to SQS. Each run locks a batch of unsent events
+ * with {@code SKIP LOCKED}, so several instances relay disjoint batches, sends them in SQS batch
+ * requests and marks the sent ones within the same transaction. Events are delivered at least once,
+ * consumers deduplicate them by the {@value #EVENT_ID_HEADER} header.
+ */
+@Component
+@ConditionalOnProperty(
+    prefix = "review.outbox",
+    name = "relay-enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class ReviewOutboxRelay {
+
+  static final String EVENT_ID_HEADER = "review-event-id";
+  static final String EVENT_TYPE_HEADER = "review-event-type";
+
+  // the maximum number of entries of an SQS batch request
+  static final int SEND_BATCH_SIZE = 10;
+
+  private static final Logger LOG = LoggerFactory.getLogger(ReviewOutboxRelay.class);
+
+  private static final String LOCK_UNSENT_EVENTS =
+      """
+      SELECT id, event_type, payload, created_at FROM review_outbox
+      WHERE sent_at IS NULL ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final SqsTemplate sqsTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ReviewOutboxProperties reviewOutboxProperties;
+
+  private final Counter sentEvents;
+  private final Counter failedEvents;
+  private final Timer relayLag;
+
+  public ReviewOutboxRelay(
+      JdbcTemplate jdbcTemplate,
+      SqsTemplate sqsTemplate,
+      PlatformTransactionManager transactionManager,
+      ReviewOutboxProperties reviewOutboxProperties,
+      MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.sqsTemplate = sqsTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.reviewOutboxProperties = reviewOutboxProperties;
+
+    this.sentEvents = relayedEvents("sent", meterRegistry);
+    this.failedEvents = relayedEvents("failed", meterRegistry);
+    this.relayLag =
+        Timer.builder("review.outbox.lag")
+            .description("Time review events spent in the outbox until they were sent")
+            .register(meterRegistry);
+  }
+
+  private static Counter relayedEvents(String outcome, MeterRegistry meterRegistry) {
+    return Counter.builder("review.outbox.events")
+        .description("Review events relayed from the outbox to SQS")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+
+  /** Relays batches until the outbox is drained or a send fails. */
+  @Scheduled(fixedDelayString = "${review.outbox.poll-interval:PT1S}")
+  public void relayPendingEvents() {
+    Integer sent;
+    do {
+      sent = transactionTemplate.execute(status -> relayBatch());
+    } while (sent != null && sent == reviewOutboxProperties.getBatchSize());
+  }
+
+  int relayBatch() {
+    List<OutboxEvent> events =
+        jdbcTemplate.query(
+            LOCK_UNSENT_EVENTS,
+            (rs, rowNum) ->
+                new OutboxEvent(
+                    rs.getLong("id"),
+                    rs.getString("event_type"),
+                    rs.getString("payload"),
+                    rs.getTimestamp("created_at").toLocalDateTime()),
+            reviewOutboxProperties.getBatchSize());
+
+    List<OutboxEvent> sent = new ArrayList<>(events.size());
+    for (int from = 0; from < events.size(); from += SEND_BATCH_SIZE) {
+      sent.addAll(send(events.subList(from, Math.min(from + SEND_BATCH_SIZE, events.size()))));
+    }
+
+    LocalDateTime sentAt = LocalDateTime.now();
+    jdbcTemplate.batchUpdate(
+        "UPDATE review_outbox SET sent_at = ? WHERE id = ?",
+        sent.stream().map(event -> new Object[] {Timestamp.valueOf(sentAt), event.id()}).toList());
+
+    sent.forEach(event -> relayLag.record(Duration.between(event.createdAt(), sentAt)));
+    sentEvents.increment(sent.size());
+    failedEvents.increment(events.size() - sent.size());
+
+    // stop for this run if anything failed, the unsent events are retried with the next poll
+    return sent.size() == events.size() ? sent.size() : 0;
+  }
+
+  private List<OutboxEvent> send(List<OutboxEvent> events) {
+    List<Message<String>> messages =
+        events.stream()
+            .<Message<String>>map(
+                event ->
+                    new GenericMessage<>(
+                        event.payload(),
+                        Map.of(
+                            EVENT_ID_HEADER,
+                            event.id().toString(),
+                            EVENT_TYPE_HEADER,
+                            event.type())))
+            .toList();
+
+    Collection<SendResult<String>> successful;
+    try {
+      successful = sqsTemplate.sendMany(reviewOutboxProperties.getQueue(), messages).successful();
+    } catch (SendBatchOperationFailedException e) {
+      LOG.warn("Failed to send some review events, retrying with the next poll", e);
+      successful = e.getSendBatchResult(String.class).successful();
+    } catch (RuntimeException e) {
+      LOG.warn("Failed to send review events, retrying with the next poll", e);
+      return List.of();
+    }
+
+    Set<Object> sentIds =
+        successful.stream()
+            .map(result -> result.message().getHeaders().get(EVENT_ID_HEADER))
+            .collect(Collectors.toSet());
+
+    return events.stream().filter(event -> sentIds.contains(event.id().toString())).toList();
+  }
+
+  /** Sent events stay around for {@link ReviewOutboxProperties#getRetention()}. */
+  @Scheduled(fixedDelayString = "${review.outbox.purge-interval:PT1H}")
+  public void purgeSentEvents() {
+    int purged =
+        jdbcTemplate.update(
+            "DELETE FROM review_outbox WHERE sent_at < ?",
+            Timestamp.valueOf(LocalDateTime.now().minus(reviewOutboxProperties.getRetention())));
+
+    if (purged > 0) {
+      LOG.info("Purged {} sent review events", purged);
+    }
+  }
+
+  record OutboxEvent(Long id, String type, String payload, LocalDateTime createdAt) {}
+}
@@ -0,0 +1,83 @@
+package de.rieckpil.courses.book.review;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps monthly partitions of the reviews table ahead of time and detaches partitions past the
+ * retention. The partitioning functions come with {@code V006__PARTITION_REVIEWS_BY_CREATED_AT}.
+ */
+@Component
+@ConditionalOnProperty(
+    prefix = "review.partitions",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class ReviewPartitionMaintenance {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ReviewPartitionMaintenance.class);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ReviewPartitionProperties reviewPartitionProperties;
+
+  public ReviewPartitionMaintenance(
+      JdbcTemplate jdbcTemplate, ReviewPartitionProperties reviewPartitionProperties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.reviewPartitionProperties = reviewPartitionProperties;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${review.partitions.maintenance-cron:0 0 3 * * *}")
+  public void maintainPartitions() {
+    createPartitions(LocalDate.now());
+
+    if (reviewPartitionProperties.getRetention() != null) {
+      detachPartitionsCreatedBefore(
+          LocalDateTime.now().minus(reviewPartitionProperties.getRetention()));
+    }
+  }
+
+  /** Creates the missing monthly partitions from the given month on. */
+  public List<String> createPartitions(LocalDate fromMonth) {
+    List<String> partitions =
+        jdbcTemplate.queryForList(
+            "SELECT create_review_partitions(?, ?)",
+            String.class,
+            Date.valueOf(fromMonth),
+            reviewPartitionProperties.getMonthsAhead());
+
+    if (!partitions.isEmpty()) {
+      LOG.info("Created review partitions {}", partitions);
+    }
+
+    return partitions;
+  }
+
+  /**
+   * Detaches all monthly partitions that only contain reviews created before the given time. The
+   * detached tables keep their rows until they get archived and dropped.
+   */
+  public List<String> detachPartitionsCreatedBefore(LocalDateTime createdBefore) {
+    List<String> partitions =
+        jdbcTemplate.queryForList(
+            "SELECT detach_review_partitions(?)", String.class, Timestamp.valueOf(createdBefore));
+
+    if (!partitions.isEmpty()) {
+      LOG.info("Detached review partitions {} for archival", partitions);
+    }
+
+    return partitions;
+  }
+}
@@ -0,0 +1,53 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "review.partitions")
+public class ReviewPartitionProperties {
+
+  /** Maintain the monthly partitions of the reviews table, requires PostgreSQL. */
+  private boolean enabled = true;
+
+  /** Number of monthly partitions to create in advance. */
+  private int monthsAhead = 3;
+
+  /** Detach partitions with older reviews for archival, keeps all partitions when not set. */
+  private Duration retention;
+
+  /** Only partitions within this window are scanned for the latest reviews if they suffice. */
+  private Duration latestReviewsWindow = Duration.ofDays(31);
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public int getMonthsAhead() {
+    return monthsAhead;
+  }
+
+  public void setMonthsAhead(int monthsAhead) {
+    this.monthsAhead = monthsAhead;
+  }
+
+  public Duration getRetention() {
+    return retention;
+  }
+
+  public void setRetention(Duration retention) {
+    this.retention = retention;
+  }
+
+  public Duration getLatestReviewsWindow() {
+    return latestReviewsWindow;
+  }
+
+  public void setLatestReviewsWindow(Duration latestReviewsWindow) {
+    this.latestReviewsWindow = latestReviewsWindow;
+  }
+}
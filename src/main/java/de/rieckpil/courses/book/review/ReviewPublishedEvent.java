@@ -0,0 +1,5 @@
+package de.rieckpil.courses.book.review;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public record ReviewPublishedEvent(Long reviewId, ObjectNode review) {}
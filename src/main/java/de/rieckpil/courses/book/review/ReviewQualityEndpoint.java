@@ -0,0 +1,60 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.context.properties.bind.BindException;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lists the active review quality rules and replaces them without a restart. The rules of the
+ * request body take the same shape as {@code review.quality.rules} and apply to this instance until
+ * its next restart.
+ */
+@Component
+@Endpoint(id = "reviewquality")
+public class ReviewQualityEndpoint {
+
+  private final ReviewVerifier reviewVerifier;
+
+  public ReviewQualityEndpoint(ReviewVerifier reviewVerifier) {
+    this.reviewVerifier = reviewVerifier;
+  }
+
+  @ReadOperation
+  public List<String> rules() {
+    return reviewVerifier.getRuleNames();
+  }
+
+  @WriteOperation
+  public List<String> update(List<Map<String, Object>> rules) {
+    try {
+      reviewVerifier.reload(bind(rules));
+    } catch (BindException | IllegalArgumentException e) {
+      throw new InvalidEndpointRequestException(e.getMessage(), "Invalid review quality rules");
+    }
+    return reviewVerifier.getRuleNames();
+  }
+
+  // bound like the configuration, e.g. with the type written as forbidden-phrase
+  private static List<ReviewQualityProperties.Rule> bind(List<Map<String, Object>> rules) {
+    Map<String, Object> properties = new HashMap<>();
+    for (int i = 0; i < rules.size(); i++) {
+      for (Map.Entry<String, Object> attribute : rules.get(i).entrySet()) {
+        properties.put("rules[%d].%s".formatted(i, attribute.getKey()), attribute.getValue());
+      }
+    }
+
+    return new Binder(new MapConfigurationPropertySource(properties))
+        .bind("rules", Bindable.listOf(ReviewQualityProperties.Rule.class))
+        .orElseGet(List::of);
+  }
+}
@@ -0,0 +1,215 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import de.rieckpil.courses.book.review.ReviewQualityProperties.Rule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Immutable evaluation plan compiled from the configured {@link Rule}s.
+ *
+ * <p>Phrase rules run first as they are a single intrinsic {@code indexOf} each. All word based
+ * rules share one tokenization pass over the review that stops as soon as a limit is reached, so
+ * adding rules does not add another pass over the text.
+ */
+final class ReviewQualityPlan {
+
+  static final String TOKENIZED_RULES = "tokenized-rules";
+
+  private final List<String> ruleNames;
+
+  private final String[] phrases;
+  private final Timer[] phraseTimers;
+  private final Counter[] phraseRejections;
+
+  private final String[] words;
+  private final int[] wordLimits;
+  private final Counter[] wordRejections;
+
+  private final int minWords;
+  private final Counter minWordsRejections;
+
+  private final Timer tokenizedRulesTimer;
+
+  private ReviewQualityPlan(List<Rule> rules, MeterRegistry meterRegistry) {
+    List<Rule> phraseRules = new ArrayList<>();
+    List<Rule> wordRules = new ArrayList<>();
+    Rule minWordsRule = null;
+
+    for (Rule rule : rules) {
+      validate(rule);
+      switch (rule.getType()) {
+        case FORBIDDEN_PHRASE -> phraseRules.add(rule);
+        case WORD_LIMIT -> wordRules.add(rule);
+        case MIN_WORDS -> {
+          if (minWordsRule == null || rule.getLimit() > minWordsRule.getLimit()) {
+            minWordsRule = rule;
+          }
+        }
+      }
+    }
+
+    List<String> names = new ArrayList<>();
+
+    this.phrases = new String[phraseRules.size()];
+    this.phraseTimers = new Timer[phraseRules.size()];
+    this.phraseRejections = new Counter[phraseRules.size()];
+    for (int i = 0; i < phraseRules.size(); i++) {
+      Rule rule = phraseRules.get(i);
+      this.phrases[i] = rule.getValue();
+      this.phraseTimers[i] = timer(meterRegistry, rule.getName());
+      this.phraseRejections[i] = rejections(meterRegistry, rule.getName());
+      names.add(rule.getName());
+    }
+
+    this.words = new String[wordRules.size()];
+    this.wordLimits = new int[wordRules.size()];
+    this.wordRejections = new Counter[wordRules.size()];
+    for (int i = 0; i < wordRules.size(); i++) {
+      Rule rule = wordRules.get(i);
+      this.words[i] = rule.getValue();
+      this.wordLimits[i] = rule.getLimit();
+      this.wordRejections[i] = rejections(meterRegistry, rule.getName());
+      names.add(rule.getName());
+    }
+
+    if (minWordsRule != null) {
+      this.minWords = minWordsRule.getLimit();
+      this.minWordsRejections = rejections(meterRegistry, minWordsRule.getName());
+      names.add(minWordsRule.getName());
+    } else {
+      this.minWords = 0;
+      this.minWordsRejections = null;
+    }
+
+    this.tokenizedRulesTimer = timer(meterRegistry, TOKENIZED_RULES);
+    this.ruleNames = Collections.unmodifiableList(names);
+  }
+
+  static ReviewQualityPlan compile(List<Rule> rules, MeterRegistry meterRegistry) {
+    return new ReviewQualityPlan(rules, meterRegistry);
+  }
+
+  /** Rule names in the order they are evaluated. */
+  List<String> getRuleNames() {
+    return ruleNames;
+  }
+
+  boolean accepts(String review) {
+    for (int i = 0; i < phrases.length; i++) {
+      long start = System.nanoTime();
+      boolean found = review.contains(phrases[i]);
+      phraseTimers[i].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      if (found) {
+        phraseRejections[i].increment();
+        return false;
+      }
+    }
+
+    if (words.length == 0 && minWords == 0) {
+      return true;
+    }
+
+    long start = System.nanoTime();
+    try {
+      return acceptsTokens(review);
+    } finally {
+      tokenizedRulesTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Counts words the same way {@code review.split(" ")} did (every single space separates a token,
+   * trailing empty tokens are dropped) without allocating the tokens.
+   */
+  private boolean acceptsTokens(String review) {
+    int[] occurrences = new int[words.length];
+    int length = review.length();
+    int tokens = 0;
+    int trailingEmptyTokens = 0;
+    int tokenStart = 0;
+
+    while (true) {
+      int tokenEnd = review.indexOf(' ', tokenStart);
+      if (tokenEnd < 0) {
+        tokenEnd = length;
+      }
+
+      int tokenLength = tokenEnd - tokenStart;
+      tokens++;
+
+      if (tokenLength == 0) {
+        trailingEmptyTokens++;
+      } else {
+        trailingEmptyTokens = 0;
+        for (int i = 0; i < words.length; i++) {
+          if (words[i].length() == tokenLength
+              && review.regionMatches(true, tokenStart, words[i], 0, tokenLength)
+              && ++occurrences[i] >= wordLimits[i]) {
+            wordRejections[i].increment();
+            return false;
+          }
+        }
+        if (words.length == 0 && tokens >= minWords) {
+          return true;
+        }
+      }
+
+      if (tokenEnd == length) {
+        break;
+      }
+      tokenStart = tokenEnd + 1;
+    }
+
+    int wordCount = length == 0 ? 1 : tokens - trailingEmptyTokens;
+
+    if (wordCount < minWords) {
+      minWordsRejections.increment();
+      return false;
+    }
+
+    return true;
+  }
+
+  private static void validate(Rule rule) {
+    if (rule.getName() == null || rule.getName().isBlank()) {
+      throw new IllegalArgumentException("Review quality rule without name");
+    }
+
+    if (rule.getType() == null) {
+      throw new IllegalArgumentException(
+          "Review quality rule '" + rule.getName() + "' has no type");
+    }
+
+    if (rule.getType() != ReviewQualityProperties.RuleType.MIN_WORDS
+        && (rule.getValue() == null || rule.getValue().isEmpty())) {
+      throw new IllegalArgumentException(
+          "Review quality rule '" + rule.getName() + "' requires a value");
+    }
+
+    if (rule.getType() != ReviewQualityProperties.RuleType.FORBIDDEN_PHRASE
+        && (rule.getLimit() == null || rule.getLimit() < 1)) {
+      throw new IllegalArgumentException(
+          "Review quality rule '" + rule.getName() + "' requires a positive limit");
+    }
+  }
+
+  private static Timer timer(MeterRegistry meterRegistry, String rule) {
+    return Timer.builder("review.quality.rule")
+        .description("Time spent evaluating a review quality rule")
+        .tag("rule", rule)
+        .register(meterRegistry);
+  }
+
+  private static Counter rejections(MeterRegistry meterRegistry, String rule) {
+    return Counter.builder("review.quality.rejections")
+        .description("Reviews rejected by a review quality rule")
+        .tag("rule", rule)
+        .register(meterRegistry);
+  }
+}
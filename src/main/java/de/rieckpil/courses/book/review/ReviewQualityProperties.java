@@ -0,0 +1,91 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "review.quality")
+public class ReviewQualityProperties {
+
+  private List<Rule> rules = defaultRules();
+
+  public List<Rule> getRules() {
+    return rules;
+  }
+
+  public void setRules(List<Rule> rules) {
+    this.rules = rules;
+  }
+
+  /** The rules the {@link ReviewVerifier} used to hard-code, applied when nothing is configured. */
+  public static List<Rule> defaultRules() {
+    List<Rule> rules = new ArrayList<>();
+    rules.add(new Rule("lorem-ipsum", RuleType.FORBIDDEN_PHRASE, "Lorem ipsum", null));
+    rules.add(new Rule("too-many-i", RuleType.WORD_LIMIT, "I", 5));
+    rules.add(new Rule("too-many-good", RuleType.WORD_LIMIT, "good", 3));
+    rules.add(new Rule("too-short", RuleType.MIN_WORDS, null, 11));
+    rules.add(new Rule("swear-word", RuleType.FORBIDDEN_PHRASE, "shit", null));
+    return rules;
+  }
+
+  public enum RuleType {
+    /** Rejects a review containing {@code value} (case-sensitive). */
+    FORBIDDEN_PHRASE,
+    /**
+     * Rejects a review once the word {@code value} (case-insensitive) occurs {@code limit} times.
+     */
+    WORD_LIMIT,
+    /** Rejects a review with less than {@code limit} words. */
+    MIN_WORDS
+  }
+
+  public static class Rule {
+
+    private String name;
+    private RuleType type;
+    private String value;
+    private Integer limit;
+
+    public Rule() {}
+
+    public Rule(String name, RuleType type, String value, Integer limit) {
+      this.name = name;
+      this.type = type;
+      this.value = value;
+      this.limit = limit;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public RuleType getType() {
+      return type;
+    }
+
+    public void setType(RuleType type) {
+      this.type = type;
+    }
+
+    public String getValue() {
+      return value;
+    }
+
+    public void setValue(String value) {
+      this.value = value;
+    }
+
+    public Integer getLimit() {
+      return limit;
+    }
+
+    public void setLimit(Integer limit) {
+      this.limit = limit;
+    }
+  }
+}
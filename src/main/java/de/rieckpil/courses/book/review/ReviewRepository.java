@@ -1,10 +1,13 @@
 package de.rieckpil.courses.book.review;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
@@ -14,16 +17,27 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
           "SELECT id, ratings, isbn, avg "
               + "FROM books "
               + "JOIN "
-              + "(SELECT book_id, ROUND(AVG(rating), 2) AS avg, COUNT(*) ratings FROM reviews group by book_id) AS statistics "
+              + "(SELECT book_id, ROUND(AVG(rating), 2) AS avg, COUNT(*) ratings FROM reviews WHERE status = 'PUBLISHED' group by book_id) AS statistics "
               + "ON statistics.book_id = id;",
       nativeQuery = true)
   List<ReviewStatistic> getReviewStatistics();
 
-  List<Review> findTop5ByOrderByRatingDescCreatedAtDesc();
+  List<Review> findAllByStatusOrderByRatingDescCreatedAtDesc(
+      ReviewStatus status, Pageable pageable);
 
-  List<Review> findAllByOrderByCreatedAtDesc(Pageable pageable);
+  List<Review> findAllByStatusOrderByCreatedAtDesc(ReviewStatus status, Pageable pageable);
 
-  void deleteByIdAndBookIsbn(Long reviewId, String isbn);
+  /** Bounded by creation time on both sides so that PostgreSQL prunes all other partitions. */
+  List<Review> findAllByStatusAndCreatedAtBetweenOrderByCreatedAtDesc(
+      ReviewStatus status, LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+  long deleteByIdAndBookIsbn(Long reviewId, String isbn);
 
   Optional<Review> findByIdAndBookIsbn(Long reviewId, String isbn);
+
+  @Query("SELECT r.id FROM Review r WHERE r.status = :status AND r.id > :afterId ORDER BY r.id")
+  List<Long> findIdsByStatusAfter(ReviewStatus status, Long afterId, Pageable pageable);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<Review> findByIdAndStatus(Long reviewId, ReviewStatus status);
 }
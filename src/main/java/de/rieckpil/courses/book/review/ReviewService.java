@@ -6,13 +6,22 @@ import java.util.List;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import de.rieckpil.courses.book.management.Book;
 import de.rieckpil.courses.book.management.BookRepository;
 import de.rieckpil.courses.book.management.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @Transactional
@@ -22,22 +31,59 @@ public class ReviewService {
   private final UserService userService;
   private final BookRepository bookRepository;
   private final ReviewRepository reviewRepository;
+  private final ApplicationEventPublisher applicationEventPublisher;
+  private final MeterRegistry meterRegistry;
+  private final ReviewPartitionProperties reviewPartitionProperties;
+  private final ReviewLeaderboard reviewLeaderboard;
+  private final ReviewListingVersion reviewListingVersion;
   private final ObjectMapper objectMapper = new ObjectMapper();
 
   public ReviewService(
       ReviewVerifier reviewVerifier,
       UserService userService,
       BookRepository bookRepository,
-      ReviewRepository reviewRepository) {
+      ReviewRepository reviewRepository,
+      ApplicationEventPublisher applicationEventPublisher,
+      MeterRegistry meterRegistry,
+      ReviewPartitionProperties reviewPartitionProperties,
+      ReviewLeaderboard reviewLeaderboard,
+      ReviewListingVersion reviewListingVersion) {
     this.reviewVerifier = reviewVerifier;
     this.userService = userService;
     this.bookRepository = bookRepository;
     this.reviewRepository = reviewRepository;
+    this.applicationEventPublisher = applicationEventPublisher;
+    this.meterRegistry = meterRegistry;
+    this.reviewPartitionProperties = reviewPartitionProperties;
+    this.reviewLeaderboard = reviewLeaderboard;
+    this.reviewListingVersion = reviewListingVersion;
   }
 
   public Long createBookReview(
       String isbn, BookReviewRequest bookReviewRequest, String userName, String email) {
 
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = "failed";
+
+    try {
+      Long reviewId = storeBookReview(isbn, bookReviewRequest, userName, email);
+      outcome = "accepted";
+      return reviewId;
+    } catch (BadReviewQualityException e) {
+      outcome = "rejected";
+      throw e;
+    } finally {
+      sample.stop(
+          Timer.builder("review.creation")
+              .description("Time spent creating a book review")
+              .tag("outcome", outcome)
+              .register(meterRegistry));
+    }
+  }
+
+  private Long storeBookReview(
+      String isbn, BookReviewRequest bookReviewRequest, String userName, String email) {
+
     Book book = bookRepository.findByIsbn(isbn);
 
     if (book == null) {
@@ -55,6 +101,7 @@ public class ReviewService {
       review.setCreatedAt(LocalDateTime.now());
 
       review = reviewRepository.save(review);
+      announcePublished(review);
 
       return review.getId();
     } else {
@@ -62,34 +109,120 @@ public class ReviewService {
     }
   }
 
+  /**
+   * Stores the review as {@link ReviewStatus#PENDING} without verifying it. The review gets
+   * verified and published by the {@link ReviewModerationWorker} once this transaction commits.
+   */
+  public Long submitBookReview(
+      String isbn, BookReviewRequest bookReviewRequest, String userName, String email) {
+
+    Book book = bookRepository.findByIsbn(isbn);
+
+    if (book == null) {
+      throw new IllegalArgumentException("Book not found");
+    }
+
+    Review review = new Review();
+
+    review.setBook(book);
+    review.setContent(bookReviewRequest.getReviewContent());
+    review.setTitle(bookReviewRequest.getReviewTitle());
+    review.setRating(bookReviewRequest.getRating());
+    review.setUser(userService.getOrCreateUser(userName, email));
+    review.setCreatedAt(LocalDateTime.now());
+    review.setStatus(ReviewStatus.PENDING);
+
+    review = reviewRepository.save(review);
+
+    applicationEventPublisher.publishEvent(new ReviewSubmittedEvent(review.getId()));
+
+    return review.getId();
+  }
+
+  /**
+   * Verifies a pending review and either publishes or rejects it. Reviews that are no longer
+   * pending, e.g. because another worker finalized them already, are skipped.
+   */
+  public ReviewStatus finalizeReview(Long reviewId) {
+    return reviewRepository
+        .findByIdAndStatus(reviewId, ReviewStatus.PENDING)
+        .map(
+            review -> {
+              review.setStatus(
+                  reviewVerifier.doesMeetQualityStandards(review.getContent())
+                      ? ReviewStatus.PUBLISHED
+                      : ReviewStatus.REJECTED);
+
+              if (review.getStatus() == ReviewStatus.PUBLISHED) {
+                announcePublished(review);
+              }
+
+              return review.getStatus();
+            })
+        .orElse(null);
+  }
+
+  // not read-only: clients follow the status URL right after submitting, before the replica caught
+  // up
+  public ReviewStatus getReviewStatus(String isbn, Long reviewId) {
+    return this.reviewRepository
+        .findByIdAndBookIsbn(reviewId, isbn)
+        .map(Review::getStatus)
+        .orElseThrow(ReviewNotFoundException::new);
+  }
+
+  @Transactional(readOnly = true)
   public ArrayNode getReviewStatistics() {
     ArrayNode result = objectMapper.createArrayNode();
 
     reviewRepository.getReviewStatistics().stream()
-        .map(this::mapReviewStatistic)
+        .map(ReviewService::mapReviewStatistic)
         .forEach(result::add);
 
     return result;
   }
 
+  @Transactional(readOnly = true)
   public ArrayNode getAllReviews(Integer size, String orderBy) {
     ArrayNode result = objectMapper.createArrayNode();
 
     List<Review> requestedReviews;
 
     if (orderBy.equals("rating")) {
-      requestedReviews = reviewRepository.findTop5ByOrderByRatingDescCreatedAtDesc();
+      if (reviewLeaderboard.isLoaded()) {
+        reviewLeaderboard.top(size).stream().map(ObjectNode::deepCopy).forEach(result::add);
+        return result;
+      }
+
+      requestedReviews =
+          reviewRepository.findAllByStatusOrderByRatingDescCreatedAtDesc(
+              ReviewStatus.PUBLISHED,
+              PageRequest.of(0, Math.min(size, reviewLeaderboard.getSize())));
     } else {
-      requestedReviews = reviewRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(0, size));
+      LocalDateTime now = LocalDateTime.now();
+      requestedReviews =
+          reviewRepository.findAllByStatusAndCreatedAtBetweenOrderByCreatedAtDesc(
+              ReviewStatus.PUBLISHED,
+              now.minus(reviewPartitionProperties.getLatestReviewsWindow()),
+              now,
+              PageRequest.of(0, size));
+
+      if (requestedReviews.size() < size) {
+        // not enough recent reviews, look through all partitions
+        requestedReviews =
+            reviewRepository.findAllByStatusOrderByCreatedAtDesc(
+                ReviewStatus.PUBLISHED, PageRequest.of(0, size));
+      }
     }
 
-    requestedReviews.stream().map(this::mapReview).forEach(result::add);
+    requestedReviews.stream().map(ReviewService::mapReview).forEach(result::add);
 
     return result;
   }
 
-  private ObjectNode mapReview(Review review) {
-    ObjectNode objectNode = objectMapper.createObjectNode();
+  /** Shared with the {@link ReactiveReviewService}, static to bypass the transactional proxy. */
+  static ObjectNode mapReview(Review review) {
+    ObjectNode objectNode = JsonNodeFactory.instance.objectNode();
     objectNode.put("reviewId", review.getId());
     objectNode.put("reviewContent", review.getContent());
     objectNode.put("reviewTitle", review.getTitle());
@@ -104,8 +237,8 @@ public class ReviewService {
     return objectNode;
   }
 
-  private ObjectNode mapReviewStatistic(ReviewStatistic reviewStatistic) {
-    ObjectNode statistic = objectMapper.createObjectNode();
+  static ObjectNode mapReviewStatistic(ReviewStatistic reviewStatistic) {
+    ObjectNode statistic = JsonNodeFactory.instance.objectNode();
     statistic.put("bookId", reviewStatistic.getId());
     statistic.put("isbn", reviewStatistic.getIsbn());
     statistic.put("avg", reviewStatistic.getAvg());
@@ -114,13 +247,83 @@ public class ReviewService {
   }
 
   public void deleteReview(String isbn, Long reviewId) {
-    this.reviewRepository.deleteByIdAndBookIsbn(reviewId, isbn);
+    if (this.reviewRepository.deleteByIdAndBookIsbn(reviewId, isbn) > 0) {
+      afterCommit(
+          () -> {
+            reviewLeaderboard.remove(reviewId);
+            reviewListingVersion.increment();
+          });
+      applicationEventPublisher.publishEvent(new ReviewDeletedEvent(reviewId, isbn));
+    }
+  }
+
+  /**
+   * Reloads the {@link ReviewLeaderboard} from the database, repairing updates that got lost, e.g.
+   * reviews changed by hand. Gives up for this run when reviews keep getting created or deleted
+   * while loading.
+   */
+  @Transactional(readOnly = true)
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(fixedDelayString = "${review.leaderboard.reconciliation-interval:PT5M}")
+  public void reconcileLeaderboard() {
+    for (int attempt = 0; attempt < 3; attempt++) {
+      long version = reviewLeaderboard.getVersion();
+
+      List<ReviewLeaderboard.Entry> bestRated =
+          reviewRepository
+              .findAllByStatusOrderByRatingDescCreatedAtDesc(
+                  ReviewStatus.PUBLISHED, PageRequest.of(0, reviewLeaderboard.getCapacity()))
+              .stream()
+              .map(this::toLeaderboardEntry)
+              .toList();
+
+      if (reviewLeaderboard.replaceAll(bestRated, version)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Updates the leaderboard, the listing version and, through the {@link ReviewEventBroadcaster},
+   * the clients.
+   */
+  private void announcePublished(Review review) {
+    ReviewLeaderboard.Entry entry = toLeaderboardEntry(review);
+    afterCommit(
+        () -> {
+          reviewLeaderboard.offer(entry);
+          reviewListingVersion.increment();
+        });
+    applicationEventPublisher.publishEvent(
+        new ReviewPublishedEvent(review.getId(), entry.review()));
+  }
+
+  private ReviewLeaderboard.Entry toLeaderboardEntry(Review review) {
+    return new ReviewLeaderboard.Entry(
+        review.getId(), review.getRating(), review.getCreatedAt(), mapReview(review));
+  }
+
+  /** Rolled back reviews must never show up in the leaderboard or bump the listing version. */
+  private static void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              action.run();
+            }
+          });
+    } else {
+      action.run();
+    }
   }
 
+  // not read-only, like getReviewStatus: a review just created must be found on the primary
   public ObjectNode getReviewById(String isbn, Long reviewId) {
     return this.reviewRepository
         .findByIdAndBookIsbn(reviewId, isbn)
-        .map(this::mapReview)
+        .filter(review -> review.getStatus() == ReviewStatus.PUBLISHED)
+        .map(ReviewService::mapReview)
         .orElseThrow(ReviewNotFoundException::new);
   }
 }
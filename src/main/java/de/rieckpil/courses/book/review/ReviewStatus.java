@@ -0,0 +1,7 @@
+package de.rieckpil.courses.book.review;
+
+public enum ReviewStatus {
+  PENDING,
+  PUBLISHED,
+  REJECTED
+}
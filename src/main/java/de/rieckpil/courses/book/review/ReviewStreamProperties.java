@@ -0,0 +1,67 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "review.stream")
+public class ReviewStreamProperties {
+
+  /** Connected clients beyond this limit are turned away with {@code 503}. */
+  private int maxSubscribers = 10_000;
+
+  /**
+   * Events buffered per client, a client falling further behind gets disconnected. As many events
+   * are kept to replay for clients reconnecting with {@code Last-Event-ID}.
+   */
+  private int bufferSize = 64;
+
+  /** Threads writing the buffered events to the clients. */
+  private int senderThreads = 4;
+
+  /** Clients have to reconnect after this time. */
+  private Duration timeout = Duration.ofMinutes(30);
+
+  /** Keeps idle connections open and detects clients that went away. */
+  private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+  public int getMaxSubscribers() {
+    return maxSubscribers;
+  }
+
+  public void setMaxSubscribers(int maxSubscribers) {
+    this.maxSubscribers = maxSubscribers;
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  public void setBufferSize(int bufferSize) {
+    this.bufferSize = bufferSize;
+  }
+
+  public int getSenderThreads() {
+    return senderThreads;
+  }
+
+  public void setSenderThreads(int senderThreads) {
+    this.senderThreads = senderThreads;
+  }
+
+  public Duration getTimeout() {
+    return timeout;
+  }
+
+  public void setTimeout(Duration timeout) {
+    this.timeout = timeout;
+  }
+
+  public Duration getHeartbeatInterval() {
+    return heartbeatInterval;
+  }
+
+  public void setHeartbeatInterval(Duration heartbeatInterval) {
+    this.heartbeatInterval = heartbeatInterval;
+  }
+}
@@ -1,36 +1,63 @@
 package de.rieckpil.courses.book.review;
 
-import java.util.Arrays;
-
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ReviewVerifier {
 
-  private boolean doesNotContainSwearWords(String review) {
-    return !review.contains("shit");
-  }
+  private static final Logger LOG = LoggerFactory.getLogger(ReviewVerifier.class);
 
-  public boolean doesMeetQualityStandards(String review) {
+  private final MeterRegistry meterRegistry;
+  private final AtomicReference<ReviewQualityPlan> plan = new AtomicReference<>();
+  private final Timer acceptedTimer;
+  private final Timer rejectedTimer;
 
-    if (review.contains("Lorem ipsum")) {
-      return false;
-    }
+  public ReviewVerifier() {
+    this(new ReviewQualityProperties(), new SimpleMeterRegistry());
+  }
 
-    String[] words = review.split(" ");
+  @Autowired
+  public ReviewVerifier(
+      ReviewQualityProperties reviewQualityProperties, MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.acceptedTimer = verificationTimer(meterRegistry, "accepted");
+    this.rejectedTimer = verificationTimer(meterRegistry, "rejected");
+    reload(reviewQualityProperties.getRules());
+  }
 
-    if (Arrays.stream(words).filter(s -> s.equalsIgnoreCase("I")).count() >= 5) {
-      return false;
-    }
+  public boolean doesMeetQualityStandards(String review) {
+    long start = System.nanoTime();
+    boolean accepted = plan.get().accepts(review);
+    (accepted ? acceptedTimer : rejectedTimer)
+        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    return accepted;
+  }
 
-    if (Arrays.stream(words).filter(s -> s.equalsIgnoreCase("good")).count() >= 3) {
-      return false;
-    }
+  /** Compiles the given rules and atomically swaps them in for all subsequent verifications. */
+  public void reload(List<ReviewQualityProperties.Rule> rules) {
+    ReviewQualityPlan compiledPlan = ReviewQualityPlan.compile(rules, meterRegistry);
+    plan.set(compiledPlan);
+    LOG.info("Review quality rules active in evaluation order: {}", compiledPlan.getRuleNames());
+  }
 
-    if (words.length <= 10) {
-      return false;
-    }
+  public List<String> getRuleNames() {
+    return plan.get().getRuleNames();
+  }
 
-    return doesNotContainSwearWords(review);
+  private static Timer verificationTimer(MeterRegistry meterRegistry, String outcome) {
+    return Timer.builder("review.verification")
+        .description("Time spent verifying a review against all quality rules")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
   }
 }
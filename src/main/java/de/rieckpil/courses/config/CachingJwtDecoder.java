@@ -0,0 +1,90 @@
+package de.rieckpil.courses.config;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Remembers tokens the delegate validated already, so clients reusing a token until it expires pay
+ * for the signature verification only once. Tokens are keyed by their SHA-256 hash and served from
+ * the cache until their {@code exp}, tokens without one are never cached. Once full, the least
+ * recently used token makes room for a new one, expired ones are no longer used and go first.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+  private final JwtDecoder delegate;
+  private final int maxSize;
+  private final Clock clock;
+
+  // least recently used first, guarded by itself
+  private final LinkedHashMap<ByteBuffer, Jwt> validatedTokens;
+
+  public CachingJwtDecoder(JwtDecoder delegate, int maxSize) {
+    this(delegate, maxSize, Clock.systemUTC());
+  }
+
+  CachingJwtDecoder(JwtDecoder delegate, int maxSize, Clock clock) {
+    this.delegate = delegate;
+    this.maxSize = maxSize;
+    this.clock = clock;
+    this.validatedTokens =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<ByteBuffer, Jwt> eldest) {
+            return size() > maxSize;
+          }
+        };
+  }
+
+  @Override
+  public Jwt decode(String token) throws JwtException {
+    ByteBuffer key = hash(token);
+
+    synchronized (validatedTokens) {
+      Jwt cached = validatedTokens.get(key);
+      if (cached != null) {
+        if (cached.getTokenValue().equals(token) && !isExpired(cached)) {
+          return cached;
+        }
+        validatedTokens.remove(key);
+      }
+    }
+
+    Jwt jwt = delegate.decode(token);
+
+    if (jwt.getExpiresAt() != null) {
+      synchronized (validatedTokens) {
+        validatedTokens.put(key, jwt);
+      }
+    }
+
+    return jwt;
+  }
+
+  int size() {
+    synchronized (validatedTokens) {
+      return validatedTokens.size();
+    }
+  }
+
+  private boolean isExpired(Jwt jwt) {
+    return !clock.instant().isBefore(jwt.getExpiresAt());
+  }
+
+  private static ByteBuffer hash(String token) {
+    try {
+      return ByteBuffer.wrap(
+          MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -1,8 +1,9 @@
 package de.rieckpil.courses.config;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
@@ -12,20 +13,40 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 
 public class CustomAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+  /** Beyond that many distinct role sets the authorities are built per request again. */
+  private static final int MAX_ROLE_SETS = 1_000;
+
+  private final ConcurrentMap<List<String>, List<GrantedAuthority>> authoritiesByRoles =
+      new ConcurrentHashMap<>();
+
   public AbstractAuthenticationToken convert(Jwt jwt) {
     Collection<GrantedAuthority> authorities = extractAuthorities(jwt);
     return new JwtAuthenticationToken(jwt, authorities);
   }
 
+  /** Users share a handful of role sets, so their authorities are built once per set. */
   private Collection<GrantedAuthority> extractAuthorities(Jwt jwt) {
-    Collection<GrantedAuthority> grantedAuthorities = new ArrayList<>();
-    for (String role : getRoles(jwt)) {
-      grantedAuthorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+    List<String> roles = getRoles(jwt);
+
+    List<GrantedAuthority> authorities = authoritiesByRoles.get(roles);
+    if (authorities != null) {
+      return authorities;
     }
-    return grantedAuthorities;
+
+    authorities =
+        roles.stream()
+            .<GrantedAuthority>map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+            .toList();
+
+    if (authoritiesByRoles.size() < MAX_ROLE_SETS) {
+      authoritiesByRoles.putIfAbsent(List.copyOf(roles), authorities);
+    }
+
+    return authorities;
   }
 
-  private Collection<String> getRoles(Jwt jwt) {
+  private List<String> getRoles(Jwt jwt) {
     return (List<String>) jwt.getClaimAsMap("realm_access").get("roles");
   }
 }
@@ -0,0 +1,23 @@
+package de.rieckpil.courses.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "etag")
+public class ETagProperties {
+
+  /**
+   * ETags change at least this often, bounding how long clients keep a version that changed on
+   * another instance or outside the application.
+   */
+  private Duration maxStaleness = Duration.ofMinutes(1);
+
+  public Duration getMaxStaleness() {
+    return maxStaleness;
+  }
+
+  public void setMaxStaleness(Duration maxStaleness) {
+    this.maxStaleness = maxStaleness;
+  }
+}
@@ -0,0 +1,43 @@
+package de.rieckpil.courses.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "security.jwks")
+public class JwksProperties {
+
+  /** Reloads the issuer's signing keys in the background to pick up rotated keys. */
+  private Duration refreshInterval = Duration.ofMinutes(5);
+
+  /**
+   * A token signed with an unknown key reloads the keys right away, but not more often than this.
+   */
+  private Duration minRefreshInterval = Duration.ofSeconds(30);
+
+  private Duration timeout = Duration.ofSeconds(2);
+
+  public Duration getRefreshInterval() {
+    return refreshInterval;
+  }
+
+  public void setRefreshInterval(Duration refreshInterval) {
+    this.refreshInterval = refreshInterval;
+  }
+
+  public Duration getMinRefreshInterval() {
+    return minRefreshInterval;
+  }
+
+  public void setMinRefreshInterval(Duration minRefreshInterval) {
+    this.minRefreshInterval = minRefreshInterval;
+  }
+
+  public Duration getTimeout() {
+    return timeout;
+  }
+
+  public void setTimeout(Duration timeout) {
+    this.timeout = timeout;
+  }
+}
@@ -0,0 +1,18 @@
+package de.rieckpil.courses.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "security.jwt-cache")
+public class JwtCacheProperties {
+
+  /** Validated tokens kept to skip verifying their signature again, {@code 0} disables caching. */
+  private int maxSize = 10_000;
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public void setMaxSize(int maxSize) {
+    this.maxSize = maxSize;
+  }
+}
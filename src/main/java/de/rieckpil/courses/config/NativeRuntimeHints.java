@@ -0,0 +1,75 @@
+package de.rieckpil.courses.config;
+
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.BookSynchronization;
+import de.rieckpil.courses.book.management.BookSynchronizationListener;
+import de.rieckpil.courses.book.management.User;
+import de.rieckpil.courses.book.review.Review;
+import de.rieckpil.courses.book.review.ReviewStatistic;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.data.projection.TargetAware;
+
+/**
+ * Reflection and proxy hints for a native image that neither the AOT processing of Spring nor the
+ * reachability metadata of the libraries cover.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    // the JSON responses of the ReviewService are assembled as trees
+    Stream.of(JsonNodeFactory.class, ObjectNode.class, ArrayNode.class)
+        .forEach(
+            type ->
+                hints
+                    .reflection()
+                    .registerType(
+                        type,
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS));
+
+    // Hibernate instantiates the entities and accesses their fields and accessors
+    Stream.of(Book.class, User.class, Review.class)
+        .forEach(
+            type ->
+                hints
+                    .reflection()
+                    .registerType(
+                        type,
+                        MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS));
+
+    // Spring Data proxies the interface projection of the native statistics query
+    hints.reflection().registerType(ReviewStatistic.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    hints
+        .proxies()
+        .registerJdkProxy(
+            AopProxyUtils.completeJdkProxyInterfaces(ReviewStatistic.class, TargetAware.class));
+
+    // the @SqsListener method is detected and invoked reflectively, its payload bound by Jackson
+    hints
+        .reflection()
+        .registerType(BookSynchronizationListener.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    new BindingReflectionHintsRegistrar()
+        .registerReflectionHints(hints.reflection(), BookSynchronization.class);
+
+    // Netty looks up the event methods of the handlers added in the WebClientConfig for @Skip
+    Stream.of(IdleStateHandler.class, ReadTimeoutHandler.class, WriteTimeoutHandler.class)
+        .forEach(
+            type ->
+                hints.reflection().registerType(type, MemberCategory.INTROSPECT_PUBLIC_METHODS));
+  }
+}
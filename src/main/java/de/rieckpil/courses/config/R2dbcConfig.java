@@ -0,0 +1,53 @@
+package de.rieckpil.courses.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Pools the R2DBC connections for the streaming reads without exposing them as a connection factory
+ * bean. Spring Boot backs off from the JDBC data source as soon as such a bean exists, and JPA,
+ * Flyway and the transaction manager rely on it.
+ */
+@Configuration
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class R2dbcConfig {
+
+  private ConnectionPool connectionPool;
+
+  @Bean
+  public DatabaseClient databaseClient(R2dbcProperties r2dbcProperties) {
+    ConnectionFactoryOptions options =
+        ConnectionFactoryOptions.parse(r2dbcProperties.getUrl())
+            .mutate()
+            .option(ConnectionFactoryOptions.USER, r2dbcProperties.getUsername())
+            .option(ConnectionFactoryOptions.PASSWORD, r2dbcProperties.getPassword())
+            .build();
+
+    R2dbcProperties.Pool pool = r2dbcProperties.getPool();
+    this.connectionPool =
+        new ConnectionPool(
+            ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("r2dbc")
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build());
+
+    return DatabaseClient.create(connectionPool);
+  }
+
+  @PreDestroy
+  public void closeConnectionPool() {
+    if (connectionPool != null) {
+      connectionPool.dispose();
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package de.rieckpil.courses.config;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Replaces the auto-configured data source with one routing read-only transactions to a replica
+ * pool. Flyway and all read-write transactions keep using the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+  @Bean
+  @ConfigurationProperties(prefix = "spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+    HikariDataSource dataSource =
+        dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  @Bean
+  public HikariDataSource replicaDataSource(ReadReplicaProperties readReplicaProperties) {
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setPoolName("replica");
+    dataSource.setJdbcUrl(readReplicaProperties.getUrl());
+    dataSource.setUsername(readReplicaProperties.getUsername());
+    dataSource.setPassword(readReplicaProperties.getPassword());
+    dataSource.setMaximumPoolSize(readReplicaProperties.getMaximumPoolSize());
+    dataSource.setReadOnly(true);
+    // start without the replica and read from the primary until it is reachable
+    dataSource.setInitializationFailTimeout(-1);
+    return dataSource;
+  }
+
+  @Bean
+  public ReplicaRoutingDataSource replicaRoutingDataSource(
+      HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+    return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+  }
+
+  @Bean
+  public ReplicaLagMonitor replicaLagMonitor(
+      HikariDataSource replicaDataSource,
+      ReplicaRoutingDataSource replicaRoutingDataSource,
+      ReadReplicaProperties readReplicaProperties,
+      MeterRegistry meterRegistry) {
+    return new ReplicaLagMonitor(
+        new JdbcTemplate(replicaDataSource),
+        replicaRoutingDataSource,
+        readReplicaProperties,
+        meterRegistry);
+  }
+}
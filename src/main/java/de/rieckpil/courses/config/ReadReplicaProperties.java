@@ -0,0 +1,81 @@
+package de.rieckpil.courses.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "datasource.replica")
+public class ReadReplicaProperties {
+
+  /** Route read-only transactions to the replica, everything else stays on the primary. */
+  private boolean enabled = false;
+
+  private String url;
+
+  private String username;
+
+  private String password;
+
+  private int maximumPoolSize = 10;
+
+  /** Reads go back to the primary while the replica lags behind more than this. */
+  private Duration maxLag = Duration.ofSeconds(5);
+
+  private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  public void setUrl(String url) {
+    this.url = url;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  public String getPassword() {
+    return password;
+  }
+
+  public void setPassword(String password) {
+    this.password = password;
+  }
+
+  public int getMaximumPoolSize() {
+    return maximumPoolSize;
+  }
+
+  public void setMaximumPoolSize(int maximumPoolSize) {
+    this.maximumPoolSize = maximumPoolSize;
+  }
+
+  public Duration getMaxLag() {
+    return maxLag;
+  }
+
+  public void setMaxLag(Duration maxLag) {
+    this.maxLag = maxLag;
+  }
+
+  public Duration getLagCheckInterval() {
+    return lagCheckInterval;
+  }
+
+  public void setLagCheckInterval(Duration lagCheckInterval) {
+    this.lagCheckInterval = lagCheckInterval;
+  }
+}
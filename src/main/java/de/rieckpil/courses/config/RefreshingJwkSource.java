@@ -0,0 +1,138 @@
+package de.rieckpil.courses.config;
+
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestOperations;
+
+/**
+ * Signing keys of the OIDC issuer, discovered and loaded at startup and reloaded in the background.
+ * Requests are verified against the last loaded key set, which gets swapped as a whole. A token
+ * signed with a key that is not known yet reloads the keys right away, at most once per {@link
+ * JwksProperties#getMinRefreshInterval()} however many requests carry such tokens.
+ */
+public class RefreshingJwkSource implements JWKSource<SecurityContext> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RefreshingJwkSource.class);
+
+  private final String issuerUri;
+  private final RestOperations restOperations;
+  private final Duration minRefreshInterval;
+  private final Clock clock;
+
+  private final Object refreshLock = new Object();
+  private volatile JWKSet jwkSet = new JWKSet();
+  private volatile String jwkSetUri;
+  private volatile Instant lastRefresh = Instant.MIN;
+
+  public RefreshingJwkSource(
+      String issuerUri, RestOperations restOperations, JwksProperties jwksProperties) {
+    this(issuerUri, restOperations, jwksProperties, Clock.systemUTC());
+  }
+
+  RefreshingJwkSource(
+      String issuerUri, RestOperations restOperations, JwksProperties jwksProperties, Clock clock) {
+    this.issuerUri = issuerUri;
+    this.restOperations = restOperations;
+    this.minRefreshInterval = jwksProperties.getMinRefreshInterval();
+    this.clock = clock;
+  }
+
+  @Override
+  public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+    List<JWK> keys = jwkSelector.select(jwkSet);
+
+    if (keys.isEmpty() && refreshIfStale()) {
+      keys = jwkSelector.select(jwkSet);
+    }
+
+    return keys;
+  }
+
+  /** Keeps the current keys when the issuer cannot be reached. */
+  @Scheduled(
+      fixedDelayString = "${security.jwks.refresh-interval:PT5M}",
+      initialDelayString = "${security.jwks.refresh-interval:PT5M}")
+  public void refresh() {
+    synchronized (refreshLock) {
+      lastRefresh = clock.instant();
+      try {
+        JWKSet loaded = JWKSet.parse(fetch(resolveJwkSetUri()));
+        if (!loaded.getKeys().equals(jwkSet.getKeys())) {
+          LOG.info("Loaded {} signing keys of issuer '{}'", loaded.getKeys().size(), issuerUri);
+        }
+        jwkSet = loaded;
+      } catch (RestClientException | ParseException | IllegalStateException e) {
+        LOG.warn(
+            "Failed to load the signing keys of issuer '{}', keeping the current keys",
+            issuerUri,
+            e);
+      }
+    }
+  }
+
+  int getKeyCount() {
+    return jwkSet.getKeys().size();
+  }
+
+  /** Requests waiting for the same refresh share its result instead of loading the keys again. */
+  private boolean refreshIfStale() {
+    Instant requestedAt = clock.instant();
+    synchronized (refreshLock) {
+      if (!lastRefresh.isBefore(requestedAt)) {
+        // refreshed by another request in the meantime
+        return true;
+      }
+      if (lastRefresh.isAfter(requestedAt.minus(minRefreshInterval))) {
+        return false;
+      }
+      refresh();
+      return true;
+    }
+  }
+
+  private String resolveJwkSetUri() {
+    if (jwkSetUri == null) {
+      Map<String, Object> configuration =
+          restOperations
+              .exchange(
+                  issuerUri.replaceAll("/$", "") + "/.well-known/openid-configuration",
+                  HttpMethod.GET,
+                  null,
+                  new ParameterizedTypeReference<Map<String, Object>>() {})
+              .getBody();
+
+      if (configuration == null || !issuerUri.equals(configuration.get("issuer"))) {
+        throw new IllegalStateException(
+            "Issuer '%s' announced a different issuer in its OpenID configuration"
+                .formatted(issuerUri));
+      }
+
+      jwkSetUri = (String) configuration.get("jwks_uri");
+    }
+    return jwkSetUri;
+  }
+
+  private String fetch(String uri) {
+    String body = restOperations.getForObject(uri, String.class);
+    if (body == null) {
+      throw new IllegalStateException("Issuer '%s' returned no signing keys".formatted(issuerUri));
+    }
+    return body;
+  }
+}
@@ -0,0 +1,68 @@
+package de.rieckpil.courses.config;
+
+import java.time.Duration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Periodically measures the replay lag of the replica and takes it out of the read rotation while
+ * the lag exceeds {@link ReadReplicaProperties#getMaxLag()} or the replica does not respond.
+ */
+public class ReplicaLagMonitor {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+  // an idle primary does not advance the replay timestamp, a fully replayed replica has no lag
+  private static final String REPLICATION_LAG_QUERY =
+      """
+      SELECT CASE
+        WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+      END
+      """;
+
+  private final JdbcTemplate replicaJdbcTemplate;
+  private final ReplicaRoutingDataSource replicaRoutingDataSource;
+  private final Duration maxLag;
+
+  private volatile double lagSeconds = Double.NaN;
+
+  public ReplicaLagMonitor(
+      JdbcTemplate replicaJdbcTemplate,
+      ReplicaRoutingDataSource replicaRoutingDataSource,
+      ReadReplicaProperties readReplicaProperties,
+      MeterRegistry meterRegistry) {
+    this.replicaJdbcTemplate = replicaJdbcTemplate;
+    this.replicaRoutingDataSource = replicaRoutingDataSource;
+    this.maxLag = readReplicaProperties.getMaxLag();
+
+    Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+        .description("Replay lag of the read replica, NaN while it is not reachable")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval:PT5S}")
+  public void checkReplicaLag() {
+    try {
+      Double lag = replicaJdbcTemplate.queryForObject(REPLICATION_LAG_QUERY, Double.class);
+      lagSeconds = lag == null ? 0 : lag;
+
+      boolean withinMaxLag = lagSeconds * 1_000 <= maxLag.toMillis();
+      if (!withinMaxLag) {
+        LOG.warn("Replica lags behind {}s, reading from the primary", lagSeconds);
+      }
+      replicaRoutingDataSource.setReplicaAvailable(withinMaxLag);
+    } catch (DataAccessException e) {
+      lagSeconds = Double.NaN;
+      LOG.warn("Failed to determine the replica lag, reading from the primary", e);
+      replicaRoutingDataSource.setReplicaAvailable(false);
+    }
+  }
+}
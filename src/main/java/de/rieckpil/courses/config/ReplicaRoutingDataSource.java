@@ -0,0 +1,81 @@
+package de.rieckpil.courses.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out replica connections for {@code @Transactional(readOnly = true)} work and primary
+ * connections for everything else. Falls back to the primary while the replica is unreachable or
+ * lagging behind.
+ *
+ * <p>The read-only flag is only bound after the transaction manager fetched its connection, so this
+ * data source has to sit behind a {@link
+ * org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+  private final DataSource primary;
+  private final DataSource replica;
+
+  // stays on the primary until the first lag check vouched for the replica
+  private volatile boolean replicaAvailable = false;
+
+  public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+    this.primary = primary;
+    this.replica = replica;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (routesToReplica()) {
+      try {
+        return replica.getConnection();
+      } catch (SQLException e) {
+        markReplicaUnavailable(e);
+      }
+    }
+    return primary.getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    if (routesToReplica()) {
+      try {
+        return replica.getConnection(username, password);
+      } catch (SQLException e) {
+        markReplicaUnavailable(e);
+      }
+    }
+    return primary.getConnection(username, password);
+  }
+
+  public boolean isReplicaAvailable() {
+    return replicaAvailable;
+  }
+
+  public void setReplicaAvailable(boolean replicaAvailable) {
+    if (this.replicaAvailable != replicaAvailable) {
+      LOG.info(
+          "Routing read-only transactions to the {}", replicaAvailable ? "replica" : "primary");
+    }
+    this.replicaAvailable = replicaAvailable;
+  }
+
+  private boolean routesToReplica() {
+    return replicaAvailable && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+  }
+
+  private void markReplicaUnavailable(SQLException e) {
+    LOG.warn("Replica not reachable, falling back to the primary", e);
+    setReplicaAvailable(false);
+  }
+}
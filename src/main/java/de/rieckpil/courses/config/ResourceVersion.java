@@ -0,0 +1,42 @@
+package de.rieckpil.courses.config;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the changes of a resource to answer conditional requests without loading or rendering it.
+ * Writers increment the version once their change is committed. The ETag carries a random prefix,
+ * so versions never repeat across restarts and instances.
+ *
+ * <p>Only changes made through this instance are counted, the ETag therefore also changes every
+ * {@link ETagProperties#getMaxStaleness()}.
+ */
+public abstract class ResourceVersion {
+
+  private final String instance =
+      Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, Character.MAX_RADIX);
+
+  private final AtomicLong version = new AtomicLong();
+  private final long maxStalenessMillis;
+  private final Clock clock;
+
+  protected ResourceVersion(ETagProperties eTagProperties, Clock clock) {
+    this.maxStalenessMillis = Math.max(1, eTagProperties.getMaxStaleness().toMillis());
+    this.clock = clock;
+  }
+
+  public void increment() {
+    version.incrementAndGet();
+  }
+
+  public long getVersion() {
+    return version.get();
+  }
+
+  /** Read before loading the resource, a concurrent change then only costs a full response. */
+  public String getETag() {
+    long period = clock.millis() / maxStalenessMillis;
+    return "\"" + instance + "-" + version.get() + "-" + period + "\"";
+  }
+}
@@ -0,0 +1,23 @@
+package de.rieckpil.courses.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "startup")
+public class StartupProperties {
+
+  /**
+   * Shuts the application down this long after it is ready, e.g. to end the AppCDS training run
+   * once the initial books went through the queue. Keeps running when not set.
+   */
+  private Duration exitAfterReady;
+
+  public Duration getExitAfterReady() {
+    return exitAfterReady;
+  }
+
+  public void setExitAfterReady(Duration exitAfterReady) {
+    this.exitAfterReady = exitAfterReady;
+  }
+}
@@ -0,0 +1,58 @@
+package de.rieckpil.courses.config;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs the time from JVM start until the application is ready, which the {@code
+ * ApplicationStartupBenchmark} waits for. With {@code startup.exit-after-ready} the application
+ * shuts itself down afterwards.
+ *
+ * <p>The exit is driven by a property instead of a condition on purpose: conditions are evaluated
+ * once during AOT processing, properties are still read when the optimized application starts.
+ */
+@Component
+public class StartupTimer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(StartupTimer.class);
+
+  private final StartupProperties startupProperties;
+
+  public StartupTimer(StartupProperties startupProperties) {
+    this.startupProperties = startupProperties;
+  }
+
+  // unordered, so it only runs after listeners ordered ahead of it, e.g. the InitialBookCreator
+  @EventListener
+  public void onApplicationReady(ApplicationReadyEvent event) {
+    LOG.info(
+        "Application ready in {} ms since JVM start",
+        ManagementFactory.getRuntimeMXBean().getUptime());
+
+    Duration exitAfterReady = startupProperties.getExitAfterReady();
+    if (exitAfterReady != null) {
+      LOG.info("Shutting down in {} as requested by startup.exit-after-ready", exitAfterReady);
+      new CustomizableThreadFactory("startup-exit-")
+          .newThread(() -> exit(event.getApplicationContext(), exitAfterReady))
+          .start();
+    }
+  }
+
+  private static void exit(ConfigurableApplicationContext context, Duration delay) {
+    try {
+      Thread.sleep(delay.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    System.exit(SpringApplication.exit(context));
+  }
+}
@@ -1,35 +1,122 @@
 package de.rieckpil.courses.config;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
 @Configuration
 @EnableMethodSecurity(prePostEnabled = true)
+@EnableConfigurationProperties({JwtCacheProperties.class, JwksProperties.class})
 public class WebSecurityConfig {
 
+  /** Anonymous reads of the catalog and the reviews plus the frontend's static assets. */
+  static final RequestMatcher PUBLIC_READS =
+      new OrRequestMatcher(
+          Stream.of(
+                  "/api/books",
+                  "/api/books/search",
+                  "/api/books/suggest",
+                  "/api/books/*/thumbnail",
+                  "/api/books/reviews",
+                  "/api/books/reviews/stream",
+                  "/",
+                  "/index.html",
+                  "/static/**",
+                  "/favicon.ico",
+                  "/manifest.json",
+                  "/robots.txt",
+                  "/logo*.png")
+              .<RequestMatcher>map(pattern -> antMatcher(HttpMethod.GET, pattern))
+              .toList());
+
+  /**
+   * Serves {@link #PUBLIC_READS} ahead of {@link #securityFilterChain} with the bare minimum of
+   * filters. Bearer tokens, CORS and authorization are not looked at, so a token sent along with
+   * such a read is neither verified nor rejected. Spring MVC still answers CORS requests of the
+   * frontend.
+   */
   @Bean
-  public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  public SecurityFilterChain publicSecurityFilterChain(HttpSecurity httpSecurity) throws Exception {
+    httpSecurity
+        .securityMatcher(PUBLIC_READS)
+        .securityContext(AbstractHttpConfigurer::disable)
+        .sessionManagement(AbstractHttpConfigurer::disable)
+        .requestCache(AbstractHttpConfigurer::disable)
+        .servletApi(AbstractHttpConfigurer::disable)
+        .anonymous(AbstractHttpConfigurer::disable)
+        .exceptionHandling(AbstractHttpConfigurer::disable)
+        .logout(AbstractHttpConfigurer::disable)
+        .csrf(AbstractHttpConfigurer::disable)
+        // the listings send their own Cache-Control, static assets may be cached
+        .headers(headers -> headers.cacheControl(HeadersConfigurer.CacheControlConfig::disable));
+
+    return httpSecurity.build();
+  }
+
+  @Bean
+  public SecurityFilterChain securityFilterChain(
+      HttpSecurity httpSecurity, JwtDecoder jwtDecoder, JwtCacheProperties jwtCacheProperties)
+      throws Exception {
     httpSecurity
         .authorizeHttpRequests(
             authorize ->
                 authorize
-                    .requestMatchers(HttpMethod.GET, "/api/books")
+                    // usually served by the publicSecurityFilterChain, this chain stays complete on
+                    // its own
+                    .requestMatchers(
+                        HttpMethod.GET,
+                        "/api/books",
+                        "/api/books/search",
+                        "/api/books/suggest",
+                        "/api/books/*/thumbnail")
                     .permitAll()
-                    .requestMatchers(HttpMethod.GET, "/api/books/reviews")
+                    .requestMatchers(
+                        HttpMethod.GET, "/api/books/reviews", "/api/books/reviews/stream")
                     .permitAll()
                     .requestMatchers("/api/**")
                     .authenticated()
                     .requestMatchers(EndpointRequest.to(HealthEndpoint.class))
                     .permitAll()
+                    .requestMatchers(EndpointRequest.to("metrics", "reviewquality"))
+                    .hasAuthority("ROLE_moderator")
                     .anyRequest()
                     .permitAll())
         .sessionManagement(
@@ -40,8 +127,68 @@ public class WebSecurityConfig {
         .oauth2ResourceServer(
             oauth2 ->
                 oauth2.jwt(
-                    jwt -> jwt.jwtAuthenticationConverter(new CustomAuthenticationConverter())));
+                    jwt ->
+                        jwt.decoder(cached(jwtDecoder, jwtCacheProperties))
+                            .jwtAuthenticationConverter(new CustomAuthenticationConverter())));
 
     return httpSecurity.build();
   }
+
+  /**
+   * Replaces the decoder Spring Boot derives from the issuer, which only discovers the issuer and
+   * loads its keys with the first request and reloads them on that request's thread.
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "spring.security.oauth2.resourceserver.jwt", name = "issuer-uri")
+  public RefreshingJwkSource jwkSource(
+      OAuth2ResourceServerProperties oAuth2ResourceServerProperties,
+      JwksProperties jwksProperties,
+      RestTemplateBuilder restTemplateBuilder) {
+    RefreshingJwkSource jwkSource =
+        new RefreshingJwkSource(
+            oAuth2ResourceServerProperties.getJwt().getIssuerUri(),
+            restTemplateBuilder
+                .setConnectTimeout(jwksProperties.getTimeout())
+                .setReadTimeout(jwksProperties.getTimeout())
+                .build(),
+            jwksProperties);
+    jwkSource.refresh();
+    return jwkSource;
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "spring.security.oauth2.resourceserver.jwt", name = "issuer-uri")
+  public JwtDecoder jwtDecoder(
+      RefreshingJwkSource jwkSource,
+      OAuth2ResourceServerProperties oAuth2ResourceServerProperties) {
+    OAuth2ResourceServerProperties.Jwt jwt = oAuth2ResourceServerProperties.getJwt();
+
+    DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+    jwtProcessor.setJWSKeySelector(
+        new JWSVerificationKeySelector<>(
+            jwt.getJwsAlgorithms().stream().map(JWSAlgorithm::parse).collect(Collectors.toSet()),
+            jwkSource));
+    // the claims are validated by the JwtDecoder
+    jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {});
+
+    List<OAuth2TokenValidator<Jwt>> validators = new ArrayList<>();
+    validators.add(JwtValidators.createDefaultWithIssuer(jwt.getIssuerUri()));
+    if (!jwt.getAudiences().isEmpty()) {
+      validators.add(
+          new JwtClaimValidator<List<String>>(
+              JwtClaimNames.AUD,
+              audiences ->
+                  audiences != null && !Collections.disjoint(audiences, jwt.getAudiences())));
+    }
+
+    NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+    jwtDecoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(validators));
+    return jwtDecoder;
+  }
+
+  private static JwtDecoder cached(JwtDecoder jwtDecoder, JwtCacheProperties jwtCacheProperties) {
+    return jwtCacheProperties.getMaxSize() > 0
+        ? new CachingJwtDecoder(jwtDecoder, jwtCacheProperties.getMaxSize())
+        : jwtDecoder;
+  }
 }
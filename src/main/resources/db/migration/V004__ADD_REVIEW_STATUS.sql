@@ -0,0 +1 @@
+ALTER TABLE reviews ADD COLUMN status VARCHAR(20) NOT NULL DEFAULT 'PUBLISHED';
@@ -0,0 +1,11 @@
+-- latest published reviews (findAllByStatusOrderByCreatedAtDesc)
+CREATE INDEX idx_reviews_status_created_at ON reviews (status, created_at DESC);
+
+-- best rated published reviews (findTop5ByStatusOrderByRatingDescCreatedAtDesc)
+CREATE INDEX idx_reviews_status_rating_created_at ON reviews (status, rating DESC, created_at DESC);
+
+-- review statistics per book without reading the table, also backs the foreign key to books
+CREATE INDEX idx_reviews_book_id_status ON reviews (book_id, status) INCLUDE (rating);
+
+-- keyset paging over the few pending reviews (findIdsByStatusAfter)
+CREATE INDEX idx_reviews_pending_id ON reviews (id) WHERE status = 'PENDING';
@@ -0,0 +1,90 @@
+ALTER TABLE reviews RENAME TO reviews_unpartitioned;
+DROP INDEX idx_reviews_status_created_at;
+DROP INDEX idx_reviews_status_rating_created_at;
+DROP INDEX idx_reviews_book_id_status;
+DROP INDEX idx_reviews_pending_id;
+
+-- the partition key has to be part of the primary key, Hibernate keeps using id alone
+CREATE TABLE reviews (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+  title VARCHAR(255) NOT NULL,
+  content TEXT NOT NULL,
+  rating INTEGER NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  book_id BIGINT REFERENCES books,
+  user_id BIGINT REFERENCES users,
+  status VARCHAR(20) NOT NULL DEFAULT 'PUBLISHED',
+  PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- catches rows without a matching monthly partition, e.g. when the maintenance job did not run
+CREATE TABLE reviews_default PARTITION OF reviews DEFAULT;
+
+CREATE INDEX idx_reviews_status_created_at ON reviews (status, created_at DESC);
+CREATE INDEX idx_reviews_status_rating_created_at ON reviews (status, rating DESC, created_at DESC);
+CREATE INDEX idx_reviews_book_id_status ON reviews (book_id, status) INCLUDE (rating);
+CREATE INDEX idx_reviews_pending_id ON reviews (id) WHERE status = 'PENDING';
+
+-- creates the monthly partitions from the given month up to months_ahead months after the current one
+CREATE FUNCTION create_review_partitions(from_month DATE, months_ahead INTEGER)
+  RETURNS SETOF TEXT
+  LANGUAGE plpgsql AS
+$$
+DECLARE
+  partition_start DATE := DATE_TRUNC('month', from_month);
+  last_start DATE := DATE_TRUNC('month', CURRENT_DATE) + MAKE_INTERVAL(months => months_ahead);
+  partition_name TEXT;
+BEGIN
+  WHILE partition_start <= last_start LOOP
+    partition_name := 'reviews_' || TO_CHAR(partition_start, '"y"YYYY"m"MM');
+
+    IF TO_REGCLASS(partition_name) IS NULL THEN
+      EXECUTE FORMAT(
+        'CREATE TABLE %I PARTITION OF reviews FOR VALUES FROM (%L) TO (%L)',
+        partition_name, partition_start, partition_start + INTERVAL '1 month');
+      RETURN NEXT partition_name;
+    END IF;
+
+    partition_start := partition_start + INTERVAL '1 month';
+  END LOOP;
+END;
+$$;
+
+-- detaches monthly partitions that only contain reviews created before the given timestamp, the
+-- detached tables keep their data and can be archived and dropped independently
+CREATE FUNCTION detach_review_partitions(created_before TIMESTAMP)
+  RETURNS SETOF TEXT
+  LANGUAGE plpgsql AS
+$$
+DECLARE
+  partition_name TEXT;
+BEGIN
+  FOR partition_name IN
+    SELECT child.relname
+    FROM pg_inherits
+           JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+           JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+    WHERE parent.relname = 'reviews'
+      AND child.relname ~ '^reviews_y[0-9]{4}m[0-9]{2}$'
+      AND TO_DATE(SUBSTRING(child.relname FROM 9), '"y"YYYY"m"MM') + INTERVAL '1 month' <= created_before
+    ORDER BY child.relname
+  LOOP
+    EXECUTE FORMAT('ALTER TABLE reviews DETACH PARTITION %I', partition_name);
+    RETURN NEXT partition_name;
+  END LOOP;
+END;
+$$;
+
+SELECT create_review_partitions(
+  COALESCE((SELECT MIN(created_at) FROM reviews_unpartitioned), CURRENT_DATE)::DATE, 3);
+
+INSERT INTO reviews (id, title, content, rating, created_at, book_id, user_id, status)
+SELECT id, title, content, rating, created_at, book_id, user_id, status
+FROM reviews_unpartitioned;
+
+SELECT SETVAL(
+  PG_GET_SERIAL_SEQUENCE('reviews', 'id'),
+  COALESCE((SELECT MAX(id) FROM reviews), 0) + 1,
+  false);
+
+DROP TABLE reviews_unpartitioned;
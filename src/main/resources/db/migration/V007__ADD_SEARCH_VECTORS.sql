@@ -0,0 +1,15 @@
+-- weights rank matches in the title above the author, genre and description
+ALTER TABLE books ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+  SETWEIGHT(TO_TSVECTOR('english', COALESCE(title, '')), 'A') ||
+  SETWEIGHT(TO_TSVECTOR('english', COALESCE(author, '')), 'B') ||
+  SETWEIGHT(TO_TSVECTOR('english', COALESCE(genre, '')), 'C') ||
+  SETWEIGHT(TO_TSVECTOR('english', COALESCE(description, '')), 'D')
+) STORED;
+
+ALTER TABLE reviews ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+  SETWEIGHT(TO_TSVECTOR('english', title), 'A') ||
+  SETWEIGHT(TO_TSVECTOR('english', content), 'B')
+) STORED;
+
+CREATE INDEX idx_books_search_vector ON books USING GIN (search_vector);
+CREATE INDEX idx_reviews_search_vector ON reviews USING GIN (search_vector);
@@ -0,0 +1,12 @@
+-- review events written in the transaction of the review change, relayed to SQS by the ReviewOutboxRelay
+CREATE TABLE review_outbox (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  event_type VARCHAR(32) NOT NULL,
+  review_id BIGINT NOT NULL,
+  payload JSONB NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  sent_at TIMESTAMP
+);
+
+-- the relay polls the few unsent events in insertion order
+CREATE INDEX idx_review_outbox_unsent_id ON review_outbox (id) WHERE sent_at IS NULL;
@@ -0,0 +1,6 @@
+-- clients load the covers through the thumbnail proxy, which fetches them from the source once
+ALTER TABLE books ADD COLUMN thumbnail_source_url VARCHAR(255);
+
+UPDATE books
+SET thumbnail_source_url = thumbnail_url, thumbnail_url = '/api/books/' || isbn || '/thumbnail'
+WHERE thumbnail_url IS NOT NULL;
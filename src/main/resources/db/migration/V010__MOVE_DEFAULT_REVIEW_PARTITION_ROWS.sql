@@ -0,0 +1,63 @@
+-- V006 made (id, created_at) the primary key of reviews, as the partition key has to be part of it.
+-- The database no longer rejects a duplicate id, only the identity sequence keeps ids unique.
+COMMENT ON COLUMN reviews.id IS
+  'Not unique on its own, the primary key is (id, created_at). Values come from the identity sequence.';
+
+-- creates the monthly partitions from the given month up to months_ahead months after the current one.
+-- Rows the default partition caught for a month, e.g. while the maintenance job did not run, are
+-- moved into its new partition, creating the partition on top of them would fail.
+CREATE OR REPLACE FUNCTION create_review_partitions(from_month DATE, months_ahead INTEGER)
+  RETURNS SETOF TEXT
+  LANGUAGE plpgsql AS
+$$
+DECLARE
+  partition_start DATE := DATE_TRUNC('month', from_month);
+  last_start DATE := DATE_TRUNC('month', CURRENT_DATE) + MAKE_INTERVAL(months => months_ahead);
+  partition_end DATE;
+  partition_name TEXT;
+  insertable_columns TEXT;
+BEGIN
+  -- the generated search vector can't be copied
+  SELECT STRING_AGG(QUOTE_IDENT(attname), ', ' ORDER BY attnum)
+  INTO insertable_columns
+  FROM pg_attribute
+  WHERE attrelid = 'reviews'::REGCLASS AND attnum > 0 AND NOT attisdropped AND attgenerated = '';
+
+  WHILE partition_start <= last_start LOOP
+    partition_end := partition_start + INTERVAL '1 month';
+    partition_name := 'reviews_' || TO_CHAR(partition_start, '"y"YYYY"m"MM');
+
+    IF TO_REGCLASS(partition_name) IS NULL THEN
+      -- creating the partition takes this lock anyway, taking it before the check keeps new rows of
+      -- the month out of the default partition until they are moved
+      LOCK TABLE reviews IN ACCESS EXCLUSIVE MODE;
+
+      IF EXISTS (
+        SELECT 1 FROM reviews_default WHERE created_at >= partition_start AND created_at < partition_end
+      ) THEN
+        ALTER TABLE reviews DETACH PARTITION reviews_default;
+
+        EXECUTE FORMAT(
+          'CREATE TABLE %I PARTITION OF reviews FOR VALUES FROM (%L) TO (%L)',
+          partition_name, partition_start, partition_end);
+        EXECUTE FORMAT(
+          'WITH moved AS ('
+            || 'DELETE FROM reviews_default WHERE created_at >= %L AND created_at < %L RETURNING %s'
+            || ') INSERT INTO %I (%s) SELECT %s FROM moved',
+          partition_start, partition_end, insertable_columns,
+          partition_name, insertable_columns, insertable_columns);
+
+        ALTER TABLE reviews ATTACH PARTITION reviews_default DEFAULT;
+      ELSE
+        EXECUTE FORMAT(
+          'CREATE TABLE %I PARTITION OF reviews FOR VALUES FROM (%L) TO (%L)',
+          partition_name, partition_start, partition_end);
+      END IF;
+
+      RETURN NEXT partition_name;
+    END IF;
+
+    partition_start := partition_end;
+  END LOOP;
+END;
+$$;
@@ -0,0 +1,3 @@
+-- the thumbnail cache finds the file of a cover fetched before a restart by its content hash
+ALTER TABLE books ADD COLUMN thumbnail_hash VARCHAR(64);
+ALTER TABLE books ADD COLUMN thumbnail_content_type VARCHAR(255);
@@ -1,6 +1,10 @@
 package de.rieckpil.courses;
 
 import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
@@ -15,10 +19,12 @@ import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
-import de.rieckpil.courses.book.management.BookRepository;
-import de.rieckpil.courses.book.review.ReviewRepository;
+import com.p6spy.engine.spy.P6SpyDriver;
+import de.rieckpil.courses.book.management.BookCatalogVersion;
+import de.rieckpil.courses.book.review.ReviewListingVersion;
 import de.rieckpil.courses.initializer.RSAKeyGenerator;
 import de.rieckpil.courses.initializer.WireMockInitializer;
+import de.rieckpil.courses.sql.SqlStatementRecordingConfiguration;
 import de.rieckpil.courses.stubs.OAuth2Stubs;
 import de.rieckpil.courses.stubs.OpenLibraryStubs;
 import org.junit.jupiter.api.AfterEach;
@@ -27,6 +33,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.DynamicPropertyRegistry;
@@ -40,9 +48,11 @@ import static org.testcontainers.containers.localstack.LocalStackContainer.Servi
 @ExtendWith(AllureReportingExtension.class)
 @ActiveProfiles("integration-test")
 @ContextConfiguration(initializers = WireMockInitializer.class)
+@Import(SqlStatementRecordingConfiguration.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public abstract class AbstractIntegrationTest {
 
+  // each failsafe fork works on its own database and queue
   static PostgreSQLContainer<?> database =
       new PostgreSQLContainer<>("postgres:15.3")
           .withDatabaseName("test")
@@ -56,27 +66,57 @@ public abstract class AbstractIntegrationTest {
   // https://docs.localstack.cloud/localstack/configuration/#deprecated
   // .withEnv("DEFAULT_REGION", "eu-central-1");
 
+  private static final String DATABASE_NAME = System.getProperty("it.database", "test_fork_1");
+
+  // a single statement instead of loading and deleting every entity
+  private static final String TRUNCATE_TABLES =
+      "TRUNCATE TABLE reviews, books, review_outbox RESTART IDENTITY CASCADE";
+
   static {
     database.start();
     localStack.start();
+    createForkDatabase();
   }
 
   protected static final String QUEUE_NAME = UUID.randomUUID().toString();
 
+  protected static final String REVIEW_EVENTS_QUEUE_NAME = UUID.randomUUID().toString();
+
   @DynamicPropertySource
   static void properties(DynamicPropertyRegistry registry) {
-    registry.add("spring.datasource.url", database::getJdbcUrl);
+    // routed through p6spy so that @MaxQueries can count the statements
+    registry.add(
+        "spring.datasource.url",
+        () ->
+            "jdbc:p6spy:postgresql://%s:%d/%s"
+                .formatted(
+                    database.getHost(),
+                    database.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT),
+                    DATABASE_NAME));
+    registry.add("spring.datasource.driver-class-name", () -> P6SpyDriver.class.getName());
     registry.add("spring.datasource.password", database::getPassword);
     registry.add("spring.datasource.username", database::getUsername);
+    registry.add(
+        "spring.r2dbc.url",
+        () ->
+            "r2dbc:postgresql://%s:%d/%s"
+                .formatted(
+                    database.getHost(),
+                    database.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT),
+                    DATABASE_NAME));
+    registry.add("spring.r2dbc.password", database::getPassword);
+    registry.add("spring.r2dbc.username", database::getUsername);
     registry.add("sqs.book-synchronization-queue", () -> QUEUE_NAME);
     registry.add("spring.cloud.aws.credentials.secret-key", () -> "foo");
     registry.add("spring.cloud.aws.credentials.access-key", () -> "bar");
     registry.add("spring.cloud.aws.endpoint", () -> localStack.getEndpointOverride(SQS));
   }
 
-  @Autowired private ReviewRepository reviewRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
 
-  @Autowired private BookRepository bookRepository;
+  @Autowired private BookCatalogVersion bookCatalogVersion;
+
+  @Autowired private ReviewListingVersion reviewListingVersion;
 
   @Autowired private RSAKeyGenerator rsaKeyGenerator;
 
@@ -89,18 +129,37 @@ public abstract class AbstractIntegrationTest {
   @BeforeAll
   static void beforeAll() throws IOException, InterruptedException {
     localStack.execInContainer("awslocal", "sqs", "create-queue", "--queue-name", QUEUE_NAME);
+    localStack.execInContainer(
+        "awslocal", "sqs", "create-queue", "--queue-name", REVIEW_EVENTS_QUEUE_NAME);
   }
 
   @BeforeEach
   void init() {
-    this.reviewRepository.deleteAll();
-    this.bookRepository.deleteAll();
+    truncateTables();
   }
 
   @AfterEach
   void cleanUp() {
-    this.reviewRepository.deleteAll();
-    this.bookRepository.deleteAll();
+    truncateTables();
+  }
+
+  private void truncateTables() {
+    this.jdbcTemplate.execute(TRUNCATE_TABLES);
+
+    // the truncation bypasses the writers, don't serve cached snapshots of the removed rows
+    this.bookCatalogVersion.increment();
+    this.reviewListingVersion.increment();
+  }
+
+  private static void createForkDatabase() {
+    try (Connection connection =
+            DriverManager.getConnection(
+                database.getJdbcUrl(), database.getUsername(), database.getPassword());
+        Statement statement = connection.createStatement()) {
+      statement.execute("CREATE DATABASE " + DATABASE_NAME);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to create database " + DATABASE_NAME, e);
+    }
   }
 
   protected String getSignedJWT(String username, String email) throws JOSEException {
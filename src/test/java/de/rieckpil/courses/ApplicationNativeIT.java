@@ -0,0 +1,243 @@
+package de.rieckpil.courses;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import de.rieckpil.courses.initializer.RSAKeyGenerator;
+import de.rieckpil.courses.stubs.OAuth2Stubs;
+import de.rieckpil.courses.stubs.OpenLibraryStubs;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import static org.awaitility.Awaitility.given;
+import static org.testcontainers.containers.localstack.LocalStackContainer.Service.SQS;
+
+/**
+ * Smoke test of the native executable built with {@code ./mvnw -Pnative verify}, which passes its
+ * location as {@code native.image}. The executable runs as a separate process against PostgreSQL,
+ * LocalStack SQS and the WireMock stubs for OpenLibrary and the OAuth2 provider.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "native.image", matches = ".+")
+class ApplicationNativeIT {
+
+  @Container
+  static PostgreSQLContainer<?> database =
+      new PostgreSQLContainer<>("postgres:15.3")
+          .withDatabaseName("test")
+          .withUsername("duke")
+          .withPassword("s3cret");
+
+  @Container
+  static LocalStackContainer localStack =
+      new LocalStackContainer(DockerImageName.parse("localstack/localstack:2.2.0"))
+          .withServices(SQS);
+
+  private static final String QUEUE_NAME = UUID.randomUUID().toString();
+  private static final List<String> INITIAL_ISBNS =
+      List.of("9780321751041", "9780321160768", "9780596004651");
+
+  private static WireMockServer wireMockServer;
+  private static RSAKeyGenerator rsaKeyGenerator;
+  private static OAuth2Stubs oAuth2Stubs;
+  private static Process application;
+  private static WebTestClient webTestClient;
+
+  @BeforeAll
+  static void startApplication() throws IOException, InterruptedException {
+    localStack.execInContainer("awslocal", "sqs", "create-queue", "--queue-name", QUEUE_NAME);
+
+    wireMockServer = new WireMockServer(new WireMockConfiguration().dynamicPort());
+    wireMockServer.start();
+
+    rsaKeyGenerator = new RSAKeyGenerator();
+    rsaKeyGenerator.initializeKeys();
+    oAuth2Stubs = new OAuth2Stubs(wireMockServer, rsaKeyGenerator);
+    oAuth2Stubs.stubForConfiguration();
+    oAuth2Stubs.stubForJWKS();
+
+    OpenLibraryStubs openLibraryStubs = new OpenLibraryStubs(wireMockServer);
+    for (String isbn : INITIAL_ISBNS) {
+      openLibraryStubs.stubForSuccessfulBookResponse(isbn, stubResponse(isbn));
+    }
+
+    int port = freePort();
+    application =
+        new ProcessBuilder(
+                System.getProperty("native.image"),
+                "--server.port=" + port,
+                "--spring.datasource.url=" + database.getJdbcUrl(),
+                "--spring.datasource.username=" + database.getUsername(),
+                "--spring.datasource.password=" + database.getPassword(),
+                "--spring.r2dbc.url=r2dbc:postgresql://%s:%d/%s"
+                    .formatted(
+                        database.getHost(),
+                        database.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT),
+                        database.getDatabaseName()),
+                "--spring.r2dbc.username=" + database.getUsername(),
+                "--spring.r2dbc.password=" + database.getPassword(),
+                "--spring.cloud.aws.endpoint=" + localStack.getEndpointOverride(SQS),
+                "--sqs.book-synchronization-queue=" + QUEUE_NAME,
+                "--clients.open-library.base-url=" + wireMockServer.baseUrl() + "/openLibrary",
+                "--spring.security.oauth2.resourceserver.jwt.issuer-uri="
+                    + oAuth2Stubs.getIssuerUri())
+            .redirectErrorStream(true)
+            .redirectOutput(new File("target/native-smoke-test.log"))
+            .start();
+
+    webTestClient =
+        WebTestClient.bindToServer()
+            .baseUrl("http://localhost:" + port)
+            .responseTimeout(Duration.ofSeconds(10))
+            .build();
+  }
+
+  @AfterAll
+  static void stopApplication() throws InterruptedException {
+    if (application != null) {
+      application.destroy();
+      application.waitFor();
+    }
+    if (wireMockServer != null) {
+      wireMockServer.stop();
+    }
+  }
+
+  @Test
+  void shouldSynchronizeInitialBooksThroughTheQueue() {
+    awaitInitialBooks();
+  }
+
+  @Test
+  void shouldCreateReviewAndReportStatistics() throws JOSEException {
+    awaitInitialBooks();
+    String token = getSignedJWT();
+
+    webTestClient
+        .post()
+        .uri("/api/books/{isbn}/reviews", INITIAL_ISBNS.get(0))
+        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(
+            """
+            {
+              "reviewTitle": "Great introduction",
+              "reviewContent": "Explains objects, interfaces and generics in a playful way that sticks for a long time.",
+              "rating": 4
+            }
+            """)
+        .exchange()
+        .expectStatus()
+        .isCreated();
+
+    webTestClient
+        .get()
+        .uri("/api/books/reviews")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$[0].bookIsbn")
+        .isEqualTo(INITIAL_ISBNS.get(0))
+        .jsonPath("$[0].submittedBy")
+        .isEqualTo("duke");
+
+    webTestClient
+        .get()
+        .uri("/api/books/reviews/statistics")
+        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$[0].isbn")
+        .isEqualTo(INITIAL_ISBNS.get(0))
+        .jsonPath("$[0].ratings")
+        .isEqualTo(1);
+  }
+
+  private static void awaitInitialBooks() {
+    given()
+        .atMost(Duration.ofSeconds(30))
+        .pollInterval(Duration.ofMillis(500))
+        .ignoreExceptions()
+        .await()
+        .untilAsserted(
+            () ->
+                webTestClient
+                    .get()
+                    .uri("/api/books")
+                    .exchange()
+                    .expectStatus()
+                    .isOk()
+                    .expectBody()
+                    .jsonPath("$.size()")
+                    .isEqualTo(INITIAL_ISBNS.size()));
+  }
+
+  private static String getSignedJWT() throws JOSEException {
+    JWSHeader header =
+        new JWSHeader.Builder(JWSAlgorithm.RS256)
+            .type(JOSEObjectType.JWT)
+            .keyID(RSAKeyGenerator.KEY_ID)
+            .build();
+
+    JWTClaimsSet payload =
+        new JWTClaimsSet.Builder()
+            .issuer(oAuth2Stubs.getIssuerUri())
+            .audience("account")
+            .subject("duke")
+            .claim("preferred_username", "duke")
+            .claim("email", "duke@spring.io")
+            .claim("scope", "openid email profile")
+            .claim("azp", "react-client")
+            .claim("realm_access", Map.of("roles", List.of()))
+            .expirationTime(Date.from(Instant.now().plusSeconds(120)))
+            .issueTime(new Date())
+            .build();
+
+    SignedJWT signedJWT = new SignedJWT(header, payload);
+    signedJWT.sign(new RSASSASigner(rsaKeyGenerator.getPrivateKey()));
+    return signedJWT.serialize();
+  }
+
+  private static String stubResponse(String isbn) throws IOException {
+    return new String(
+        ApplicationNativeIT.class
+            .getClassLoader()
+            .getResourceAsStream("stubs/openlibrary/success-" + isbn + ".json")
+            .readAllBytes());
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+}
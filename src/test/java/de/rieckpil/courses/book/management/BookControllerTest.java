@@ -13,7 +13,15 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -27,6 +35,10 @@ class BookControllerTest {
 
   @MockBean private BookManagementService bookManagementService;
 
+  @MockBean private BookSuggestionIndex bookSuggestionIndex;
+
+  @MockBean private BookCatalogVersion bookCatalogVersion;
+
   @Autowired private MockMvc mockMvc;
 
   @Test
@@ -41,6 +53,76 @@ class BookControllerTest {
             .andReturn();
   }
 
+  @Test
+  void shouldTagBooksWithCatalogVersion() throws Exception {
+    when(bookCatalogVersion.getETag()).thenReturn("\"abc-1-0\"");
+
+    this.mockMvc
+        .perform(get("/api/books"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"abc-1-0\""))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"));
+  }
+
+  @Test
+  void shouldAnswerNotModifiedWithoutLoadingBooksWhenCatalogIsUnchanged() throws Exception {
+    when(bookCatalogVersion.getETag()).thenReturn("\"abc-1-0\"");
+
+    this.mockMvc
+        .perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, "\"abc-1-0\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"abc-1-0\""))
+        .andExpect(content().string(""));
+
+    verify(bookManagementService, never()).getAllBooks();
+  }
+
+  @Test
+  void shouldWriteCatalogSnapshotAsItIs() throws Exception {
+    when(bookManagementService.getCatalogSnapshot())
+        .thenReturn(BookCatalogSnapshot.of(0, "[{\"isbn\":\"42\"}]".getBytes()));
+
+    this.mockMvc
+        .perform(get("/api/books"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$[0].isbn", is("42")))
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+
+    verify(bookManagementService, never()).getAllBooks();
+  }
+
+  @Test
+  void shouldWriteCompressedCatalogSnapshotWhenClientAcceptsGzip() throws Exception {
+    BookCatalogSnapshot snapshot = BookCatalogSnapshot.of(0, "[]".getBytes());
+    when(bookManagementService.getCatalogSnapshot()).thenReturn(snapshot);
+    when(bookCatalogVersion.getETag()).thenReturn("\"abc-1-0\"");
+
+    this.mockMvc
+        .perform(get("/api/books").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"abc-1-0-gzip\""))
+        .andExpect(content().bytes(snapshot.getGzip()));
+  }
+
+  @Test
+  void shouldOnlyAcceptGzipWhenNotExcluded() {
+    assertTrue(BookController.acceptsGzip("gzip, deflate, br"));
+    assertTrue(BookController.acceptsGzip("*"));
+    assertFalse(BookController.acceptsGzip("gzip;q=0"));
+    assertFalse(BookController.acceptsGzip("identity"));
+    assertFalse(BookController.acceptsGzip(null));
+  }
+
+  @Test
+  void shouldServeBooksWithoutLookingAtBearerToken() throws Exception {
+    this.mockMvc
+        .perform(get("/api/books").header(HttpHeaders.AUTHORIZATION, "Bearer not-a-jwt"))
+        .andExpect(status().isOk());
+  }
+
   @Test
   void shouldNotReturnXML() throws Exception {
     this.mockMvc
@@ -90,6 +172,59 @@ class BookControllerTest {
         .andExpect(jsonPath("$[1].title", is("Java 15")));
   }
 
+  @Test
+  void shouldSearchBooksWithoutAuthentication() throws Exception {
+    Book book =
+        createBook(
+            1L,
+            "42",
+            "Java 14",
+            "Mike",
+            "Good book",
+            "Software Engineering",
+            200L,
+            "Oracle",
+            "ftp://localhost:42");
+
+    when(bookManagementService.searchBooks("java", 1, "MC41OjE"))
+        .thenReturn(new BookSearchResult(List.of(book), "MC4zOjQy"));
+
+    this.mockMvc
+        .perform(get("/api/books/search?q=java&size=1&after=MC41OjE"))
+        .andExpect(status().is(200))
+        .andExpect(jsonPath("$.books.size()", is(1)))
+        .andExpect(jsonPath("$.books[0].isbn", is("42")))
+        .andExpect(jsonPath("$.next", is("MC4zOjQy")));
+  }
+
+  @Test
+  void shouldRejectBlankSearchQuery() throws Exception {
+    this.mockMvc.perform(get("/api/books/search?q=  ")).andExpect(status().isBadRequest());
+
+    verify(bookManagementService, never()).searchBooks(anyString(), anyInt(), any());
+  }
+
+  @Test
+  void shouldRejectTooLargeSearchPage() throws Exception {
+    this.mockMvc
+        .perform(get("/api/books/search?q=java&size=1000"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void shouldSuggestBooksWithoutAuthentication() throws Exception {
+    when(bookSuggestionIndex.suggest("jav", 5))
+        .thenReturn(List.of(new BookSuggestion("42", "Java 14", "Mike")));
+
+    this.mockMvc
+        .perform(get("/api/books/suggest?prefix=jav&size=5"))
+        .andExpect(status().is(200))
+        .andExpect(jsonPath("$.size()", is(1)))
+        .andExpect(jsonPath("$[0].isbn", is("42")))
+        .andExpect(jsonPath("$[0].title", is("Java 14")))
+        .andExpect(jsonPath("$[0].author", is("Mike")));
+  }
+
   private Book createBook(
       Long id,
       String isbn,
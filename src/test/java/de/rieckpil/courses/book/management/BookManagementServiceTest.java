@@ -0,0 +1,79 @@
+package de.rieckpil.courses.book.management;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.rieckpil.courses.config.ETagProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookManagementServiceTest {
+
+  private final BookRepository bookRepository = mock(BookRepository.class);
+  private final BookCatalogVersion bookCatalogVersion =
+      new BookCatalogVersion(new ETagProperties());
+
+  private BookManagementService cut;
+
+  @BeforeEach
+  void setup() {
+    cut = new BookManagementService(bookRepository, bookCatalogVersion, new ObjectMapper());
+  }
+
+  @AfterEach
+  void shutdown() {
+    cut.shutdown();
+  }
+
+  @Test
+  void shouldSerializeCatalogOnceIncludingGzipEncoding() throws IOException {
+    when(bookRepository.findAll()).thenReturn(List.of(book("42")));
+
+    BookCatalogSnapshot snapshot = cut.buildCatalogSnapshot();
+
+    assertEquals("42", new ObjectMapper().readTree(snapshot.getJson()).get(0).get("isbn").asText());
+    try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzip()))) {
+      assertArrayEquals(snapshot.getJson(), gzip.readAllBytes());
+    }
+  }
+
+  @Test
+  void shouldNotServeSnapshotBeforeItIsBuilt() {
+    assertNull(cut.getCatalogSnapshot());
+  }
+
+  @Test
+  void shouldOnlyServeSnapshotUntilCatalogChanges() {
+    when(bookRepository.findAll()).thenReturn(List.of(book("42")));
+
+    cut.refreshCatalogSnapshot();
+    await().atMost(Duration.ofSeconds(5)).until(() -> cut.getCatalogSnapshot() != null);
+
+    bookCatalogVersion.increment();
+    assertNull(cut.getCatalogSnapshot());
+
+    cut.refreshCatalogSnapshot();
+    await().atMost(Duration.ofSeconds(5)).until(() -> cut.getCatalogSnapshot() != null);
+    assertNotNull(cut.getCatalogSnapshot());
+  }
+
+  private static Book book(String isbn) {
+    Book book = new Book();
+    book.setIsbn(isbn);
+    book.setTitle("Java");
+    return book;
+  }
+}
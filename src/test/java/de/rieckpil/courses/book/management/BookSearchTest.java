@@ -0,0 +1,90 @@
+package de.rieckpil.courses.book.management;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.rieckpil.courses.config.ETagProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BookManagementService.class, BookCatalogVersion.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@EnableConfigurationProperties(ETagProperties.class)
+@Sql(scripts = "/scripts/INIT_BOOKS_FOR_SEARCH.sql")
+class BookSearchTest {
+
+  @Container
+  static PostgreSQLContainer<?> container =
+      new PostgreSQLContainer<>("postgres:15.3")
+          .withDatabaseName("test")
+          .withUsername("duke")
+          .withPassword("s3cret");
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", container::getJdbcUrl);
+    registry.add("spring.datasource.password", container::getPassword);
+    registry.add("spring.datasource.username", container::getUsername);
+  }
+
+  @Autowired private BookManagementService cut;
+
+  @Test
+  void shouldRankTitleMatchesAbovePublishedReviewMatches() {
+    BookSearchResult result = cut.searchBooks("testing", 20, null);
+
+    assertEquals(List.of("1234567891234", "1234567891235"), isbns(result));
+    assertNull(result.next());
+  }
+
+  @Test
+  void shouldSupportWebSearchSyntax() {
+    BookSearchResult result = cut.searchBooks("java -concurrency", 20, null);
+
+    assertEquals(List.of("1234567891236"), isbns(result));
+  }
+
+  @Test
+  void shouldPageThroughAllMatchesWithCursor() {
+    List<String> isbns = new ArrayList<>();
+
+    BookSearchResult firstPage = cut.searchBooks("java", 1, null);
+    isbns.addAll(isbns(firstPage));
+    assertNotNull(firstPage.next());
+
+    BookSearchResult secondPage = cut.searchBooks("java", 1, firstPage.next());
+    isbns.addAll(isbns(secondPage));
+    assertNull(secondPage.next());
+
+    assertEquals(List.of("1234567891236", "1234567891235"), isbns);
+  }
+
+  @Test
+  void shouldRejectInvalidCursor() {
+    assertThrows(InvalidBookSearchException.class, () -> cut.searchBooks("java", 1, "invalid"));
+  }
+
+  private static List<String> isbns(BookSearchResult result) {
+    return result.books().stream().map(Book::getIsbn).toList();
+  }
+}
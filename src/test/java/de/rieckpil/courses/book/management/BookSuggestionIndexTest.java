@@ -0,0 +1,109 @@
+package de.rieckpil.courses.book.management;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookSuggestionIndexTest {
+
+  @Mock private BookRepository bookRepository;
+
+  private BookSuggestionIndex cut;
+
+  @BeforeEach
+  void setup() {
+    when(bookRepository.findAll())
+        .thenReturn(
+            List.of(
+                book("1", "Spring Boot in Action", "Craig Walls"),
+                book("2", "Effective Java", "Joshua Bloch"),
+                book("3", "Java Concurrency in Practice", "Brian Goetz"),
+                book("4", "Gödel, Escher, Bach", "Douglas Hofstadter")));
+
+    cut = new BookSuggestionIndex(bookRepository);
+    cut.load();
+  }
+
+  @Test
+  void shouldSuggestBooksByTitlePrefixOrderedByTitle() {
+    assertEquals(List.of("2", "3"), isbns(cut.suggest("jav", 10)));
+  }
+
+  @Test
+  void shouldSuggestBooksByAuthorPrefix() {
+    assertEquals(List.of("2"), isbns(cut.suggest("Blo", 10)));
+  }
+
+  @Test
+  void shouldRequireEveryWordOfThePrefix() {
+    assertEquals(List.of("3"), isbns(cut.suggest("java conc", 10)));
+  }
+
+  @Test
+  void shouldIgnoreCaseAndDiacritics() {
+    assertEquals(List.of("4"), isbns(cut.suggest("GODEL", 10)));
+  }
+
+  @Test
+  void shouldLimitSuggestions() {
+    assertEquals(List.of("2"), isbns(cut.suggest("java", 1)));
+  }
+
+  @Test
+  void shouldNotSuggestAnythingForBlankOrUnknownPrefix() {
+    assertTrue(cut.suggest("  ", 10).isEmpty());
+    assertTrue(cut.suggest("kotlin", 10).isEmpty());
+  }
+
+  @Test
+  void shouldSuggestNewlyStoredBooks() {
+    cut.onBookStored(new BookStoredEvent(book("5", "Kotlin in Action", "Dmitry Jemerov")));
+
+    assertEquals(List.of("5"), isbns(cut.suggest("kotlin", 10)));
+    assertEquals(List.of("5", "1"), isbns(cut.suggest("action", 10)));
+  }
+
+  @Test
+  void shouldReindexStoredBookWithChangedTitle() {
+    cut.onBookStored(new BookStoredEvent(book("2", "Effective Kotlin", "Marcin Moskala")));
+
+    assertEquals(List.of("3"), isbns(cut.suggest("java", 10)));
+    assertEquals(List.of("2"), isbns(cut.suggest("kotlin", 10)));
+    assertTrue(cut.suggest("bloch", 10).isEmpty());
+  }
+
+  @Test
+  void shouldPickUpBooksStoredElsewhereOnReload() {
+    when(bookRepository.findAll())
+        .thenReturn(
+            List.of(
+                book("1", "Spring Boot in Action", "Craig Walls"),
+                book("5", "Kotlin in Action", "Dmitry Jemerov")));
+
+    cut.load();
+
+    assertEquals(List.of("5", "1"), isbns(cut.suggest("action", 10)));
+    assertTrue(cut.suggest("java", 10).isEmpty());
+  }
+
+  private static List<String> isbns(List<BookSuggestion> suggestions) {
+    return suggestions.stream().map(BookSuggestion::isbn).toList();
+  }
+
+  private static Book book(String isbn, String title, String author) {
+    Book book = new Book();
+    book.setIsbn(isbn);
+    book.setTitle(title);
+    book.setAuthor(author);
+    return book;
+  }
+}
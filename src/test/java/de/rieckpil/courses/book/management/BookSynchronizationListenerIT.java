@@ -67,6 +67,16 @@ class BookSynchronizationListenerIT {
     registry.add("spring.datasource.url", database::getJdbcUrl);
     registry.add("spring.datasource.password", database::getPassword);
     registry.add("spring.datasource.username", database::getUsername);
+    registry.add(
+        "spring.r2dbc.url",
+        () ->
+            "r2dbc:postgresql://%s:%d/%s"
+                .formatted(
+                    database.getHost(),
+                    database.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT),
+                    database.getDatabaseName()));
+    registry.add("spring.r2dbc.password", database::getPassword);
+    registry.add("spring.r2dbc.username", database::getUsername);
     registry.add("sqs.book-synchronization-queue", () -> QUEUE_NAME);
     registry.add("spring.cloud.aws.credentials.secret-key", () -> "foo");
     registry.add("spring.cloud.aws.credentials.access-key", () -> "bar");
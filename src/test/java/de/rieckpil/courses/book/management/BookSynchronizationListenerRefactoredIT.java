@@ -5,6 +5,7 @@ import java.time.Duration;
 
 import com.nimbusds.jose.JOSEException;
 import de.rieckpil.courses.AbstractIntegrationTest;
+import de.rieckpil.courses.sql.MaxQueries;
 import io.awspring.cloud.sqs.operations.SqsTemplate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +15,7 @@ import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
 
 import static org.awaitility.Awaitility.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class BookSynchronizationListenerRefactoredIT extends AbstractIntegrationTest {
 
@@ -39,7 +41,12 @@ class BookSynchronizationListenerRefactoredIT extends AbstractIntegrationTest {
 
   @Autowired private WebTestClient webTestClient;
 
+  @Autowired private BookSynchronizationListener bookSynchronizationListener;
+
+  @Autowired private BookRepository bookRepository;
+
   @Test
+  @MaxQueries(select = 1)
   void shouldGetSuccessWhenClientIsAuthenticated() throws JOSEException {
     this.webTestClient
         .get()
@@ -94,4 +101,16 @@ class BookSynchronizationListenerRefactoredIT extends AbstractIntegrationTest {
                   .isEqualTo(ISBN);
             });
   }
+
+  @Test
+  // one lookup per sync request plus the count below
+  @MaxQueries(select = 3, insert = 1)
+  void shouldStoreBookOnlyOnceWhenConsumingDuplicateSyncRequests() {
+    this.openLibraryStubs.stubForSuccessfulBookResponse(ISBN, VALID_RESPONSE);
+
+    this.bookSynchronizationListener.consumeBookUpdates(new BookSynchronization(ISBN));
+    this.bookSynchronizationListener.consumeBookUpdates(new BookSynchronization(ISBN));
+
+    assertEquals(1, this.bookRepository.count());
+  }
 }
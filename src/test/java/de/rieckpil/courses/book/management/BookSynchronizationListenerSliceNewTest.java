@@ -6,12 +6,14 @@ import java.util.concurrent.TimeUnit;
 
 import io.awspring.cloud.sqs.operations.SqsTemplate;
 import io.awspring.cloud.test.sqs.SqsTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.localstack.LocalStackContainer;
@@ -26,6 +28,7 @@ import static org.mockito.Mockito.when;
 import static org.testcontainers.containers.localstack.LocalStackContainer.Service.SQS;
 
 @SqsTest(BookSynchronizationListener.class)
+@Import(SimpleMeterRegistry.class)
 @Testcontainers(disabledWithoutDocker = true)
 class BookSynchronizationListenerSliceNewTest {
 
@@ -63,6 +66,8 @@ class BookSynchronizationListenerSliceNewTest {
 
   @MockBean private OpenLibraryApiClient openLibraryApiClient;
 
+  @MockBean private BookCatalogVersion bookCatalogVersion;
+
   @Test
   void shouldConsumeMessageWhenPayloadIsCorrect() {
     sqsTemplate.send(QUEUE_NAME, new BookSynchronization(ISBN));
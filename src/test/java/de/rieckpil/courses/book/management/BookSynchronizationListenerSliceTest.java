@@ -9,6 +9,7 @@ import io.awspring.cloud.autoconfigure.core.CredentialsProviderAutoConfiguration
 import io.awspring.cloud.autoconfigure.core.RegionProviderAutoConfiguration;
 import io.awspring.cloud.autoconfigure.sqs.SqsAutoConfiguration;
 import io.awspring.cloud.sqs.operations.SqsTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,7 +36,7 @@ import static org.mockito.Mockito.when;
 import static org.testcontainers.containers.localstack.LocalStackContainer.Service.SQS;
 
 @ExtendWith(SpringExtension.class)
-@Import(BookSynchronizationListener.class)
+@Import({BookSynchronizationListener.class, SimpleMeterRegistry.class})
 @ImportAutoConfiguration({
   JacksonAutoConfiguration.class,
   CredentialsProviderAutoConfiguration.class,
@@ -83,6 +84,8 @@ class BookSynchronizationListenerSliceTest {
 
   @MockBean private OpenLibraryApiClient openLibraryApiClient;
 
+  @MockBean private BookCatalogVersion bookCatalogVersion;
+
   @Test
   void shouldStartSQS() {
     assertNotNull(cut);
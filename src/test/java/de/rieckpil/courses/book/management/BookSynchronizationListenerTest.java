@@ -1,9 +1,11 @@
 package de.rieckpil.courses.book.management;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -17,6 +19,12 @@ class BookSynchronizationListenerTest {
 
   @Mock private OpenLibraryApiClient openLibraryApiClient;
 
+  @Spy private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Mock private ApplicationEventPublisher applicationEventPublisher;
+
+  @Mock private BookCatalogVersion bookCatalogVersion;
+
   @InjectMocks private BookSynchronizationListener cut;
 
   @Captor private ArgumentCaptor<Book> bookArgumentCaptor;
@@ -28,6 +36,7 @@ class BookSynchronizationListenerTest {
     cut.consumeBookUpdates(bookSynchronization);
 
     verifyNoInteractions(openLibraryApiClient, bookRepository);
+    assertEquals(1, synchronizations("rejected-length"));
   }
 
   @Test
@@ -37,8 +46,9 @@ class BookSynchronizationListenerTest {
 
     cut.consumeBookUpdates(bookSynchronization);
 
-    verifyNoInteractions(openLibraryApiClient);
+    verifyNoInteractions(openLibraryApiClient, applicationEventPublisher, bookCatalogVersion);
     verify(bookRepository, times(0)).save(ArgumentMatchers.any());
+    assertEquals(1, synchronizations("duplicate"));
   }
 
   @Test
@@ -49,6 +59,7 @@ class BookSynchronizationListenerTest {
         .thenThrow(new RuntimeException("Network timeout"));
 
     assertThrows(RuntimeException.class, () -> cut.consumeBookUpdates(bookSynchronization));
+    assertEquals(1, synchronizations("failed"));
   }
 
   @Test
@@ -77,5 +88,35 @@ class BookSynchronizationListenerTest {
     Book methodArgument = bookArgumentCaptor.getValue();
     assertEquals("Java book", methodArgument.getTitle());
     assertEquals(VALID_ISBN, methodArgument.getIsbn());
+    assertEquals(1, synchronizations("stored"));
+    verify(applicationEventPublisher).publishEvent(new BookStoredEvent(requestedBook));
+    verify(bookCatalogVersion).increment();
+  }
+
+  @Test
+  void shouldPointThumbnailUrlAtProxyAndKeepSourceOfCover() {
+    BookSynchronization bookSynchronization = new BookSynchronization(VALID_ISBN);
+    when(bookRepository.findByIsbn(VALID_ISBN)).thenReturn(null);
+
+    Book requestedBook = new Book();
+    requestedBook.setTitle("Java book");
+    requestedBook.setIsbn(VALID_ISBN);
+    requestedBook.setThumbnailUrl("https://covers.openlibrary.org/b/id/388761-S.jpg");
+
+    when(openLibraryApiClient.fetchMetadataForBook(VALID_ISBN)).thenReturn(requestedBook);
+    when(bookRepository.save(ArgumentMatchers.any())).then(invocation -> invocation.getArgument(0));
+
+    cut.consumeBookUpdates(bookSynchronization);
+
+    verify(bookRepository).save(bookArgumentCaptor.capture());
+
+    Book methodArgument = bookArgumentCaptor.getValue();
+    assertEquals("/api/books/" + VALID_ISBN + "/thumbnail", methodArgument.getThumbnailUrl());
+    assertEquals(
+        "https://covers.openlibrary.org/b/id/388761-S.jpg", methodArgument.getThumbnailSourceUrl());
+  }
+
+  private long synchronizations(String outcome) {
+    return meterRegistry.get("book.synchronization").tag("outcome", outcome).timer().count();
   }
 }
@@ -0,0 +1,338 @@
+package de.rieckpil.courses.book.management;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.util.unit.DataSize;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@ExtendWith(MockitoExtension.class)
+class BookThumbnailCacheTest {
+
+  private static final byte[] COVER = {1, 2, 3, 4, 5, 6};
+  private static final byte[] OTHER_COVER = {6, 5, 4, 3, 2, 1};
+  private static final byte[] THIRD_COVER = {7, 7, 7, 7, 7, 7};
+  private static final Instant NOW = Instant.parse("2023-07-01T10:00:00Z");
+
+  @Mock private BookRepository bookRepository;
+
+  @TempDir private Path directory;
+
+  private final BookThumbnailProperties bookThumbnailProperties = new BookThumbnailProperties();
+
+  private final MutableClock clock = new MutableClock();
+
+  private MockRestServiceServer mockRestServiceServer;
+
+  private BookThumbnailCache cut;
+
+  @BeforeEach
+  void setUp() {
+    bookThumbnailProperties.setDirectory(directory);
+    createCut();
+  }
+
+  private void createCut() {
+    MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+    cut =
+        new BookThumbnailCache(
+            bookRepository, new RestTemplateBuilder(customizer), bookThumbnailProperties, clock);
+    mockRestServiceServer = customizer.getServer();
+  }
+
+  @Test
+  void shouldFetchCoverOnceAndStoreItUnderItsHash() throws IOException {
+    book("42", "https://covers.example.org/42.jpg");
+    mockRestServiceServer
+        .expect(ExpectedCount.once(), requestTo("https://covers.example.org/42.jpg"))
+        .andRespond(withSuccess(COVER, MediaType.IMAGE_JPEG));
+
+    BookThumbnailCache.Thumbnail first = cut.get("42").orElseThrow();
+    BookThumbnailCache.Thumbnail second = cut.get("42").orElseThrow();
+
+    assertEquals(first, second);
+    assertEquals("7192385c3c0605de55bb9476ce1d90748190ecb32a8eed7f5207b30cf6a1fe89", first.hash());
+    assertEquals(directory.resolve(first.hash()), first.file());
+    assertArrayEquals(COVER, Files.readAllBytes(first.file()));
+    assertEquals(MediaType.IMAGE_JPEG, first.contentType());
+    mockRestServiceServer.verify();
+  }
+
+  @Test
+  void shouldShareFileBetweenBooksWithSameCover() throws IOException {
+    book("42", "https://covers.example.org/42.jpg");
+    book("43", "https://covers.example.org/43.jpg");
+    mockRestServiceServer
+        .expect(requestTo("https://covers.example.org/42.jpg"))
+        .andRespond(withSuccess(COVER, MediaType.IMAGE_JPEG));
+    mockRestServiceServer
+        .expect(requestTo("https://covers.example.org/43.jpg"))
+        .andRespond(withSuccess(COVER, MediaType.IMAGE_JPEG));
+
+    assertEquals(cut.get("42").orElseThrow().file(), cut.get("43").orElseThrow().file());
+    assertEquals(COVER.length, cut.getSize());
+    try (var files = Files.list(directory)) {
+      assertEquals(1, files.count());
+    }
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyServedCoverWhenExceedingMaxSize() {
+    bookThumbnailProperties.setMaxSize(DataSize.ofBytes(COVER.length + OTHER_COVER.length - 1));
+    createCut();
+    book("42", "https://covers.example.org/42.jpg");
+    book("43", "https://covers.example.org/43.jpg");
+    mockRestServiceServer
+        .expect(ExpectedCount.twice(), requestTo("https://covers.example.org/42.jpg"))
+        .andRespond(withSuccess(COVER, MediaType.IMAGE_JPEG));
+    mockRestServiceServer
+        .expect(requestTo("https://covers.example.org/43.jpg"))
+        .andRespond(withSuccess(OTHER_COVER, MediaType.IMAGE_JPEG));
+
+    BookThumbnailCache.Thumbnail evicted = cut.get("42").orElseThrow();
+    clock.advance(BookThumbnailCache.PIN_DURATION);
+    cut.get("43").orElseThrow();
+
+    assertFalse(Files.exists(evicted.file()));
+    assertEquals(OTHER_COVER.length, cut.getSize());
+
+    // fetched again from the source
+    assertTrue(Files.exists(cut.get("42").orElseThrow().file()));
+    mockRestServiceServer.verify();
+  }
+
+  @Test
+  void shouldKeepFileOfEvictedCoverWhileItIsPinned() {
+    bookThumbnailProperties.setMaxSize(DataSize.ofBytes(COVER.length + OTHER_COVER.length - 1));
+    createCut();
+    book("42", "https://covers.example.org/42.jpg");
+    book("43", "https://covers.example.org/43.jpg");
+    book("44", "https://covers.example.org/44.jpg");
+    mockRestServiceServer
+        .expect(requestTo("https://covers.example.org/42.jpg"))
+        .andRespond(withSuccess(COVER, MediaType.IMAGE_JPEG));
+    mockRestServiceServer
+        .expect(requestTo("https://covers.example.org/43.jpg"))
+        .andRespond(withSuccess(OTHER_COVER, MediaType.IMAGE_JPEG));
+    mockRestServiceServer
+        .expect(requestTo("https://covers.example.org/44.jpg"))
+        .andRespond(withSuccess(THIRD_COVER, MediaType.IMAGE_JPEG));
+
+    BookThumbnailCache.Thumbnail served = cut.get("42").orElseThrow();
+    cut.get("43").orElseThrow();
+
+    // still to be read by the connector
+    assertTrue(Files.exists(served.file()));
+    assertEquals(OTHER_COVER.length, cut.getSize());
+
+    clock.advance(BookThumbnailCache.PIN_DURATION);
+    cut.get("44").orElseThrow();
+
+    assertFalse(Files.exists(served.file()));
+    mockRestServiceServer.verify();
+  }
+
+  @Test
+  void shouldTakeOverFilesOfPreviousRunAndRemoveUnfinishedDownloads() throws IOException {
+    Files.write(
+        directory.resolve("7192385c3c0605de55bb9476ce1d90748190ecb32a8eed7f5207b30cf6a1fe89"),
+        COVER);
+    Files.write(directory.resolve("thumbnail-1.download"), OTHER_COVER);
+
+    createCut();
+
+    assertEquals(COVER.length, cut.getSize());
+    assertFalse(Files.exists(directory.resolve("thumbnail-1.download")));
+  }
+
+  @Test
+  void shouldReturnNothingWhenBookHasNoCover() {
+    when(bookRepository.findByIsbn("42")).thenReturn(new Book());
+
+    assertEquals(Optional.empty(), cut.get("42"));
+    assertEquals(Optional.empty(), cut.get("43"));
+  }
+
+  @Test
+  void shouldReturnNothingWhenSourceFails() throws IOException {
+    book("42", "https://covers.example.org/42.jpg");
+    mockRestServiceServer
+        .expect(requestTo("https://covers.example.org/42.jpg"))
+        .andRespond(withServerError());
+
+    assertEquals(Optional.empty(), cut.get("42"));
+    assertEquals(0, cut.getSize());
+    try (var files = Files.list(directory)) {
+      assertEquals(0, files.count());
+    }
+  }
+
+  @Test
+  void shouldAnswerCoverAsMissingUntilRetryDelayPassed() {
+    book("42", "https://covers.example.org/42.jpg");
+    mockRestServiceServer
+        .expect(ExpectedCount.once(), requestTo("https://covers.example.org/42.jpg"))
+        .andRespond(withServerError());
+
+    assertEquals(Optional.empty(), cut.get("42"));
+    assertEquals(Optional.empty(), cut.get("42"));
+    verify(bookRepository, times(1)).findByIsbn("42");
+    mockRestServiceServer.verify();
+
+    mockRestServiceServer.reset();
+    mockRestServiceServer
+        .expect(requestTo("https://covers.example.org/42.jpg"))
+        .andRespond(withSuccess(COVER, MediaType.IMAGE_JPEG));
+    clock.advance(bookThumbnailProperties.getRetryDelay());
+
+    assertTrue(cut.get("42").isPresent());
+    mockRestServiceServer.verify();
+  }
+
+  @Test
+  void shouldFetchCoverOnceForConcurrentRequests() throws Exception {
+    book("42", "https://covers.example.org/42.jpg");
+    CountDownLatch fetching = new CountDownLatch(1);
+    CountDownLatch respond = new CountDownLatch(1);
+    mockRestServiceServer
+        .expect(ExpectedCount.once(), requestTo("https://covers.example.org/42.jpg"))
+        .andRespond(
+            request -> {
+              fetching.countDown();
+              try {
+                assertTrue(respond.await(5, TimeUnit.SECONDS));
+              } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+              }
+              return withSuccess(COVER, MediaType.IMAGE_JPEG).createResponse(request);
+            });
+
+    ExecutorService executorService = Executors.newFixedThreadPool(2);
+    try {
+      Future<Optional<BookThumbnailCache.Thumbnail>> first =
+          executorService.submit(() -> cut.get("42"));
+      assertTrue(fetching.await(5, TimeUnit.SECONDS));
+
+      AtomicReference<Thread> waiting = new AtomicReference<>();
+      Future<Optional<BookThumbnailCache.Thumbnail>> second =
+          executorService.submit(
+              () -> {
+                waiting.set(Thread.currentThread());
+                return cut.get("42");
+              });
+
+      // parked on the running fetch before it completes
+      await()
+          .atMost(5, TimeUnit.SECONDS)
+          .until(() -> waiting.get() != null && waiting.get().getState() == Thread.State.WAITING);
+      respond.countDown();
+
+      assertEquals(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+    } finally {
+      executorService.shutdownNow();
+    }
+
+    mockRestServiceServer.verify();
+  }
+
+  @Test
+  void shouldServeCoverFetchedBeforeRestartByTheHashStoredWithTheBook() {
+    Book book = book("42", "https://covers.example.org/42.jpg");
+    mockRestServiceServer
+        .expect(ExpectedCount.once(), requestTo("https://covers.example.org/42.jpg"))
+        .andRespond(withSuccess(COVER, MediaType.IMAGE_PNG));
+
+    BookThumbnailCache.Thumbnail fetched = cut.get("42").orElseThrow();
+    mockRestServiceServer.verify();
+
+    verify(bookRepository).updateThumbnail("42", fetched.hash(), MediaType.IMAGE_PNG_VALUE);
+    book.setThumbnailHash(fetched.hash());
+    book.setThumbnailContentType(MediaType.IMAGE_PNG_VALUE);
+
+    createCut();
+
+    assertEquals(fetched, cut.get("42").orElseThrow());
+    mockRestServiceServer.verify();
+  }
+
+  @Test
+  void shouldPrefetchCoverOfStoredBook() {
+    Book book = book("42", "https://covers.example.org/42.jpg");
+    mockRestServiceServer
+        .expect(ExpectedCount.once(), requestTo("https://covers.example.org/42.jpg"))
+        .andRespond(withSuccess(COVER, MediaType.IMAGE_JPEG));
+
+    cut.onBookStored(new BookStoredEvent(book));
+
+    assertEquals(COVER.length, cut.getSize());
+    mockRestServiceServer.verify();
+  }
+
+  private Book book(String isbn, String thumbnailSourceUrl) {
+    Book book = new Book();
+    book.setIsbn(isbn);
+    book.setThumbnailSourceUrl(thumbnailSourceUrl);
+    lenient().when(bookRepository.findByIsbn(isbn)).thenReturn(book);
+    return book;
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant instant = NOW;
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+
+    @Override
+    public ZoneOffset getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(java.time.ZoneId zone) {
+      return this;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package de.rieckpil.courses.book.management;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import de.rieckpil.courses.config.WebSecurityConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BookThumbnailController.class)
+@Import(WebSecurityConfig.class)
+@EnableConfigurationProperties(BookThumbnailProperties.class)
+class BookThumbnailControllerTest {
+
+  private static final String ISBN = "9780596004651";
+  private static final byte[] COVER = {1, 2, 3, 4, 5, 6};
+
+  @MockBean private BookThumbnailCache bookThumbnailCache;
+
+  @Autowired private MockMvc mockMvc;
+
+  @TempDir private Path directory;
+
+  private BookThumbnailCache.Thumbnail thumbnail;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Path file = Files.write(directory.resolve("cafe"), COVER);
+    thumbnail = new BookThumbnailCache.Thumbnail(file, COVER.length, MediaType.IMAGE_JPEG, "cafe");
+  }
+
+  @Test
+  void shouldServeCachedCoverWithLongLivedCacheHeadersToAnonymousUsers() throws Exception {
+    when(bookThumbnailCache.get(ISBN)).thenReturn(Optional.of(thumbnail));
+
+    this.mockMvc
+        .perform(get("/api/books/{isbn}/thumbnail", ISBN))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+        .andExpect(content().bytes(COVER))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=2592000, public"))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"cafe\""));
+  }
+
+  @Test
+  void shouldHandFileToContainerWhenItSupportsSendfile() throws Exception {
+    when(bookThumbnailCache.get(ISBN)).thenReturn(Optional.of(thumbnail));
+
+    this.mockMvc
+        .perform(
+            get("/api/books/{isbn}/thumbnail", ISBN)
+                .requestAttr(BookThumbnailController.SENDFILE_SUPPORTED, true))
+        .andExpect(status().isOk())
+        .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, COVER.length))
+        .andExpect(content().bytes(new byte[0]))
+        .andExpect(
+            request()
+                .attribute(
+                    BookThumbnailController.SENDFILE_FILENAME,
+                    thumbnail.file().toAbsolutePath().toString()))
+        .andExpect(request().attribute(BookThumbnailController.SENDFILE_START, 0L))
+        .andExpect(request().attribute(BookThumbnailController.SENDFILE_END, (long) COVER.length));
+  }
+
+  @Test
+  void shouldAnswerNotModifiedWhenClientHasCoverAlready() throws Exception {
+    when(bookThumbnailCache.get(ISBN)).thenReturn(Optional.of(thumbnail));
+
+    this.mockMvc
+        .perform(
+            get("/api/books/{isbn}/thumbnail", ISBN).header(HttpHeaders.IF_NONE_MATCH, "\"cafe\""))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  void shouldReturnNotFoundWhenBookHasNoCover() throws Exception {
+    when(bookThumbnailCache.get(ISBN)).thenReturn(Optional.empty());
+
+    this.mockMvc.perform(get("/api/books/{isbn}/thumbnail", ISBN)).andExpect(status().isNotFound());
+  }
+}
@@ -0,0 +1,88 @@
+package de.rieckpil.courses.book.management;
+
+import java.time.Duration;
+import java.util.Random;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import de.rieckpil.courses.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class BookThumbnailIT extends AbstractIntegrationTest {
+
+  private static final String ISBN = "9780596004651";
+
+  @Autowired private WebTestClient webTestClient;
+
+  @Autowired private BookRepository bookRepository;
+
+  @Autowired private WireMockServer wireMockServer;
+
+  @Test
+  void shouldFetchCoverOnceAndServeItFromDisk() {
+    // larger than a socket buffer, so a broken sendfile transfer would not go unnoticed
+    byte[] cover = new byte[256 * 1024];
+    new Random(42).nextBytes(cover);
+
+    Book book = new Book();
+    book.setIsbn(ISBN);
+    book.setTitle("Joyful testing with Spring Boot");
+    book.setThumbnailUrl(BookThumbnailController.thumbnailUrl(ISBN));
+    book.setThumbnailSourceUrl(openLibraryStubs.stubForCover("388761", cover));
+    bookRepository.save(book);
+
+    String eTag =
+        this.webTestClient
+            .get()
+            .uri("/api/books/{isbn}/thumbnail", ISBN)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.IMAGE_JPEG)
+            .expectHeader()
+            .cacheControl(CacheControl.maxAge(Duration.ofDays(30)).cachePublic())
+            .expectBody(byte[].class)
+            .consumeWith(result -> assertArrayEquals(cover, result.getResponseBody()))
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+
+    this.webTestClient
+        .get()
+        .uri("/api/books/{isbn}/thumbnail", ISBN)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(byte[].class)
+        .consumeWith(result -> assertArrayEquals(cover, result.getResponseBody()));
+
+    this.webTestClient
+        .get()
+        .uri("/api/books/{isbn}/thumbnail", ISBN)
+        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+        .exchange()
+        .expectStatus()
+        .isNotModified();
+
+    wireMockServer.verify(1, getRequestedFor(urlPathMatching("/openLibrary/covers/.*")));
+  }
+
+  @Test
+  void shouldReturnNotFoundForUnknownBook() {
+    this.webTestClient
+        .get()
+        .uri("/api/books/{isbn}/thumbnail", "1234567891234")
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+  }
+}
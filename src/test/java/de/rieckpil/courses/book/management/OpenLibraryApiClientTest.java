@@ -3,6 +3,7 @@ package de.rieckpil.courses.book.management;
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
@@ -21,6 +22,7 @@ import static org.junit.jupiter.api.Assertions.*;
 class OpenLibraryApiClientTest {
 
   private MockWebServer mockWebServer;
+  private SimpleMeterRegistry meterRegistry;
   private OpenLibraryApiClient cut;
 
   private static final String ISBN = "9780596004651";
@@ -55,12 +57,15 @@ class OpenLibraryApiClientTest {
     this.mockWebServer = new MockWebServer();
     this.mockWebServer.start();
 
+    this.meterRegistry = new SimpleMeterRegistry();
+
     this.cut =
         new OpenLibraryApiClient(
             WebClient.builder()
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .baseUrl(mockWebServer.url("/").toString())
-                .build());
+                .build(),
+            meterRegistry);
   }
 
   @AfterEach
@@ -186,5 +191,9 @@ class OpenLibraryApiClientTest {
 
     assertEquals("9780596004651", result.getIsbn());
     assertNull(result.getId());
+
+    assertEquals(2.0, meterRegistry.get("open.library.retries").counter().count());
+    assertEquals(
+        1, meterRegistry.get("open.library.requests").tag("status", "200").timer().count());
   }
 }
@@ -0,0 +1,82 @@
+package de.rieckpil.courses.book.management;
+
+import java.util.List;
+
+import de.rieckpil.courses.config.WebSecurityConfig;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest({BookController.class, ReactiveBookController.class})
+@Import(WebSecurityConfig.class)
+class ReactiveBookControllerTest {
+
+  @MockBean private ReactiveBookRepository reactiveBookRepository;
+
+  @MockBean private BookManagementService bookManagementService;
+
+  @MockBean private BookSuggestionIndex bookSuggestionIndex;
+
+  @MockBean private BookCatalogVersion bookCatalogVersion;
+
+  @Autowired private MockMvc mockMvc;
+
+  @Test
+  void shouldStreamBooksAsNewlineDelimitedJsonWhenClientAsksForIt() throws Exception {
+    when(reactiveBookRepository.findAll()).thenReturn(Flux.just(book("42"), book("43")));
+
+    MvcResult result =
+        this.mockMvc
+            .perform(get("/api/books").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+        .andExpect(content().string(Matchers.containsString("\"isbn\":\"42\"")))
+        .andExpect(content().string(Matchers.containsString("\"isbn\":\"43\"")))
+        .andExpect(content().string(Matchers.not(Matchers.containsString("\"id\""))));
+
+    verifyNoInteractions(bookManagementService);
+  }
+
+  @Test
+  void shouldKeepAnsweringJsonArrayWhenClientAcceptsAnything() throws Exception {
+    when(bookCatalogVersion.getETag()).thenReturn("\"abc-1-0\"");
+    when(bookManagementService.getAllBooks()).thenReturn(List.of(book("42")));
+
+    this.mockMvc
+        .perform(get("/api/books").accept(MediaType.ALL))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.size()", Matchers.is(1)));
+
+    verifyNoInteractions(reactiveBookRepository);
+  }
+
+  private Book book(String isbn) {
+    Book book = new Book();
+    book.setId(1L);
+    book.setIsbn(isbn);
+    book.setTitle("Java " + isbn);
+    return book;
+  }
+}
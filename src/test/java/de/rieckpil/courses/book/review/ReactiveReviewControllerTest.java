@@ -0,0 +1,115 @@
+package de.rieckpil.courses.book.review;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.rieckpil.courses.config.WebSecurityConfig;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest({ReviewController.class, ReactiveReviewController.class})
+@Import(WebSecurityConfig.class)
+class ReactiveReviewControllerTest {
+
+  @MockBean private ReactiveReviewService reactiveReviewService;
+
+  @MockBean private ReviewService reviewService;
+
+  @MockBean private ReviewModerationProperties reviewModerationProperties;
+
+  @MockBean private ReviewEventBroadcaster reviewEventBroadcaster;
+
+  @MockBean private ReviewListingVersion reviewListingVersion;
+
+  @Autowired private MockMvc mockMvc;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void shouldStreamReviewsAsNewlineDelimitedJsonWhenClientAsksForIt() throws Exception {
+    when(reactiveReviewService.getAllReviews(20, "none"))
+        .thenReturn(Flux.just(review(1L), review(2L)));
+
+    MvcResult result =
+        this.mockMvc
+            .perform(get("/api/books/reviews").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+        .andExpect(content().string("{\"reviewId\":1}\n{\"reviewId\":2}\n"));
+
+    verify(reviewService, never()).getAllReviews(anyInt(), anyString());
+  }
+
+  @Test
+  void shouldKeepAnsweringJsonArrayWhenClientDoesNotAskForStream() throws Exception {
+    when(reviewService.getAllReviews(20, "none"))
+        .thenReturn(objectMapper.createArrayNode().add(review(1L)));
+
+    this.mockMvc
+        .perform(get("/api/books/reviews").accept(MediaType.ALL))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.size()", Matchers.is(1)));
+
+    verifyNoInteractions(reactiveReviewService);
+  }
+
+  @Test
+  void shouldRejectStreamingStatisticsWhenClientIsNotAuthenticated() throws Exception {
+    this.mockMvc
+        .perform(get("/api/books/reviews/statistics").accept(MediaType.APPLICATION_NDJSON))
+        .andExpect(status().isUnauthorized());
+
+    verifyNoInteractions(reactiveReviewService);
+  }
+
+  @Test
+  void shouldStreamStatisticsWhenClientIsAuthenticated() throws Exception {
+    ObjectNode statistic = objectMapper.createObjectNode().put("bookId", 1).put("ratings", 2);
+    when(reactiveReviewService.getReviewStatistics()).thenReturn(Flux.just(statistic));
+
+    MvcResult result =
+        this.mockMvc
+            .perform(
+                get("/api/books/reviews/statistics")
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .with(jwt()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().string("{\"bookId\":1,\"ratings\":2}\n"));
+  }
+
+  private ObjectNode review(Long reviewId) {
+    return objectMapper.createObjectNode().put("reviewId", reviewId);
+  }
+}
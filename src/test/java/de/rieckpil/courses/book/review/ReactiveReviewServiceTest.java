@@ -0,0 +1,103 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveReviewServiceTest {
+
+  @Mock private ReactiveReviewRepository reactiveReviewRepository;
+
+  @Spy
+  private ReviewLeaderboard reviewLeaderboard =
+      new ReviewLeaderboard(new ReviewLeaderboardProperties());
+
+  @Spy
+  private ReviewPartitionProperties reviewPartitionProperties = new ReviewPartitionProperties();
+
+  @InjectMocks private ReactiveReviewService cut;
+
+  @Test
+  void shouldStreamRecentReviewsWhenWindowContainsEnough() {
+    when(reactiveReviewRepository.findLatestCreatedBetween(
+            ArgumentMatchers.any(), ArgumentMatchers.any(), eq(2)))
+        .thenReturn(Flux.just(review(2L), review(1L)));
+
+    List<ObjectNode> result = cut.getAllReviews(2, "none").collectList().block();
+
+    assertEquals(2, result.size());
+    assertEquals(2L, result.get(0).get("reviewId").asLong());
+    assertEquals("duke", result.get(0).get("submittedBy").asText());
+    verify(reactiveReviewRepository, never()).findLatest(anyInt());
+  }
+
+  @Test
+  void shouldLookThroughAllPartitionsWhenWindowContainsTooFewReviews() {
+    when(reactiveReviewRepository.findLatestCreatedBetween(
+            ArgumentMatchers.any(), ArgumentMatchers.any(), eq(2)))
+        .thenReturn(Flux.just(review(2L)));
+    when(reactiveReviewRepository.findLatest(2)).thenReturn(Flux.just(review(2L), review(1L)));
+
+    List<ObjectNode> result = cut.getAllReviews(2, "none").collectList().block();
+
+    assertEquals(2, result.size());
+  }
+
+  @Test
+  void shouldServeBestRatedReviewsFromLeaderboardOnceLoaded() {
+    reviewLeaderboard.replaceAll(
+        List.of(
+            new ReviewLeaderboard.Entry(
+                1L, 5, LocalDateTime.now(), ReviewService.mapReview(review(1L)))),
+        reviewLeaderboard.getVersion());
+
+    List<ObjectNode> result = cut.getAllReviews(5, "rating").collectList().block();
+
+    assertEquals(1, result.size());
+    verifyNoInteractions(reactiveReviewRepository);
+  }
+
+  @Test
+  void shouldQueryBestRatedReviewsUpToLeaderboardSizeWhileNotLoaded() {
+    when(reactiveReviewRepository.findBestRated(reviewLeaderboard.getSize()))
+        .thenReturn(Flux.just(review(1L)));
+
+    List<ObjectNode> result = cut.getAllReviews(100, "rating").collectList().block();
+
+    assertEquals(1, result.size());
+  }
+
+  private Review review(Long id) {
+    Book book = new Book();
+    book.setIsbn("42");
+    book.setTitle("Java 17");
+
+    User user = new User();
+    user.setName("duke");
+
+    Review review = new Review();
+    review.setId(id);
+    review.setTitle("Review " + id);
+    review.setContent("Content of review " + id);
+    review.setRating(5);
+    review.setCreatedAt(LocalDateTime.now());
+    review.setBook(book);
+    review.setUser(user);
+    return review;
+  }
+}
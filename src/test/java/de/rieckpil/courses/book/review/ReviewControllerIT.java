@@ -1,9 +1,13 @@
 package de.rieckpil.courses.book.review;
 
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
 import com.nimbusds.jose.JOSEException;
 import de.rieckpil.courses.AbstractIntegrationTest;
 import de.rieckpil.courses.book.management.Book;
 import de.rieckpil.courses.book.management.BookRepository;
+import de.rieckpil.courses.sql.MaxQueries;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +16,8 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 class ReviewControllerIT extends AbstractIntegrationTest {
 
   private static final String ISBN = "9780596004651";
@@ -37,6 +43,8 @@ class ReviewControllerIT extends AbstractIntegrationTest {
   }
 
   @Test
+  // user, review and its outbox event
+  @MaxQueries(select = 5, insert = 3)
   void shouldReturnCreatedReviewWhenBookExistsAndReviewHasGoodQuality() throws JOSEException {
 
     String reviewPayload =
@@ -80,6 +88,8 @@ class ReviewControllerIT extends AbstractIntegrationTest {
   }
 
   @Test
+  // user, review and its outbox event per review
+  @MaxQueries(select = 7, insert = 9)
   void shouldReturnReviewStatisticWhenMultipleReviewsForBookFromDifferentUsersExist()
       throws JOSEException {
 
@@ -151,4 +161,55 @@ class ReviewControllerIT extends AbstractIntegrationTest {
         .jsonPath("$[0].avg")
         .isEqualTo(4.00);
   }
+
+  @Test
+  void shouldStreamReviewsAndBooksOverR2dbcWhenClientAsksForNewlineDelimitedJson()
+      throws JOSEException {
+
+    this.webTestClient
+        .post()
+        .uri("/api/books/{isbn}/reviews", ISBN)
+        .header(HttpHeaders.AUTHORIZATION, "Bearer " + getSignedJWT())
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(
+            """
+        {
+          "reviewTitle" : "Great book with lots of tips & tricks",
+          "reviewContent" : "I can really recommend reading this book. It includes up-to-date library versions and real-world examples",
+          "rating": 4
+        }
+        """)
+        .exchange()
+        .expectStatus()
+        .isCreated();
+
+    List<JsonNode> reviews = streamNewlineDelimitedJson("/api/books/reviews");
+
+    assertEquals(1, reviews.size());
+    assertEquals(
+        "Great book with lots of tips & tricks", reviews.get(0).get("reviewTitle").asText());
+    assertEquals(ISBN, reviews.get(0).get("bookIsbn").asText());
+    assertEquals("duke", reviews.get(0).get("submittedBy").asText());
+
+    List<JsonNode> books = streamNewlineDelimitedJson("/api/books");
+
+    assertEquals(1, books.size());
+    assertEquals(ISBN, books.get(0).get("isbn").asText());
+  }
+
+  private List<JsonNode> streamNewlineDelimitedJson(String uri) {
+    return this.webTestClient
+        .get()
+        .uri(uri)
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+        .returnResult(JsonNode.class)
+        .getResponseBody()
+        .collectList()
+        .block();
+  }
 }
@@ -11,10 +11,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
@@ -29,6 +31,12 @@ class ReviewControllerTest {
 
   @MockBean private ReviewService reviewService;
 
+  @MockBean private ReviewModerationProperties reviewModerationProperties;
+
+  @MockBean private ReviewEventBroadcaster reviewEventBroadcaster;
+
+  @MockBean private ReviewListingVersion reviewListingVersion;
+
   @Autowired private MockMvc mockMvc;
 
   private ObjectMapper objectMapper;
@@ -59,6 +67,43 @@ class ReviewControllerTest {
         .andExpect(jsonPath("$.size()", Matchers.is(1)));
   }
 
+  @Test
+  void shouldAnswerNotModifiedWithoutLoadingReviewsWhenListingIsUnchanged() throws Exception {
+    when(reviewListingVersion.getETag()).thenReturn("\"abc-7-0\"");
+
+    this.mockMvc
+        .perform(get("/api/books/reviews").header(HttpHeaders.IF_NONE_MATCH, "\"abc-7-0\""))
+        .andExpect(status().isNotModified());
+
+    verifyNoInteractions(reviewService);
+  }
+
+  @Test
+  void shouldReturnReviewsTaggedWithNewVersionWhenListingChanged() throws Exception {
+    when(reviewListingVersion.getETag()).thenReturn("\"abc-8-0\"");
+    when(reviewService.getAllReviews(20, "none")).thenReturn(objectMapper.createArrayNode());
+
+    this.mockMvc
+        .perform(get("/api/books/reviews").header(HttpHeaders.IF_NONE_MATCH, "\"abc-7-0\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"abc-8-0\""));
+  }
+
+  @Test
+  void shouldStreamReviewEventsToUnauthenticatedUsersResumingFromLastEventId() throws Exception {
+    when(reviewEventBroadcaster.subscribe("k3x9-7")).thenReturn(new SseEmitter());
+
+    this.mockMvc
+        .perform(
+            get("/api/books/reviews/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", "k3x9-7"))
+        .andExpect(status().isOk())
+        .andExpect(request().asyncStarted());
+
+    verify(reviewEventBroadcaster).subscribe("k3x9-7");
+  }
+
   @Test
   void shouldNotReturnReviewStatisticsWhenUserIsUnauthenticated() throws Exception {
     this.mockMvc.perform(get("/api/books/reviews/statistics")).andExpect(status().isUnauthorized());
@@ -161,4 +206,51 @@ class ReviewControllerTest {
 
     verify(reviewService).deleteReview("42", 3L);
   }
+
+  @Test
+  void shouldAcceptNewBookReviewAndReturnStatusLocationWhenModerationIsAsync() throws Exception {
+
+    String requestBody =
+        """
+        {
+          "reviewTitle": "Great Java Book!",
+          "reviewContent": "I really like this book!",
+          "rating": 4
+        }
+      """;
+
+    when(reviewModerationProperties.isAsync()).thenReturn(true);
+    when(reviewService.submitBookReview(
+            eq("42"), any(BookReviewRequest.class), eq("duke"), endsWith("spring.io")))
+        .thenReturn(84L);
+
+    this.mockMvc
+        .perform(
+            post("/api/books/{isbn}/reviews", 42)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody)
+                .with(
+                    jwt()
+                        .jwt(
+                            builder ->
+                                builder
+                                    .claim("email", "duke@spring.io")
+                                    .claim("preferred_username", "duke"))))
+        .andExpect(status().isAccepted())
+        .andExpect(
+            header().string("Location", Matchers.containsString("/books/42/reviews/84/status")));
+
+    verify(reviewService, never()).createBookReview(any(), any(), any(), any());
+  }
+
+  @Test
+  void shouldReturnReviewStatusForAuthenticatedUser() throws Exception {
+    when(reviewService.getReviewStatus("42", 84L)).thenReturn(ReviewStatus.PENDING);
+
+    this.mockMvc
+        .perform(get("/api/books/{isbn}/reviews/{reviewId}/status", 42, 84).with(jwt()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.reviewId", Matchers.is(84)))
+        .andExpect(jsonPath("$.status", Matchers.is("PENDING")));
+  }
 }
@@ -0,0 +1,205 @@
+package de.rieckpil.courses.book.review;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReviewEventBroadcasterTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  /** Sends only run once the test calls {@link #runSenders()}. */
+  private final List<Runnable> pendingSends = new ArrayList<>();
+
+  private ReviewEventBroadcaster cut;
+
+  @BeforeEach
+  void setup() {
+    ReviewStreamProperties reviewStreamProperties = new ReviewStreamProperties();
+    reviewStreamProperties.setBufferSize(3);
+    reviewStreamProperties.setMaxSubscribers(2);
+    cut =
+        new ReviewEventBroadcaster(reviewStreamProperties, meterRegistry, pendingSends::add, "e1");
+  }
+
+  @Test
+  void shouldSendPublishedEventsToAllSubscribers() {
+    RecordingEmitter first = subscribe(null);
+    RecordingEmitter second = subscribe(null);
+
+    cut.onReviewPublished(new ReviewPublishedEvent(42L, review(42L)));
+    cut.onReviewDeleted(new ReviewDeletedEvent(42L, "42"));
+    runSenders();
+
+    assertEquals(List.of("review-created:e1-1", "review-deleted:e1-2"), first.sent);
+    assertEquals(first.sent, second.sent);
+    assertTrue(first.data.get(0).contains("\"reviewId\":42"), first.data.get(0));
+    assertTrue(first.data.get(1).contains("\"bookIsbn\":\"42\""), first.data.get(1));
+  }
+
+  @Test
+  void shouldDisconnectSubscriberFallingBehindWithoutAffectingOthers() {
+    RecordingEmitter slow = subscribe(null);
+    RecordingEmitter fast = subscribe(null);
+    runSenders();
+
+    // the sender stays stuck writing to the slow client while the fast one keeps up
+    publish(1);
+    Runnable stuckSend = pendingSends.remove(0);
+    runSenders();
+    for (int i = 0; i < 3; i++) {
+      publish(1);
+      runSenders();
+    }
+
+    assertEquals(4, fast.sent.size());
+    assertEquals(1, cut.getSubscriberCount());
+    assertEquals(1, meterRegistry.get("review.stream.evictions").counter().count());
+
+    stuckSend.run();
+
+    assertTrue(slow.completed);
+    assertTrue(slow.sent.isEmpty());
+    assertFalse(fast.completed);
+  }
+
+  @Test
+  void shouldDropSubscriberWhoseConnectionFailed() {
+    RecordingEmitter broken = subscribe(null);
+    broken.failing = true;
+
+    publish(1);
+    runSenders();
+
+    assertEquals(0, cut.getSubscriberCount());
+  }
+
+  @Test
+  void shouldReplayMissedEventsForReconnectingSubscriber() {
+    publish(3);
+
+    RecordingEmitter reconnected = subscribe("e1-1");
+    runSenders();
+
+    assertEquals(List.of("review-created:e1-2", "review-created:e1-3"), reconnected.sent);
+  }
+
+  @Test
+  void shouldResetSubscriberThatMissedMoreEventsThanRetained() {
+    publish(5);
+
+    RecordingEmitter reconnected = subscribe("e1-1");
+    runSenders();
+
+    assertEquals(List.of("reset:e1-5"), reconnected.sent);
+  }
+
+  @Test
+  void shouldResetSubscriberResumingFromAnotherInstance() {
+    publish(2);
+
+    RecordingEmitter otherInstance = subscribe("e0-1");
+    RecordingEmitter aheadOfThisInstance = subscribe("e1-7");
+    runSenders();
+
+    assertEquals(List.of("reset:e1-2"), otherInstance.sent);
+    assertEquals(List.of("reset:e1-2"), aheadOfThisInstance.sent);
+  }
+
+  @Test
+  void shouldRejectSubscribersBeyondLimit() {
+    subscribe(null);
+    subscribe(null);
+
+    assertThrows(ResponseStatusException.class, () -> subscribe(null));
+  }
+
+  @Test
+  void shouldSendHeartbeatAsComment() {
+    RecordingEmitter emitter = subscribe(null);
+
+    cut.sendHeartbeat();
+    runSenders();
+
+    assertEquals(List.of(":heartbeat"), emitter.data);
+  }
+
+  private RecordingEmitter subscribe(String lastEventId) {
+    RecordingEmitter emitter = new RecordingEmitter();
+    cut.subscribe(emitter, lastEventId);
+    return emitter;
+  }
+
+  private void publish(int times) {
+    for (int i = 0; i < times; i++) {
+      cut.onReviewPublished(new ReviewPublishedEvent((long) i, review(i)));
+    }
+  }
+
+  private void runSenders() {
+    List<Runnable> sends = new ArrayList<>(pendingSends);
+    pendingSends.clear();
+    sends.forEach(Runnable::run);
+  }
+
+  private ObjectNode review(long reviewId) {
+    ObjectNode review = objectMapper.createObjectNode();
+    review.put("reviewId", reviewId);
+    return review;
+  }
+
+  private static class RecordingEmitter extends SseEmitter {
+
+    private final List<String> sent = new ArrayList<>();
+    private final List<String> data = new ArrayList<>();
+    private boolean failing;
+    private boolean completed;
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      if (failing) {
+        throw new IOException("Broken pipe");
+      }
+
+      String event =
+          builder.build().stream()
+              .map(item -> item.getData().toString())
+              .collect(Collectors.joining());
+
+      String name = line(event, "event:");
+      if (name != null) {
+        sent.add(name + ":" + line(event, "id:"));
+      }
+      data.add(name == null ? event.trim() : line(event, "data:"));
+    }
+
+    @Override
+    public void complete() {
+      completed = true;
+    }
+
+    private static String line(String event, String field) {
+      return event
+          .lines()
+          .filter(line -> line.startsWith(field))
+          .map(line -> line.substring(field.length()))
+          .findFirst()
+          .orElse(null);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReviewLeaderboardTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.now();
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private ReviewLeaderboard cut;
+
+  @BeforeEach
+  void setup() {
+    ReviewLeaderboardProperties reviewLeaderboardProperties = new ReviewLeaderboardProperties();
+    reviewLeaderboardProperties.setSize(2);
+    cut = new ReviewLeaderboard(reviewLeaderboardProperties);
+  }
+
+  @Test
+  void shouldNotBeLoadedBeforeFirstReplace() {
+    assertFalse(cut.isLoaded());
+  }
+
+  @Test
+  void shouldOrderByRatingThenByNewestFirst() {
+    cut.replaceAll(List.of(), cut.getVersion());
+
+    cut.offer(entry(1, 3, NOW));
+    cut.offer(entry(2, 5, NOW.minusDays(1)));
+    cut.offer(entry(3, 5, NOW));
+
+    assertEquals(List.of(3L, 2L), reviewIds(cut.top(10)));
+    assertEquals(List.of(3L), reviewIds(cut.top(1)));
+  }
+
+  @Test
+  void shouldOnlyKeepTwiceTheSize() {
+    cut.replaceAll(List.of(), cut.getVersion());
+
+    for (int i = 1; i <= 10; i++) {
+      cut.offer(entry(i, i % 5 + 1, NOW));
+    }
+
+    // keeps 9, 4 (rated 5) and 8, 3 (rated 4), the next best-rated review 8 moves up
+    cut.remove(4L);
+
+    assertTrue(cut.isLoaded());
+    assertEquals(List.of(9L, 8L), reviewIds(cut.top(2)));
+  }
+
+  @Test
+  void shouldRequireReloadWhenDeletionsLeaveTooFewReviews() {
+    cut.replaceAll(
+        List.of(entry(1, 5, NOW), entry(2, 4, NOW), entry(3, 3, NOW), entry(4, 2, NOW)),
+        cut.getVersion());
+
+    cut.remove(1L);
+    cut.remove(2L);
+    assertTrue(cut.isLoaded());
+
+    cut.remove(3L);
+    assertFalse(cut.isLoaded());
+  }
+
+  @Test
+  void shouldStayLoadedWhenItHoldsAllReviews() {
+    cut.replaceAll(List.of(entry(1, 5, NOW), entry(2, 4, NOW)), cut.getVersion());
+
+    cut.remove(1L);
+
+    assertTrue(cut.isLoaded());
+    assertEquals(List.of(2L), reviewIds(cut.top(2)));
+  }
+
+  @Test
+  void shouldRejectReplaceRacingWithUpdates() {
+    long version = cut.getVersion();
+
+    cut.offer(entry(1, 5, NOW));
+
+    assertFalse(cut.replaceAll(List.of(), version));
+    assertFalse(cut.isLoaded());
+    assertTrue(cut.replaceAll(List.of(entry(1, 5, NOW)), cut.getVersion()));
+  }
+
+  private ReviewLeaderboard.Entry entry(long reviewId, int rating, LocalDateTime createdAt) {
+    ObjectNode review = objectMapper.createObjectNode().put("reviewId", reviewId);
+    return new ReviewLeaderboard.Entry(reviewId, rating, createdAt, review);
+  }
+
+  private static List<Long> reviewIds(List<ObjectNode> reviews) {
+    return reviews.stream().map(review -> review.get("reviewId").asLong()).toList();
+  }
+}
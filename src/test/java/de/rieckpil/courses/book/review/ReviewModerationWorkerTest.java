@@ -0,0 +1,68 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewModerationWorkerTest {
+
+  @Mock private ReviewService reviewService;
+
+  @Mock private ReviewRepository reviewRepository;
+
+  private ReviewModerationWorker cut;
+
+  @BeforeEach
+  void setup() {
+    ReviewModerationProperties reviewModerationProperties = new ReviewModerationProperties();
+    reviewModerationProperties.setBatchSize(2);
+    this.cut =
+        new ReviewModerationWorker(reviewService, reviewRepository, reviewModerationProperties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.cut.shutdown();
+  }
+
+  @Test
+  void shouldFinalizeAllPendingReviewsBatchByBatch() {
+    when(reviewRepository.findIdsByStatusAfter(ReviewStatus.PENDING, 0L, PageRequest.of(0, 2)))
+        .thenReturn(List.of(1L, 2L));
+    when(reviewRepository.findIdsByStatusAfter(ReviewStatus.PENDING, 2L, PageRequest.of(0, 2)))
+        .thenReturn(List.of(3L));
+    when(reviewRepository.findIdsByStatusAfter(ReviewStatus.PENDING, 3L, PageRequest.of(0, 2)))
+        .thenReturn(List.of());
+
+    cut.drainPendingReviews();
+
+    verify(reviewService).finalizeReview(1L);
+    verify(reviewService).finalizeReview(2L);
+    verify(reviewService).finalizeReview(3L);
+  }
+
+  @Test
+  void shouldContinueWithNextBatchWhenFinalizingReviewFails() {
+    when(reviewRepository.findIdsByStatusAfter(eq(ReviewStatus.PENDING), eq(0L), any()))
+        .thenReturn(List.of(1L, 2L));
+    when(reviewRepository.findIdsByStatusAfter(eq(ReviewStatus.PENDING), eq(2L), any()))
+        .thenReturn(List.of());
+    when(reviewService.finalizeReview(1L)).thenThrow(new IllegalStateException("Database down"));
+
+    cut.drainPendingReviews();
+
+    verify(reviewService).finalizeReview(2L);
+    verify(reviewRepository, times(2)).findIdsByStatusAfter(any(), any(), any());
+  }
+}
@@ -0,0 +1,185 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import de.rieckpil.courses.AbstractIntegrationTest;
+import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.BookRepository;
+import io.awspring.cloud.sqs.operations.SqsTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReviewOutboxIT extends AbstractIntegrationTest {
+
+  private static final String ISBN = "9780596004651";
+
+  @Autowired private WebTestClient webTestClient;
+
+  @Autowired private BookRepository bookRepository;
+
+  @Autowired private ReviewService reviewService;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private SqsTemplate sqsTemplate;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private SimpleMeterRegistry meterRegistry;
+
+  // relayed on demand, a scheduled relay would blow the statement budgets of the other tests
+  private ReviewOutboxRelay cut;
+
+  @BeforeEach
+  void setup() {
+    Book book = new Book();
+    book.setIsbn(ISBN);
+    book.setTitle("Joyful testing with Spring Boot");
+    book.setPublisher("Duke Inc.");
+    book.setAuthor("rieckpil");
+    book.setPages(42L);
+    book.setDescription("Writing unit and integration tests for Spring Boot applications");
+    book.setGenre("Software Development");
+    this.bookRepository.save(book);
+
+    ReviewOutboxProperties reviewOutboxProperties = new ReviewOutboxProperties();
+    reviewOutboxProperties.setQueue(REVIEW_EVENTS_QUEUE_NAME);
+
+    this.meterRegistry = new SimpleMeterRegistry();
+    this.cut =
+        new ReviewOutboxRelay(
+            jdbcTemplate, sqsTemplate, transactionManager, reviewOutboxProperties, meterRegistry);
+  }
+
+  @Test
+  void shouldRelayPublishedAndDeletedReviewsToQueue() throws Exception {
+    Long reviewId =
+        createReview(
+            "I can really recommend reading this book. It includes up-to-date library versions and real-world examples");
+
+    cut.relayPendingEvents();
+
+    Message<String> published = receiveEvent();
+    assertEquals(ReviewOutbox.REVIEW_PUBLISHED, eventType(published));
+    JsonNode review = objectMapper.readTree(published.getPayload());
+    assertEquals(reviewId, review.get("reviewId").asLong());
+    assertEquals(ISBN, review.get("bookIsbn").asText());
+
+    reviewService.deleteReview(ISBN, reviewId);
+    cut.relayPendingEvents();
+
+    Message<String> deleted = receiveEvent();
+    assertEquals(ReviewOutbox.REVIEW_DELETED, eventType(deleted));
+    JsonNode deletion = objectMapper.readTree(deleted.getPayload());
+    assertEquals(reviewId, deletion.get("reviewId").asLong());
+    assertEquals(ISBN, deletion.get("bookIsbn").asText());
+
+    assertEquals(0, countUnsentEvents());
+    assertEquals(
+        2, meterRegistry.get("review.outbox.events").tag("outcome", "sent").counter().count());
+    assertEquals(2, meterRegistry.get("review.outbox.lag").timer().count());
+  }
+
+  @Test
+  void shouldNotStoreEventWhenReviewIsRejected() throws JOSEException {
+    this.webTestClient
+        .post()
+        .uri("/api/books/{isbn}/reviews", ISBN)
+        .header(HttpHeaders.AUTHORIZATION, "Bearer " + getSignedJWT())
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(
+            """
+        {
+          "reviewTitle" : "Too short",
+          "reviewContent" : "Lorem ipsum",
+          "rating": 1
+        }
+        """)
+        .exchange()
+        .expectStatus()
+        .isEqualTo(HttpStatus.I_AM_A_TEAPOT);
+
+    assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM review_outbox", Long.class));
+  }
+
+  @Test
+  void shouldRelayMoreEventsThanFitIntoOneSendBatch() throws Exception {
+    for (int i = 0; i < ReviewOutboxRelay.SEND_BATCH_SIZE + 2; i++) {
+      createReview(
+          "Review number " + i + " with enough words to meet the quality standards of the shop");
+    }
+
+    cut.relayPendingEvents();
+
+    int received = 0;
+    List<Message<String>> messages;
+    while (!(messages = receiveEvents()).isEmpty()) {
+      received += messages.size();
+    }
+
+    assertEquals(ReviewOutboxRelay.SEND_BATCH_SIZE + 2, received);
+    assertEquals(0, countUnsentEvents());
+  }
+
+  private Long createReview(String content) throws JOSEException {
+    String location =
+        this.webTestClient
+            .post()
+            .uri("/api/books/{isbn}/reviews", ISBN)
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + getSignedJWT())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(Map.of("reviewTitle", "Great book", "reviewContent", content, "rating", 4))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .returnResult(Void.class)
+            .getResponseHeaders()
+            .getLocation()
+            .getPath();
+
+    return Long.valueOf(location.substring(location.lastIndexOf('/') + 1));
+  }
+
+  private Message<String> receiveEvent() {
+    return sqsTemplate
+        .receive(from -> from.queue(REVIEW_EVENTS_QUEUE_NAME), String.class)
+        .orElseThrow();
+  }
+
+  private List<Message<String>> receiveEvents() {
+    return List.copyOf(
+        sqsTemplate.receiveMany(
+            from ->
+                from.queue(REVIEW_EVENTS_QUEUE_NAME)
+                    .maxNumberOfMessages(10)
+                    .pollTimeout(Duration.ofSeconds(1)),
+            String.class));
+  }
+
+  private String eventType(Message<String> message) {
+    return message.getHeaders().get(ReviewOutboxRelay.EVENT_TYPE_HEADER, String.class);
+  }
+
+  private long countUnsentEvents() {
+    return jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM review_outbox WHERE sent_at IS NULL", Long.class);
+  }
+}
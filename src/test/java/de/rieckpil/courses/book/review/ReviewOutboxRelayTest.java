@@ -0,0 +1,155 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import de.rieckpil.courses.book.review.ReviewOutboxRelay.OutboxEvent;
+import io.awspring.cloud.sqs.operations.SendBatchOperationFailedException;
+import io.awspring.cloud.sqs.operations.SendResult;
+import io.awspring.cloud.sqs.operations.SqsTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.messaging.Message;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewOutboxRelayTest {
+
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  @Mock private SqsTemplate sqsTemplate;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @Captor private ArgumentCaptor<Collection<Message<String>>> batches;
+
+  @Captor private ArgumentCaptor<List<Object[]>> rows;
+
+  private final ReviewOutboxProperties reviewOutboxProperties = new ReviewOutboxProperties();
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private ReviewOutboxRelay cut;
+
+  @BeforeEach
+  void setUp() {
+    reviewOutboxProperties.setBatchSize(12);
+    cut =
+        new ReviewOutboxRelay(
+            jdbcTemplate, sqsTemplate, transactionManager, reviewOutboxProperties, meterRegistry);
+  }
+
+  @Test
+  void shouldSendEventsInBatchesOfTenAndMarkThemSent() {
+    whenLockingUnsentEvents().thenReturn(events(12));
+    when(sqsTemplate.<String>sendMany(eq("review-events"), ArgumentMatchers.any()))
+        .thenAnswer(invocation -> allSuccessful(invocation.getArgument(1)));
+
+    assertEquals(12, cut.relayBatch());
+
+    verify(sqsTemplate, times(2)).sendMany(eq("review-events"), batches.capture());
+    assertEquals(List.of(10, 2), batches.getAllValues().stream().map(Collection::size).toList());
+
+    assertEquals(12, markedSentRows().size());
+    assertEquals(12, sentCount("sent"));
+    assertEquals(12, meterRegistry.get("review.outbox.lag").timer().count());
+  }
+
+  @Test
+  void shouldLeaveEventsUnsentWhenQueueRejectsThem() {
+    whenLockingUnsentEvents().thenReturn(events(2));
+    when(sqsTemplate.<String>sendMany(eq("review-events"), ArgumentMatchers.any()))
+        .thenAnswer(
+            invocation -> {
+              List<Message<String>> messages = new ArrayList<>(invocation.getArgument(1));
+              SendResult.Batch<String> batch =
+                  new SendResult.Batch<>(
+                      List.of(sendResult(messages.get(0))),
+                      List.of(
+                          new SendResult.Failed<>(
+                              "throttled", "review-events", messages.get(1), Map.of())));
+              throw new SendBatchOperationFailedException("failed", "review-events", batch);
+            });
+
+    assertEquals(0, cut.relayBatch());
+
+    List<Object[]> markedSent = markedSentRows();
+    assertEquals(1, markedSent.size());
+    assertEquals(1L, markedSent.get(0)[1]);
+    assertEquals(1, sentCount("sent"));
+    assertEquals(1, sentCount("failed"));
+  }
+
+  @Test
+  void shouldKeepRelayingWhileBatchesAreFull() {
+    reviewOutboxProperties.setBatchSize(2);
+    whenLockingUnsentEvents().thenReturn(events(2)).thenReturn(events(1));
+    when(sqsTemplate.<String>sendMany(eq("review-events"), ArgumentMatchers.any()))
+        .thenAnswer(invocation -> allSuccessful(invocation.getArgument(1)));
+
+    cut.relayPendingEvents();
+
+    verify(sqsTemplate, times(2)).sendMany(eq("review-events"), ArgumentMatchers.any());
+    assertEquals(3, sentCount("sent"));
+  }
+
+  private OngoingStubbing<List<OutboxEvent>> whenLockingUnsentEvents() {
+    return when(
+        jdbcTemplate.query(
+            anyString(),
+            ArgumentMatchers.<RowMapper<OutboxEvent>>any(),
+            eq(reviewOutboxProperties.getBatchSize())));
+  }
+
+  private List<Object[]> markedSentRows() {
+    verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+    return rows.getValue();
+  }
+
+  private double sentCount(String outcome) {
+    return meterRegistry.get("review.outbox.events").tag("outcome", outcome).counter().count();
+  }
+
+  private static List<OutboxEvent> events(int count) {
+    return LongStream.rangeClosed(1, count)
+        .mapToObj(
+            id ->
+                new OutboxEvent(
+                    id,
+                    ReviewOutbox.REVIEW_PUBLISHED,
+                    "{\"reviewId\":" + id + "}",
+                    LocalDateTime.now().minusSeconds(1)))
+        .toList();
+  }
+
+  private static SendResult.Batch<String> allSuccessful(Collection<Message<String>> messages) {
+    return new SendResult.Batch<>(
+        messages.stream().map(ReviewOutboxRelayTest::sendResult).toList(), List.of());
+  }
+
+  private static SendResult<String> sendResult(Message<String> message) {
+    return new SendResult<>(UUID.randomUUID(), "review-events", message, Map.of());
+  }
+}
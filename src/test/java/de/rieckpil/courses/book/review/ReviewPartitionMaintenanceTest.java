@@ -0,0 +1,105 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReviewPartitionMaintenance.class)
+@EnableConfigurationProperties(ReviewPartitionProperties.class)
+class ReviewPartitionMaintenanceTest {
+
+  @Container
+  static PostgreSQLContainer<?> container =
+      new PostgreSQLContainer<>("postgres:15.3")
+          .withDatabaseName("test")
+          .withUsername("duke")
+          .withPassword("s3cret");
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", container::getJdbcUrl);
+    registry.add("spring.datasource.password", container::getPassword);
+    registry.add("spring.datasource.username", container::getUsername);
+  }
+
+  @Autowired private ReviewPartitionMaintenance cut;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void shouldCreateMissingPartitionsOnlyOnce() {
+    LocalDate threeMonthsAgo = LocalDate.now().minusMonths(3);
+
+    List<String> created = cut.createPartitions(threeMonthsAgo);
+
+    assertEquals(3, created.size(), "only the past months are missing: " + created);
+    assertTrue(created.contains(partitionOf(threeMonthsAgo)));
+    assertTrue(cut.createPartitions(threeMonthsAgo).isEmpty());
+  }
+
+  @Test
+  void shouldMoveReviewsCaughtByTheDefaultPartitionIntoTheirNewPartition() {
+    LocalDate sixMonthsAgo = LocalDate.now().minusMonths(6);
+    insertReview(sixMonthsAgo.atStartOfDay());
+
+    List<String> created = cut.createPartitions(sixMonthsAgo);
+
+    assertTrue(created.contains(partitionOf(sixMonthsAgo)), "missing partition: " + created);
+    assertEquals(
+        1,
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM " + partitionOf(sixMonthsAgo), Long.class));
+    assertEquals(
+        0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reviews_default", Long.class));
+    assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reviews", Long.class));
+  }
+
+  @Test
+  void shouldDetachPartitionsWithOnlyOldReviewsAndKeepTheirRows() {
+    LocalDate twoMonthsAgo = LocalDate.now().minusMonths(2);
+    cut.createPartitions(twoMonthsAgo);
+
+    insertReview(twoMonthsAgo.atStartOfDay());
+    insertReview(LocalDateTime.now());
+
+    List<String> detached =
+        cut.detachPartitionsCreatedBefore(LocalDate.now().withDayOfMonth(1).atStartOfDay());
+
+    assertEquals(
+        List.of(partitionOf(twoMonthsAgo), partitionOf(twoMonthsAgo.plusMonths(1))), detached);
+    assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reviews", Long.class));
+    assertEquals(
+        1,
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM " + partitionOf(twoMonthsAgo), Long.class));
+  }
+
+  private void insertReview(LocalDateTime createdAt) {
+    jdbcTemplate.update(
+        "INSERT INTO reviews (title, content, rating, created_at) VALUES ('Title', 'Content', 5, ?)",
+        createdAt);
+  }
+
+  private static String partitionOf(LocalDate month) {
+    return "reviews_y%04dm%02d".formatted(month.getYear(), month.getMonthValue());
+  }
+}
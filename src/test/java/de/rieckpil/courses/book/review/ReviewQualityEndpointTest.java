@@ -0,0 +1,53 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReviewQualityEndpointTest {
+
+  private ReviewVerifier reviewVerifier;
+  private ReviewQualityEndpoint cut;
+
+  @BeforeEach
+  void setup() {
+    reviewVerifier = new ReviewVerifier();
+    cut = new ReviewQualityEndpoint(reviewVerifier);
+  }
+
+  @Test
+  void shouldReplaceRulesWithTheOnesFromThePayload() {
+    List<String> ruleNames =
+        cut.update(
+            List.of(
+                Map.of("name", "no-spoilers", "type", "forbidden-phrase", "value", "the butler"),
+                Map.of("name", "too-short", "type", "min-words", "limit", 2)));
+
+    assertEquals(List.of("no-spoilers", "too-short"), ruleNames);
+    assertEquals(ruleNames, cut.rules());
+    assertFalse(reviewVerifier.doesMeetQualityStandards("Turns out the butler did it"));
+    assertTrue(reviewVerifier.doesMeetQualityStandards("Lorem ipsum dolor"));
+  }
+
+  @Test
+  void shouldKeepActiveRulesWhenPayloadIsInvalid() {
+    List<String> activeRules = cut.rules();
+
+    assertThrows(
+        InvalidEndpointRequestException.class,
+        () -> cut.update(List.of(Map.of("name", "too-short", "type", "min-words"))));
+    assertThrows(
+        InvalidEndpointRequestException.class,
+        () -> cut.update(List.of(Map.of("name", "unknown", "type", "max-words", "limit", 3))));
+
+    assertEquals(activeRules, cut.rules());
+  }
+}
@@ -0,0 +1,137 @@
+package de.rieckpil.courses.book.review;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import de.rieckpil.courses.fixture.DatabaseFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies with {@code EXPLAIN} that the review access paths are served by the indexes of {@code
+ * V005__ADD_REVIEW_INDEXES.sql} instead of sorting the whole table. Since {@code V006} every
+ * partition carries its own copy of these indexes, named after the partition.
+ *
+ * <p>The plans are taken on a catalog of realistic size, a year of one million reviews for 10k
+ * books, which is restored from a template database for every test.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DatabaseFixture(value = "large-catalog", scripts = "/scripts/INIT_LARGE_CATALOG.sql")
+class ReviewQueryPlanTest {
+
+  @Container
+  static PostgreSQLContainer<?> container =
+      new PostgreSQLContainer<>("postgres:15.3")
+          .withDatabaseName("test")
+          .withUsername("duke")
+          .withPassword("s3cret");
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", container::getJdbcUrl);
+    registry.add("spring.datasource.password", container::getPassword);
+    registry.add("spring.datasource.username", container::getUsername);
+  }
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void shouldListLatestReviewsFromIndexWithoutSorting() {
+    String plan =
+        explain(
+            "SELECT r.* FROM reviews r WHERE r.status = 'PUBLISHED' "
+                + "ORDER BY r.created_at DESC OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY");
+
+    assertTrue(plan.contains("_status_created_at_idx"), plan);
+    assertNoSort(plan);
+  }
+
+  @Test
+  void shouldListBestRatedReviewsFromIndexWithoutSorting() {
+    String plan =
+        explain(
+            "SELECT r.* FROM reviews r WHERE r.status = 'PUBLISHED' "
+                + "ORDER BY r.rating DESC, r.created_at DESC FETCH FIRST 5 ROWS ONLY");
+
+    assertTrue(plan.contains("_status_rating_created_at_idx"), plan);
+    assertNoSort(plan);
+  }
+
+  @Test
+  void shouldFindReviewOfBookByPrimaryKey() {
+    String plan =
+        explain(
+            "SELECT r.* FROM reviews r LEFT JOIN books b ON b.id = r.book_id "
+                + "WHERE r.id = 42 AND b.isbn = '0000000000042'");
+
+    assertTrue(plan.contains("_pkey on reviews_"), plan);
+  }
+
+  @Test
+  void shouldPagePendingReviewsFromPartialIndex() {
+    String plan =
+        explain(
+            "SELECT r.id FROM reviews r WHERE r.status = 'PENDING' AND r.id > 0 "
+                + "ORDER BY r.id FETCH FIRST 50 ROWS ONLY");
+
+    assertTrue(plan.contains("_id_idx on reviews_"), plan);
+    assertNoSort(plan);
+  }
+
+  @Test
+  void shouldBeAbleToAggregateStatisticsFromIndex() {
+    // aggregating nearly all rows is cheaper with a sequential scan, so only verify the index is
+    // applicable once the planner has to avoid it
+    jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+    String plan =
+        explain(
+            "SELECT id, ratings, isbn, avg FROM books JOIN "
+                + "(SELECT book_id, ROUND(AVG(rating), 2) AS avg, COUNT(*) ratings FROM reviews "
+                + "WHERE status = 'PUBLISHED' group by book_id) AS statistics "
+                + "ON statistics.book_id = id");
+
+    assertTrue(plan.contains("_book_id_status_rating_idx"), plan);
+    assertFalse(plan.contains("Seq Scan on reviews"), plan);
+  }
+
+  @Test
+  void shouldOnlyScanPartitionsWithinTheLatestReviewsWindow() {
+    LocalDateTime now = LocalDateTime.now();
+
+    String plan =
+        explain(
+            "SELECT r.* FROM reviews r WHERE r.status = 'PUBLISHED' "
+                + "AND r.created_at BETWEEN '%s' AND '%s' "
+                    .formatted(Timestamp.valueOf(now.minusDays(31)), Timestamp.valueOf(now))
+                + "ORDER BY r.created_at DESC OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY");
+
+    assertTrue(plan.contains(partitionOf(now)), plan);
+    assertFalse(plan.contains(partitionOf(now.plusMonths(1))), plan);
+  }
+
+  private static String partitionOf(LocalDateTime createdAt) {
+    return "reviews_y%04dm%02d".formatted(createdAt.getYear(), createdAt.getMonthValue());
+  }
+
+  private static void assertNoSort(String plan) {
+    assertFalse(plan.contains("Sort  ("), plan);
+  }
+
+  private String explain(String query) {
+    return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class));
+  }
+}
@@ -3,13 +3,13 @@ package de.rieckpil.courses.book.review;
 import java.math.BigDecimal;
 import java.util.List;
 
+import de.rieckpil.courses.fixture.DatabaseFixture;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
-import org.springframework.test.context.jdbc.Sql;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
@@ -38,7 +38,7 @@ class ReviewRepositoryNoInMemoryTest {
   @Autowired private ReviewRepository cut;
 
   @Test
-  @Sql(scripts = "/scripts/INIT_REVIEW_EACH_BOOK.sql")
+  @DatabaseFixture(value = "review-each-book", scripts = "/scripts/INIT_REVIEW_EACH_BOOK.sql")
   void shouldGetTwoReviewStatisticsWhenDatabaseContainsTwoBooksWithReview() {
 
     List<ReviewStatistic> result = cut.getReviewStatistics();
@@ -56,9 +56,12 @@ class ReviewRepositoryNoInMemoryTest {
           System.out.println("");
         });
 
-    assertEquals(2, result.get(0).getRatings());
-    assertEquals(2, result.get(0).getId());
-    assertEquals(new BigDecimal("3.00"), result.get(0).getAvg());
+    // the statistics are not ordered, the plan depends on the table statistics
+    ReviewStatistic secondBook =
+        result.stream().filter(statistic -> statistic.getId() == 2).findFirst().orElseThrow();
+
+    assertEquals(2, secondBook.getRatings());
+    assertEquals(new BigDecimal("3.00"), secondBook.getAvg());
   }
 
   @Test
@@ -1,16 +1,28 @@
 package de.rieckpil.courses.book.review;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import de.rieckpil.courses.book.management.Book;
 import de.rieckpil.courses.book.management.BookRepository;
 import de.rieckpil.courses.book.management.User;
 import de.rieckpil.courses.book.management.UserService;
+import de.rieckpil.courses.config.ETagProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,6 +38,21 @@ class ReviewServiceTest {
 
   @Mock private ReviewRepository reviewRepository;
 
+  @Mock private ApplicationEventPublisher applicationEventPublisher;
+
+  @Spy private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Spy
+  private ReviewPartitionProperties reviewPartitionProperties = new ReviewPartitionProperties();
+
+  @Spy
+  private ReviewLeaderboard reviewLeaderboard =
+      new ReviewLeaderboard(new ReviewLeaderboardProperties());
+
+  @Spy
+  private ReviewListingVersion reviewListingVersion =
+      new ReviewListingVersion(new ETagProperties());
+
   @InjectMocks private ReviewService cut;
 
   private static final String EMAIL = "duke@spring.io";
@@ -65,6 +92,8 @@ class ReviewServiceTest {
 
     // assert - then
     verify(reviewRepository, times(0)).save(ArgumentMatchers.any(Review.class));
+    assertEquals(
+        1, meterRegistry.get("review.creation").tag("outcome", "rejected").timer().count());
   }
 
   @Test
@@ -88,5 +117,167 @@ class ReviewServiceTest {
 
     Long expected = 42L;
     assertEquals(expected, result);
+    assertEquals(
+        1, meterRegistry.get("review.creation").tag("outcome", "accepted").timer().count());
+    verify(reviewLeaderboard).offer(argThat(entry -> entry.reviewId() == 42L));
+    assertEquals(1, reviewListingVersion.getVersion());
+    verify(applicationEventPublisher)
+        .publishEvent(
+            ArgumentMatchers.<Object>argThat(
+                event ->
+                    event instanceof ReviewPublishedEvent published
+                        && published.reviewId() == 42L));
+  }
+
+  @Test
+  void shouldStorePendingReviewWithoutVerificationWhenSubmitted() {
+
+    BookReviewRequest bookReviewRequest = new BookReviewRequest("Title", "BADCONTENT!", 1);
+
+    when(bookRepository.findByIsbn(ISBN)).thenReturn(new Book());
+    when(userService.getOrCreateUser(USERNAME, EMAIL)).thenReturn(new User());
+    when(reviewRepository.save(any(Review.class)))
+        .thenAnswer(
+            invocation -> {
+              Review reviewToSave = invocation.getArgument(0);
+              reviewToSave.setId(42L);
+              return reviewToSave;
+            });
+
+    Long result = cut.submitBookReview(ISBN, bookReviewRequest, USERNAME, EMAIL);
+
+    assertEquals(42L, result);
+    verify(reviewRepository).save(argThat(review -> review.getStatus() == ReviewStatus.PENDING));
+    verify(applicationEventPublisher).publishEvent(new ReviewSubmittedEvent(42L));
+    verifyNoInteractions(mockedReviewVerifier);
+  }
+
+  @Test
+  void shouldPublishPendingReviewWhenReviewQualityIsGood() {
+    Review review = review(42L, 4);
+    review.setContent("GOOD CONTENT!");
+    review.setStatus(ReviewStatus.PENDING);
+
+    when(reviewRepository.findByIdAndStatus(42L, ReviewStatus.PENDING))
+        .thenReturn(Optional.of(review));
+    when(mockedReviewVerifier.doesMeetQualityStandards("GOOD CONTENT!")).thenReturn(true);
+
+    assertEquals(ReviewStatus.PUBLISHED, cut.finalizeReview(42L));
+    assertEquals(ReviewStatus.PUBLISHED, review.getStatus());
+    verify(reviewLeaderboard).offer(argThat(entry -> entry.reviewId() == 42L));
+  }
+
+  @Test
+  void shouldRejectPendingReviewWhenReviewQualityIsBad() {
+    Review review = new Review();
+    review.setContent("BADCONTENT!");
+    review.setStatus(ReviewStatus.PENDING);
+
+    when(reviewRepository.findByIdAndStatus(42L, ReviewStatus.PENDING))
+        .thenReturn(Optional.of(review));
+    when(mockedReviewVerifier.doesMeetQualityStandards("BADCONTENT!")).thenReturn(false);
+
+    assertEquals(ReviewStatus.REJECTED, cut.finalizeReview(42L));
+    assertEquals(ReviewStatus.REJECTED, review.getStatus());
+    verify(reviewLeaderboard, never()).offer(any());
+    verify(applicationEventPublisher, never()).publishEvent(any(ReviewPublishedEvent.class));
+  }
+
+  @Test
+  void shouldOnlyQueryLatestPartitionsWhenTheyContainEnoughReviews() {
+    Review review = new Review();
+    review.setBook(new Book());
+    review.setUser(new User());
+    review.setCreatedAt(LocalDateTime.now());
+
+    when(reviewRepository.findAllByStatusAndCreatedAtBetweenOrderByCreatedAtDesc(
+            eq(ReviewStatus.PUBLISHED), any(), any(), any()))
+        .thenReturn(List.of(review));
+
+    assertEquals(1, cut.getAllReviews(1, "none").size());
+    verify(reviewRepository, never()).findAllByStatusOrderByCreatedAtDesc(any(), any());
+  }
+
+  @Test
+  void shouldQueryAllPartitionsWhenLatestReviewsAreNotEnough() {
+    when(reviewRepository.findAllByStatusAndCreatedAtBetweenOrderByCreatedAtDesc(
+            eq(ReviewStatus.PUBLISHED), any(), any(), any()))
+        .thenReturn(List.of());
+    when(reviewRepository.findAllByStatusOrderByCreatedAtDesc(eq(ReviewStatus.PUBLISHED), any()))
+        .thenReturn(List.of());
+
+    assertEquals(0, cut.getAllReviews(20, "none").size());
+    verify(reviewRepository).findAllByStatusOrderByCreatedAtDesc(eq(ReviewStatus.PUBLISHED), any());
+  }
+
+  @Test
+  void shouldQueryBestRatedReviewsUntilLeaderboardIsLoaded() {
+    when(reviewRepository.findAllByStatusOrderByRatingDescCreatedAtDesc(
+            ReviewStatus.PUBLISHED, PageRequest.of(0, 5)))
+        .thenReturn(List.of(review(1L, 5)));
+
+    assertEquals(1, cut.getAllReviews(20, "rating").size());
+  }
+
+  @Test
+  void shouldServeBestRatedReviewsFromLeaderboardOnceReconciled() {
+    when(reviewRepository.findAllByStatusOrderByRatingDescCreatedAtDesc(
+            ReviewStatus.PUBLISHED, PageRequest.of(0, 10)))
+        .thenReturn(List.of(review(1L, 5), review(2L, 3)));
+
+    cut.reconcileLeaderboard();
+
+    ArrayNode result = cut.getAllReviews(20, "rating");
+
+    assertEquals(2, result.size());
+    assertEquals(1L, result.get(0).get("reviewId").asLong());
+    verify(reviewRepository, times(1)).findAllByStatusOrderByRatingDescCreatedAtDesc(any(), any());
+  }
+
+  @Test
+  void shouldRemoveDeletedReviewFromLeaderboard() {
+    when(reviewRepository.deleteByIdAndBookIsbn(42L, ISBN)).thenReturn(1L);
+
+    cut.deleteReview(ISBN, 42L);
+
+    verify(reviewLeaderboard).remove(42L);
+    assertEquals(1, reviewListingVersion.getVersion());
+    verify(applicationEventPublisher).publishEvent(new ReviewDeletedEvent(42L, ISBN));
+  }
+
+  @Test
+  void shouldKeepLeaderboardWhenNothingGotDeleted() {
+    when(reviewRepository.deleteByIdAndBookIsbn(42L, ISBN)).thenReturn(0L);
+
+    cut.deleteReview(ISBN, 42L);
+
+    verify(reviewLeaderboard, never()).remove(any());
+    verify(reviewListingVersion, never()).increment();
+    verifyNoInteractions(applicationEventPublisher);
+  }
+
+  private static Review review(Long id, int rating) {
+    Review review = new Review();
+    review.setId(id);
+    review.setRating(rating);
+    review.setBook(new Book());
+    review.setUser(new User());
+    review.setCreatedAt(LocalDateTime.now());
+    return review;
+  }
+
+  @Test
+  void shouldLookUpSubmittedReviewsOnThePrimary() throws NoSuchMethodException {
+    AnnotationTransactionAttributeSource transactionAttributeSource =
+        new AnnotationTransactionAttributeSource();
+
+    for (String lookup : List.of("getReviewStatus", "getReviewById")) {
+      TransactionAttribute transactionAttribute =
+          transactionAttributeSource.getTransactionAttribute(
+              ReviewService.class.getMethod(lookup, String.class, Long.class), ReviewService.class);
+
+      // read-only transactions are routed to the replica
+      assertFalse(transactionAttribute.isReadOnly(), lookup);
+    }
   }
 }
@@ -2,6 +2,9 @@ package de.rieckpil.courses.book.review;
 
 import java.util.List;
 
+import de.rieckpil.courses.book.review.ReviewQualityProperties.Rule;
+import de.rieckpil.courses.book.review.ReviewQualityProperties.RuleType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
@@ -14,6 +17,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvFileSource;
 
 import static de.rieckpil.courses.book.review.RandomReviewParameterResolverExtension.RandomReview;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -108,4 +112,41 @@ class ReviewVerifierTest {
     Assertions.assertThat(List.of(1, 2, 3, 4, 5)).hasSizeBetween(1, 10);
     Assertions.assertThat(List.of(1, 2, 3, 4, 5)).contains(3).isNotEmpty();
   }
+
+  @Test
+  void shouldCountWordsLikeSplittingBySingleSpaces() {
+    String review = "one two three four five six seven eight nine ten";
+
+    assertFalse(reviewVerifier.doesMeetQualityStandards(review));
+    assertFalse(reviewVerifier.doesMeetQualityStandards(review + "   "));
+    assertTrue(reviewVerifier.doesMeetQualityStandards(" " + review));
+    assertTrue(reviewVerifier.doesMeetQualityStandards(review.replace("five", "five ")));
+  }
+
+  @Test
+  void shouldEvaluatePhraseRulesBeforeTokenizedRules() {
+    ReviewVerifier cut =
+        new ReviewVerifier(new ReviewQualityProperties(), new SimpleMeterRegistry());
+
+    assertEquals(
+        List.of("lorem-ipsum", "swear-word", "too-many-i", "too-many-good", "too-short"),
+        cut.getRuleNames());
+  }
+
+  @Test
+  void shouldApplyRulesWhenReloaded() {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    ReviewVerifier cut = new ReviewVerifier(new ReviewQualityProperties(), meterRegistry);
+
+    String review = "This book is pretty boring and I would not read it a second time";
+    assertTrue(cut.doesMeetQualityStandards(review));
+
+    cut.reload(List.of(new Rule("boring", RuleType.WORD_LIMIT, "BORING", 1)));
+
+    assertFalse(cut.doesMeetQualityStandards(review));
+    assertTrue(cut.doesMeetQualityStandards("Lorem ipsum"));
+    assertEquals(
+        1.0,
+        meterRegistry.get("review.quality.rejections").tag("rule", "boring").counter().count());
+  }
 }
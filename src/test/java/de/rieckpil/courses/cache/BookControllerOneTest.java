@@ -3,8 +3,10 @@ package de.rieckpil.courses.cache;
 import java.util.List;
 
 import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.BookCatalogVersion;
 import de.rieckpil.courses.book.management.BookController;
 import de.rieckpil.courses.book.management.BookManagementService;
+import de.rieckpil.courses.book.management.BookSuggestionIndex;
 import de.rieckpil.courses.config.WebSecurityConfig;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,6 +32,10 @@ class BookControllerOneTest {
 
   @MockBean private BookManagementService bookManagementService;
 
+  @MockBean private BookSuggestionIndex bookSuggestionIndex;
+
+  @MockBean private BookCatalogVersion bookCatalogVersion;
+
   @Autowired private MockMvc mockMvc;
 
   @Test
@@ -0,0 +1,130 @@
+package de.rieckpil.courses.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingJwtDecoderTest {
+
+  private static final Instant NOW = Instant.parse("2023-07-01T12:00:00Z");
+
+  private final JwtDecoder delegate = mock(JwtDecoder.class);
+
+  private MutableClock clock;
+  private CachingJwtDecoder cut;
+
+  @BeforeEach
+  void setup() {
+    clock = new MutableClock();
+    cut = new CachingJwtDecoder(delegate, 2, clock);
+  }
+
+  @Test
+  void shouldOnlyValidateReusedTokenOnce() {
+    Jwt jwt = jwt("first", NOW.plusSeconds(300));
+    when(delegate.decode("first")).thenReturn(jwt);
+
+    assertSame(jwt, cut.decode("first"));
+    assertSame(jwt, cut.decode("first"));
+
+    verify(delegate, times(1)).decode("first");
+  }
+
+  @Test
+  void shouldValidateTokenAgainOnceExpired() {
+    when(delegate.decode("first")).thenReturn(jwt("first", NOW.plusSeconds(300)));
+
+    cut.decode("first");
+    clock.advance(Duration.ofSeconds(300));
+    cut.decode("first");
+
+    verify(delegate, times(2)).decode("first");
+  }
+
+  @Test
+  void shouldNotCacheRejectedTokens() {
+    when(delegate.decode("forged")).thenThrow(new BadJwtException("Invalid signature"));
+
+    assertThrows(BadJwtException.class, () -> cut.decode("forged"));
+    assertThrows(BadJwtException.class, () -> cut.decode("forged"));
+
+    assertEquals(0, cut.size());
+  }
+
+  @Test
+  void shouldNotCacheTokensWithoutExpiration() {
+    when(delegate.decode("first")).thenReturn(jwt("first", null));
+
+    cut.decode("first");
+
+    assertEquals(0, cut.size());
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedTokenOnceFull() {
+    when(delegate.decode("first")).thenReturn(jwt("first", NOW.plusSeconds(300)));
+    when(delegate.decode("second")).thenReturn(jwt("second", NOW.plusSeconds(300)));
+    when(delegate.decode("third")).thenReturn(jwt("third", NOW.plusSeconds(300)));
+
+    cut.decode("first");
+    cut.decode("second");
+    cut.decode("first");
+    cut.decode("third");
+
+    assertEquals(2, cut.size());
+
+    cut.decode("first");
+    cut.decode("second");
+
+    verify(delegate, times(1)).decode("first");
+    verify(delegate, times(2)).decode("second");
+  }
+
+  private static Jwt jwt(String token, Instant expiresAt) {
+    return Jwt.withTokenValue(token)
+        .header("alg", "RS256")
+        .subject("duke")
+        .issuedAt(NOW)
+        .expiresAt(expiresAt)
+        .build();
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant instant = NOW;
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+
+    @Override
+    public ZoneOffset getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(java.time.ZoneId zone) {
+      return this;
+    }
+  }
+}
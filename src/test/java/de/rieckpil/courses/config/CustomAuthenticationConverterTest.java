@@ -0,0 +1,41 @@
+package de.rieckpil.courses.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CustomAuthenticationConverterTest {
+
+  private final CustomAuthenticationConverter cut = new CustomAuthenticationConverter();
+
+  @Test
+  void shouldPrefixRealmRolesWithRole() {
+    assertEquals(
+        List.of("ROLE_user", "ROLE_moderator"),
+        cut.convert(jwt("user", "moderator")).getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .toList());
+  }
+
+  @Test
+  void shouldShareAuthoritiesBetweenUsersWithSameRoles() {
+    GrantedAuthority first = cut.convert(jwt("moderator")).getAuthorities().iterator().next();
+    GrantedAuthority second = cut.convert(jwt("moderator")).getAuthorities().iterator().next();
+
+    assertSame(first, second);
+  }
+
+  private static Jwt jwt(String... roles) {
+    return Jwt.withTokenValue("token")
+        .header("alg", "RS256")
+        .subject("duke")
+        .claim("realm_access", Map.of("roles", List.of(roles)))
+        .build();
+  }
+}
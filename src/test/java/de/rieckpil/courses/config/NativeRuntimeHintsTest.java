@@ -0,0 +1,84 @@
+package de.rieckpil.courses.config;
+
+import java.lang.reflect.Method;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.BookSynchronization;
+import de.rieckpil.courses.book.management.BookSynchronizationListener;
+import de.rieckpil.courses.book.review.Review;
+import de.rieckpil.courses.book.review.ReviewStatistic;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeRuntimeHintsTest {
+
+  private final RuntimeHints hints = new RuntimeHints();
+
+  @BeforeEach
+  void registerHints() {
+    new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+  }
+
+  @Test
+  void shouldAllowHibernateToAccessEntityFields() throws NoSuchFieldException {
+    assertTrue(
+        RuntimeHintsPredicates.reflection()
+            .onField(Review.class.getDeclaredField("content"))
+            .test(hints));
+    assertTrue(RuntimeHintsPredicates.reflection().onType(Book.class).test(hints));
+  }
+
+  @Test
+  void shouldAllowBuildingJsonTrees() throws NoSuchMethodException {
+    assertTrue(
+        RuntimeHintsPredicates.reflection()
+            .onMethod(ObjectNode.class.getMethod("put", String.class, String.class))
+            .test(hints));
+  }
+
+  @Test
+  void shouldAllowProxyingTheStatisticsProjection() {
+    assertTrue(
+        RuntimeHintsPredicates.proxies()
+            .forInterfaces(
+                ReviewStatistic.class,
+                TargetAware.class,
+                SpringProxy.class,
+                Advised.class,
+                DecoratingProxy.class)
+            .test(hints));
+  }
+
+  @Test
+  void shouldAllowInvokingTheSqsListenerWithItsPayload() throws NoSuchMethodException {
+    Method listener =
+        BookSynchronizationListener.class.getMethod(
+            "consumeBookUpdates", BookSynchronization.class);
+
+    assertTrue(RuntimeHintsPredicates.reflection().onMethod(listener).test(hints));
+    assertTrue(
+        RuntimeHintsPredicates.reflection()
+            .onMethod(BookSynchronization.class.getMethod("isbn"))
+            .test(hints));
+  }
+
+  @Test
+  void shouldAllowNettyToIntrospectTimeoutHandlers() {
+    assertTrue(
+        RuntimeHintsPredicates.reflection()
+            .onType(ReadTimeoutHandler.class)
+            .withMemberCategory(MemberCategory.INTROSPECT_PUBLIC_METHODS)
+            .test(hints));
+  }
+}
@@ -0,0 +1,178 @@
+package de.rieckpil.courses.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestOperations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshingJwkSourceTest {
+
+  private static final String ISSUER = "http://localhost:8888/auth/realms/spring";
+  private static final String JWKS_URI = ISSUER + "/protocol/openid-connect/certs";
+
+  private final RestOperations restOperations = mock(RestOperations.class);
+  private final MutableClock clock = new MutableClock();
+
+  private RSAKey currentKey;
+  private RSAKey rotatedKey;
+  private RefreshingJwkSource cut;
+  private JwtDecoder jwtDecoder;
+
+  @BeforeEach
+  void setup() throws Exception {
+    currentKey = new RSAKeyGenerator(2048).keyID("current").generate();
+    rotatedKey = new RSAKeyGenerator(2048).keyID("rotated").generate();
+
+    when(restOperations.exchange(
+            eq(ISSUER + "/.well-known/openid-configuration"),
+            eq(HttpMethod.GET),
+            isNull(),
+            any(ParameterizedTypeReference.class)))
+        .thenReturn(ResponseEntity.ok(Map.of("issuer", ISSUER, "jwks_uri", JWKS_URI)));
+
+    cut = new RefreshingJwkSource(ISSUER, restOperations, new JwksProperties(), clock);
+
+    OAuth2ResourceServerProperties properties = new OAuth2ResourceServerProperties();
+    properties.getJwt().setIssuerUri(ISSUER);
+    jwtDecoder = new WebSecurityConfig().jwtDecoder(cut, properties);
+  }
+
+  @Test
+  void shouldVerifyTokensWithoutFetchingKeysOnceLoaded() throws Exception {
+    serveKeys(currentKey);
+    cut.refresh();
+
+    assertEquals("duke", jwtDecoder.decode(token(currentKey)).getSubject());
+    assertEquals("duke", jwtDecoder.decode(token(currentKey)).getSubject());
+
+    verify(restOperations, times(1)).getForObject(JWKS_URI, String.class);
+  }
+
+  @Test
+  void shouldReloadKeysRightAwayForTokenSignedWithRotatedKey() throws Exception {
+    serveKeys(currentKey);
+    cut.refresh();
+    clock.advance(Duration.ofMinutes(1));
+
+    serveKeys(currentKey, rotatedKey);
+
+    assertEquals("duke", jwtDecoder.decode(token(rotatedKey)).getSubject());
+    assertEquals(2, cut.getKeyCount());
+  }
+
+  @Test
+  void shouldNotReloadKeysMoreOftenThanMinRefreshIntervalForUnknownKeys() throws Exception {
+    serveKeys(currentKey);
+    cut.refresh();
+    clock.advance(Duration.ofSeconds(10));
+
+    String forged = token(new RSAKeyGenerator(2048).keyID("unknown").generate());
+
+    assertThrows(JwtException.class, () -> jwtDecoder.decode(forged));
+    assertThrows(JwtException.class, () -> jwtDecoder.decode(forged));
+
+    verify(restOperations, times(1)).getForObject(JWKS_URI, String.class);
+  }
+
+  @Test
+  void shouldKeepCurrentKeysWhenIssuerIsUnreachable() throws Exception {
+    serveKeys(currentKey);
+    cut.refresh();
+
+    when(restOperations.getForObject(JWKS_URI, String.class))
+        .thenThrow(new ResourceAccessException("Connection refused"));
+    cut.refresh();
+
+    assertEquals("duke", jwtDecoder.decode(token(currentKey)).getSubject());
+  }
+
+  @Test
+  void shouldNotTrustIssuerAnnouncingDifferentIssuer() {
+    when(restOperations.exchange(
+            eq(ISSUER + "/.well-known/openid-configuration"),
+            eq(HttpMethod.GET),
+            isNull(),
+            any(ParameterizedTypeReference.class)))
+        .thenReturn(ResponseEntity.ok(Map.of("issuer", "https://evil.com", "jwks_uri", JWKS_URI)));
+
+    cut.refresh();
+
+    assertEquals(0, cut.getKeyCount());
+  }
+
+  private void serveKeys(RSAKey... keys) {
+    when(restOperations.getForObject(JWKS_URI, String.class))
+        .thenReturn(new JWKSet(List.of(keys)).toString(true));
+  }
+
+  private String token(RSAKey key) throws Exception {
+    SignedJWT signedJwt =
+        new SignedJWT(
+            new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+            new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject("duke")
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                .build());
+    signedJwt.sign(new RSASSASigner(key));
+    return signedJwt.serialize();
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant instant = Instant.parse("2023-07-01T12:00:00Z");
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+  }
+}
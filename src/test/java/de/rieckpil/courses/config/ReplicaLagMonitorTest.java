@@ -0,0 +1,90 @@
+package de.rieckpil.courses.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaLagMonitorTest {
+
+  @Mock private JdbcTemplate replicaJdbcTemplate;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private ReplicaRoutingDataSource replicaRoutingDataSource;
+  private ReplicaLagMonitor cut;
+
+  @BeforeEach
+  void setup() {
+    ReadReplicaProperties readReplicaProperties = new ReadReplicaProperties();
+    readReplicaProperties.setMaxLag(Duration.ofSeconds(5));
+
+    this.replicaRoutingDataSource =
+        new ReplicaRoutingDataSource(mock(DataSource.class), mock(DataSource.class));
+    this.cut =
+        new ReplicaLagMonitor(
+            replicaJdbcTemplate, replicaRoutingDataSource, readReplicaProperties, meterRegistry);
+  }
+
+  @Test
+  void shouldKeepReplicaWhenLagIsWithinLimit() {
+    replicaReportsLag(1.5);
+
+    cut.checkReplicaLag();
+
+    assertTrue(replicaRoutingDataSource.isReplicaAvailable());
+    assertEquals(1.5, meterRegistry.get("datasource.replica.lag").gauge().value());
+  }
+
+  @Test
+  void shouldUsePrimaryWhileReplicaLagsBehind() {
+    replicaRoutingDataSource.setReplicaAvailable(true);
+    replicaReportsLag(30.0);
+
+    cut.checkReplicaLag();
+
+    assertFalse(replicaRoutingDataSource.isReplicaAvailable());
+  }
+
+  @Test
+  void shouldUseReplicaAgainOnceItCaughtUp() {
+    replicaReportsLag(0.0);
+
+    cut.checkReplicaLag();
+
+    assertTrue(replicaRoutingDataSource.isReplicaAvailable());
+  }
+
+  @Test
+  void shouldUsePrimaryWhenReplicaIsNotReachable() {
+    replicaRoutingDataSource.setReplicaAvailable(true);
+    when(replicaJdbcTemplate.queryForObject(anyString(), eq(Double.class)))
+        .thenThrow(new CannotGetJdbcConnectionException("Connection refused"));
+
+    cut.checkReplicaLag();
+
+    assertFalse(replicaRoutingDataSource.isReplicaAvailable());
+    assertTrue(Double.isNaN(meterRegistry.get("datasource.replica.lag").gauge().value()));
+  }
+
+  private void replicaReportsLag(Double lagSeconds) {
+    when(replicaJdbcTemplate.queryForObject(anyString(), eq(Double.class))).thenReturn(lagSeconds);
+  }
+}
@@ -0,0 +1,99 @@
+package de.rieckpil.courses.config;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+  private final DataSource primary = database("PRIMARY");
+  private final DataSource replica = database("REPLICA");
+
+  private ReplicaRoutingDataSource cut;
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate transactionTemplate;
+
+  @BeforeEach
+  void setup() {
+    initialize(primary, replica);
+  }
+
+  @Test
+  void shouldRouteReadOnlyTransactionsToReplica() {
+    assertEquals("REPLICA", currentDatabase(true));
+  }
+
+  @Test
+  void shouldRouteReadWriteTransactionsToPrimary() {
+    assertEquals("PRIMARY", currentDatabase(false));
+  }
+
+  @Test
+  void shouldUsePrimaryOutsideOfTransactions() {
+    assertEquals("PRIMARY", jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+  }
+
+  @Test
+  void shouldRouteReadOnlyTransactionsToPrimaryUntilReplicaWasChecked() {
+    assertFalse(new ReplicaRoutingDataSource(primary, replica).isReplicaAvailable());
+  }
+
+  @Test
+  void shouldRouteReadOnlyTransactionsToPrimaryWhileReplicaIsUnavailable() {
+    cut.setReplicaAvailable(false);
+
+    assertEquals("PRIMARY", currentDatabase(true));
+  }
+
+  @Test
+  void shouldFallBackToPrimaryWhenReplicaIsNotReachable() throws SQLException {
+    DataSource unreachableReplica = mock(DataSource.class);
+    when(unreachableReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+    initialize(primary, unreachableReplica);
+
+    assertEquals("PRIMARY", currentDatabase(true));
+    assertFalse(cut.isReplicaAvailable());
+  }
+
+  @Test
+  void shouldRouteToReplicaAgainOnceAvailable() {
+    cut.setReplicaAvailable(false);
+    cut.setReplicaAvailable(true);
+
+    assertTrue(cut.isReplicaAvailable());
+    assertEquals("REPLICA", currentDatabase(true));
+  }
+
+  private void initialize(DataSource primary, DataSource replica) {
+    this.cut = new ReplicaRoutingDataSource(primary, replica);
+    this.cut.setReplicaAvailable(true);
+    DataSource dataSource = new LazyConnectionDataSourceProxy(cut);
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.transactionTemplate =
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+  }
+
+  private String currentDatabase(boolean readOnly) {
+    transactionTemplate.setReadOnly(readOnly);
+    return transactionTemplate.execute(
+        status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+  }
+
+  private static DataSource database(String name) {
+    return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+  }
+}
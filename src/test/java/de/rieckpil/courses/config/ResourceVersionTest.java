@@ -0,0 +1,52 @@
+package de.rieckpil.courses.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResourceVersionTest {
+
+  private static final Instant NOW = Instant.parse("2023-07-01T12:00:00Z");
+
+  @Test
+  void shouldKeepETagUntilResourceChanges() {
+    ResourceVersion cut = versionAt(NOW);
+
+    String eTag = cut.getETag();
+    assertEquals(eTag, cut.getETag());
+    assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""), eTag);
+
+    cut.increment();
+
+    assertNotEquals(eTag, cut.getETag());
+  }
+
+  @Test
+  void shouldChangeETagOnceMaxStalenessPassed() {
+    String eTag = withoutInstance(versionAt(NOW));
+
+    assertEquals(eTag, withoutInstance(versionAt(NOW.plus(Duration.ofSeconds(30)))));
+    assertNotEquals(eTag, withoutInstance(versionAt(NOW.plus(Duration.ofMinutes(1)))));
+  }
+
+  @Test
+  void shouldNotRepeatETagsOfOtherInstances() {
+    assertNotEquals(versionAt(NOW).getETag(), versionAt(NOW).getETag());
+  }
+
+  private static String withoutInstance(ResourceVersion version) {
+    String eTag = version.getETag();
+    return eTag.substring(eTag.indexOf('-'));
+  }
+
+  private static ResourceVersion versionAt(Instant instant) {
+    return new ResourceVersion(new ETagProperties(), Clock.fixed(instant, ZoneOffset.UTC)) {};
+  }
+}
@@ -0,0 +1,31 @@
+package de.rieckpil.courses.fixture;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Restores a named dataset into the PostgreSQL test database before the test. The scripts run only
+ * once per database and JVM against the emptied schema, the result is kept as a template database
+ * that PostgreSQL copies file by file for every following test. After the test, the database is
+ * reset to the emptied schema.
+ *
+ * <p>Every restore recreates the test database and closes the pooled connections, so use it for
+ * repository tests rather than tests with background work on the database. A method annotation
+ * replaces the one of the class, {@code @Sql} scripts still run afterwards within the test.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface DatabaseFixture {
+
+  /** Name of the dataset, fixtures with the same name have to use the same scripts. */
+  String value();
+
+  /** Class path resources of the SQL scripts that populate the dataset. */
+  String[] scripts();
+}
@@ -0,0 +1,50 @@
+package de.rieckpil.courses.fixture;
+
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.TestContextAnnotationUtils;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+/**
+ * Applies {@link DatabaseFixture}, registered for every test in {@code META-INF/spring.factories}.
+ */
+public class DatabaseFixtureTestExecutionListener extends AbstractTestExecutionListener {
+
+  // after the dependency injection, before the test transaction takes a connection
+  private static final int ORDER = 3500;
+
+  @Override
+  public int getOrder() {
+    return ORDER;
+  }
+
+  @Override
+  public void beforeTestMethod(TestContext testContext) {
+    findFixture(testContext)
+        .ifPresent(fixture -> templatesOf(testContext).restore(fixture.value(), fixture.scripts()));
+  }
+
+  @Override
+  public void afterTestMethod(TestContext testContext) {
+    findFixture(testContext).ifPresent(fixture -> templatesOf(testContext).reset());
+  }
+
+  private Optional<DatabaseFixture> findFixture(TestContext testContext) {
+    return Optional.ofNullable(
+            AnnotatedElementUtils.findMergedAnnotation(
+                testContext.getTestMethod(), DatabaseFixture.class))
+        .or(
+            () ->
+                Optional.ofNullable(
+                    TestContextAnnotationUtils.findMergedAnnotation(
+                        testContext.getTestClass(), DatabaseFixture.class)));
+  }
+
+  private DatabaseTemplates templatesOf(TestContext testContext) {
+    return new DatabaseTemplates(testContext.getApplicationContext().getBean(DataSource.class));
+  }
+}
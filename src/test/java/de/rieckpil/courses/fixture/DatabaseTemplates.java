@@ -0,0 +1,187 @@
+package de.rieckpil.courses.fixture;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+/**
+ * Copies datasets between the test database and its template databases on the same PostgreSQL
+ * server, named {@code <test database>_<dataset>}. Copying a database is a file copy on the server
+ * and hardly depends on the amount of rows, unlike inserting them again.
+ */
+class DatabaseTemplates {
+
+  private static final Pattern POSTGRESQL_URL =
+      Pattern.compile("jdbc:(?:p6spy:)?(postgresql://[^/]+/)([^?]+)(.*)");
+
+  // PostgreSQL silently truncates longer identifiers
+  private static final int MAX_DATABASE_NAME_LENGTH = 63;
+
+  private static final String SCHEMA = "schema";
+
+  private static final String FIND_TABLES =
+      "SELECT string_agg(format('%I.%I', schemaname, tablename), ', ') FROM pg_tables "
+          + "WHERE schemaname = current_schema() AND tablename <> 'flyway_schema_history'";
+
+  // templates of previous runs may be outdated, so every JVM builds its own once
+  private static final Set<String> BUILT_TEMPLATES = ConcurrentHashMap.newKeySet();
+
+  private final HikariDataSource dataSource;
+  private final String serverUrl;
+  private final String database;
+  private final String parameters;
+
+  DatabaseTemplates(DataSource dataSource) {
+    try {
+      this.dataSource = dataSource.unwrap(HikariDataSource.class);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Database fixtures require a Hikari connection pool", e);
+    }
+
+    Matcher url = POSTGRESQL_URL.matcher(this.dataSource.getJdbcUrl());
+    if (!url.matches()) {
+      throw new IllegalStateException(
+          "Database fixtures require PostgreSQL, but got " + this.dataSource.getJdbcUrl());
+    }
+
+    this.serverUrl = "jdbc:" + url.group(1);
+    this.database = url.group(2);
+    this.parameters = url.group(3);
+  }
+
+  void restore(String dataset, String... scripts) {
+    String schemaTemplate = templateOf(SCHEMA);
+    if (BUILT_TEMPLATES.add(serverUrl + schemaTemplate)) {
+      build(schemaTemplate, database, true);
+    }
+
+    String datasetTemplate = templateOf(dataset);
+    if (BUILT_TEMPLATES.add(serverUrl + datasetTemplate)) {
+      build(datasetTemplate, schemaTemplate, false, scripts);
+    }
+
+    copy(datasetTemplate);
+  }
+
+  void reset() {
+    copy(templateOf(SCHEMA));
+  }
+
+  private String templateOf(String dataset) {
+    String template = (database + "_" + dataset).toLowerCase().replaceAll("[^a-z0-9_]+", "_");
+
+    if (template.length() > MAX_DATABASE_NAME_LENGTH) {
+      throw new IllegalArgumentException("Dataset name too long for a database name: " + dataset);
+    }
+
+    return template;
+  }
+
+  private void build(String template, String source, boolean truncate, String... scripts) {
+    try (Connection server = connect("postgres")) {
+      execute(server, "DROP DATABASE IF EXISTS " + template + " WITH (FORCE)");
+      createDatabase(server, template, source);
+    } catch (SQLException e) {
+      BUILT_TEMPLATES.remove(serverUrl + template);
+      throw new IllegalStateException("Failed to create template database " + template, e);
+    } finally {
+      evictConnections();
+    }
+
+    try (Connection connection = connect(template)) {
+      if (truncate) {
+        truncateTables(connection);
+      }
+
+      for (String script : scripts) {
+        ScriptUtils.executeSqlScript(
+            connection, new EncodedResource(new ClassPathResource(script), StandardCharsets.UTF_8));
+      }
+
+      // frozen rows don't have to be marked as visible again by the first reads of every copy,
+      // statistics are left to the scripts as they change the plans the tests get
+      execute(connection, "VACUUM (FREEZE)");
+    } catch (SQLException | RuntimeException e) {
+      BUILT_TEMPLATES.remove(serverUrl + template);
+      throw new IllegalStateException("Failed to populate template database " + template, e);
+    }
+  }
+
+  private void copy(String template) {
+    evictConnections();
+
+    try (Connection server = connect("postgres")) {
+      execute(server, "DROP DATABASE " + database + " WITH (FORCE)");
+      createDatabase(server, database, template);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to restore " + database + " from " + template, e);
+    } finally {
+      // connections the pool opened meanwhile point to the dropped database
+      evictConnections();
+    }
+  }
+
+  private void evictConnections() {
+    HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+    if (pool != null) {
+      pool.softEvictConnections();
+    }
+  }
+
+  private static void createDatabase(Connection server, String database, String template)
+      throws SQLException {
+    // a database can only be copied while nobody is connected to it, the pool reconnects otherwise
+    execute(server, "ALTER DATABASE " + template + " ALLOW_CONNECTIONS false");
+    try {
+      try (PreparedStatement statement =
+          server.prepareStatement(
+              "SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE datname = ?")) {
+        statement.setString(1, template);
+        statement.execute();
+      }
+
+      // copies the files instead of writing the whole database to the WAL, the default of 15
+      execute(
+          server, "CREATE DATABASE " + database + " TEMPLATE " + template + " STRATEGY FILE_COPY");
+    } finally {
+      execute(server, "ALTER DATABASE " + template + " ALLOW_CONNECTIONS true");
+    }
+  }
+
+  private static void truncateTables(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet tables = statement.executeQuery(FIND_TABLES)) {
+      if (tables.next() && tables.getString(1) != null) {
+        execute(connection, "TRUNCATE TABLE " + tables.getString(1) + " RESTART IDENTITY CASCADE");
+      }
+    }
+  }
+
+  // bypasses p6spy, statements of the fixtures don't count towards the test's budget
+  private Connection connect(String database) throws SQLException {
+    return DriverManager.getConnection(
+        serverUrl + database + parameters, dataSource.getUsername(), dataSource.getPassword());
+  }
+
+  private static void execute(Connection connection, String sql) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+}
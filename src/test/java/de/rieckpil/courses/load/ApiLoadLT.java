@@ -0,0 +1,365 @@
+package de.rieckpil.courses.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import de.rieckpil.courses.book.management.BookSynchronization;
+import de.rieckpil.courses.book.management.BookSynchronizationListener;
+import de.rieckpil.courses.initializer.DefaultBookStubsInitializer;
+import de.rieckpil.courses.initializer.RSAKeyGenerator;
+import de.rieckpil.courses.initializer.WireMockInitializer;
+import de.rieckpil.courses.stubs.OAuth2Stubs;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput and latency suite for the REST API, run with {@code ./mvnw -Ploadtests verify}.
+ *
+ * <p>The application runs against an in-memory H2 database and the WireMock stubs for OpenLibrary
+ * and the OAuth2 provider, so neither Docker nor external services are required. A fixed number of
+ * closed-loop workers pick a weighted random request from {@code loadtest.mix} until {@code
+ * loadtest.duration} is over. Latencies are recorded per endpoint in HdrHistograms and written
+ * together with the throughput to {@code loadtest.report}.
+ */
+@ActiveProfiles("integration-test")
+@ContextConfiguration(initializers = {WireMockInitializer.class, DefaultBookStubsInitializer.class})
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.flyway.enabled=false",
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "spring.datasource.url=jdbc:h2:mem:load-test;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "spring.cloud.aws.sqs.enabled=false",
+      "review.partitions.enabled=false",
+      "logging.level.de.rieckpil.courses=WARN"
+    })
+class ApiLoadLT {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ApiLoadLT.class);
+
+  private static final List<String> ISBNS =
+      List.of("9780321751041", "9780321160768", "9780596004651");
+
+  private static final String REVIEW =
+      """
+      {
+        "reviewTitle": "Great Java Book!",
+        "reviewContent": "This book helped me a lot to understand how to test Spring Boot applications properly.",
+        "rating": 4
+      }
+      """;
+
+  @LocalServerPort private int port;
+
+  @Value("${loadtest.concurrency:8}")
+  private int concurrency;
+
+  @Value("${loadtest.warmup:PT5S}")
+  private Duration warmup;
+
+  @Value("${loadtest.duration:PT30S}")
+  private Duration duration;
+
+  @Value("${loadtest.mix:books=40,reviews=30,statistics=15,create-review=15}")
+  private String mix;
+
+  @Value("${loadtest.report:target/load-test-report.txt}")
+  private Path report;
+
+  @Autowired private BookSynchronizationListener bookSynchronizationListener;
+
+  @Autowired private RSAKeyGenerator rsaKeyGenerator;
+
+  @Autowired private OAuth2Stubs oAuth2Stubs;
+
+  private final HttpClient httpClient =
+      HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+  private String token;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    ISBNS.forEach(
+        isbn -> bookSynchronizationListener.consumeBookUpdates(new BookSynchronization(isbn)));
+
+    token = createJWT(warmup.plus(duration).plusMinutes(5));
+
+    // creates the reviewing user upfront, concurrent first reviews would race for it
+    HttpResponse<Void> response =
+        httpClient.send(createReview(ISBNS.get(0)), HttpResponse.BodyHandlers.discarding());
+    assertEquals(201, response.statusCode(), "Unable to create the initial review");
+  }
+
+  @Test
+  void shouldServeMixedWorkload() throws Exception {
+    List<Workload> workloads = parseMix();
+
+    LOG.info("Warming up for {} with {} workers", warmup, concurrency);
+    run(workloads, warmup);
+    workloads.forEach(Workload::reset);
+
+    LOG.info("Measuring for {} with {} workers", duration, concurrency);
+    long start = System.nanoTime();
+    run(workloads, duration);
+    double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+    writeReport(workloads, elapsedSeconds);
+
+    for (Workload workload : workloads) {
+      assertEquals(
+          0, workload.failures.sum(), "Failed requests for " + workload.name + ", see " + report);
+    }
+  }
+
+  private void run(List<Workload> workloads, Duration runtime) throws Exception {
+    int totalWeight = workloads.stream().mapToInt(Workload::weight).sum();
+    long deadline = System.nanoTime() + runtime.toNanos();
+
+    ExecutorService executorService = Executors.newFixedThreadPool(concurrency);
+    try {
+      List<Future<?>> workers = new ArrayList<>();
+      for (int i = 0; i < concurrency; i++) {
+        workers.add(
+            executorService.submit(
+                () -> {
+                  while (System.nanoTime() < deadline) {
+                    pick(workloads, totalWeight).execute();
+                  }
+                }));
+      }
+      for (Future<?> worker : workers) {
+        worker.get();
+      }
+    } finally {
+      executorService.shutdown();
+      executorService.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  private Workload pick(List<Workload> workloads, int totalWeight) {
+    int value = ThreadLocalRandom.current().nextInt(totalWeight);
+    for (Workload workload : workloads) {
+      value -= workload.weight;
+      if (value < 0) {
+        return workload;
+      }
+    }
+    throw new IllegalStateException("Weights changed while picking a workload");
+  }
+
+  private List<Workload> parseMix() {
+    Map<String, Workload> available = new LinkedHashMap<>();
+    available.put("books", new Workload("GET /api/books", 200, isbn -> get("/api/books", false)));
+    available.put(
+        "reviews",
+        new Workload("GET /api/books/reviews", 200, isbn -> get("/api/books/reviews", false)));
+    available.put(
+        "statistics",
+        new Workload(
+            "GET /api/books/reviews/statistics",
+            200,
+            isbn -> get("/api/books/reviews/statistics", true)));
+    available.put(
+        "create-review", new Workload("POST /api/books/{isbn}/reviews", 201, this::createReview));
+
+    List<Workload> workloads = new ArrayList<>();
+    for (String entry : mix.split(",")) {
+      String[] nameAndWeight = entry.trim().split("=");
+      Workload workload = available.get(nameAndWeight[0].trim());
+      if (workload == null) {
+        throw new IllegalArgumentException(
+            "Unknown workload '" + nameAndWeight[0] + "', expected one of " + available.keySet());
+      }
+      workload.weight = Integer.parseInt(nameAndWeight[1].trim());
+      if (workload.weight > 0) {
+        workloads.add(workload);
+      }
+    }
+    return workloads;
+  }
+
+  private HttpRequest get(String path, boolean authenticated) {
+    HttpRequest.Builder builder =
+        HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET();
+    if (authenticated) {
+      builder.header("Authorization", "Bearer " + token);
+    }
+    return builder.build();
+  }
+
+  private HttpRequest createReview(String isbn) {
+    return HttpRequest.newBuilder(
+            URI.create("http://localhost:" + port + "/api/books/" + isbn + "/reviews"))
+        .header("Authorization", "Bearer " + token)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(REVIEW))
+        .build();
+  }
+
+  private void writeReport(List<Workload> workloads, double elapsedSeconds) throws IOException {
+    if (report.getParent() != null) {
+      Files.createDirectories(report.getParent());
+    }
+
+    try (PrintStream out = new PrintStream(Files.newOutputStream(report))) {
+      out.printf(
+          Locale.ROOT,
+          "Load test with %d workers for %.1fs after %s warmup, mix: %s%n%n",
+          concurrency,
+          elapsedSeconds,
+          warmup,
+          mix);
+      out.printf(
+          Locale.ROOT,
+          "%-36s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+          "endpoint",
+          "requests",
+          "failed",
+          "req/s",
+          "p50 ms",
+          "p90 ms",
+          "p99 ms",
+          "p99.9 ms",
+          "max ms");
+
+      for (Workload workload : workloads) {
+        Histogram histogram = workload.latencies;
+        out.printf(
+            Locale.ROOT,
+            "%-36s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+            workload.name,
+            histogram.getTotalCount(),
+            workload.failures.sum(),
+            histogram.getTotalCount() / elapsedSeconds,
+            millis(histogram.getValueAtPercentile(50)),
+            millis(histogram.getValueAtPercentile(90)),
+            millis(histogram.getValueAtPercentile(99)),
+            millis(histogram.getValueAtPercentile(99.9)),
+            millis(histogram.getMaxValue()));
+      }
+
+      for (Workload workload : workloads) {
+        out.printf("%n%s (latency in ms)%n", workload.name);
+        workload.latencies.outputPercentileDistribution(out, 1000.0);
+      }
+    }
+
+    LOG.info("Load test report written to {}", report.toAbsolutePath());
+  }
+
+  private static double millis(long micros) {
+    return micros / 1000.0;
+  }
+
+  private String createJWT(Duration validity) throws Exception {
+    JWSHeader header =
+        new JWSHeader.Builder(JWSAlgorithm.RS256)
+            .type(JOSEObjectType.JWT)
+            .keyID(RSAKeyGenerator.KEY_ID)
+            .build();
+
+    JWTClaimsSet payload =
+        new JWTClaimsSet.Builder()
+            .issuer(oAuth2Stubs.getIssuerUri())
+            .audience("account")
+            .subject("duke")
+            .claim("preferred_username", "duke")
+            .claim("email", "duke@spring.io")
+            .claim("scope", "openid email profile")
+            .claim("azp", "react-client")
+            .claim("realm_access", Map.of("roles", List.of()))
+            .expirationTime(Date.from(Instant.now().plus(validity)))
+            .issueTime(new Date())
+            .build();
+
+    SignedJWT signedJWT = new SignedJWT(header, payload);
+    signedJWT.sign(new RSASSASigner(rsaKeyGenerator.getPrivateKey()));
+    return signedJWT.serialize();
+  }
+
+  private final class Workload {
+
+    private final String name;
+    private final int expectedStatus;
+    private final Function<String, HttpRequest> request;
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final LongAdder failures = new LongAdder();
+    private int weight;
+
+    private Workload(String name, int expectedStatus, Function<String, HttpRequest> request) {
+      this.name = name;
+      this.expectedStatus = expectedStatus;
+      this.request = request;
+    }
+
+    int weight() {
+      return weight;
+    }
+
+    void execute() {
+      HttpRequest httpRequest =
+          request.apply(ISBNS.get(ThreadLocalRandom.current().nextInt(ISBNS.size())));
+
+      long start = System.nanoTime();
+      try {
+        HttpResponse<Void> response =
+            httpClient.send(httpRequest, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != expectedStatus) {
+          failures.increment();
+        }
+      } catch (IOException e) {
+        failures.increment();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+    }
+
+    void reset() {
+      latencies.reset();
+      failures.reset();
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package de.rieckpil.courses.sql;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Fails the test when its body issues more SQL statements of a kind than budgeted. Statements of
+ * {@code @BeforeEach}/{@code @AfterEach} methods are not counted, budgets that are not set are
+ * zero.
+ *
+ * <p>Only statements sent through the p6spy driver ({@code jdbc:p6spy:...}) are counted, and only
+ * those of the thread running the test (which covers MockMvc) or of requests the test sends through
+ * a {@code WebTestClient} of a context importing {@link SqlStatementRecordingConfiguration}.
+ * Annotate a single test method to get a per-request budget, annotate the class to apply the budget
+ * to every test.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@ExtendWith(MaxQueriesExtension.class)
+public @interface MaxQueries {
+
+  int select() default 0;
+
+  int insert() default 0;
+
+  int update() default 0;
+
+  int delete() default 0;
+}
@@ -0,0 +1,67 @@
+package de.rieckpil.courses.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.rieckpil.courses.sql.SqlStatementCounter.Kind;
+import de.rieckpil.courses.sql.SqlStatementCounter.Recording;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+public class MaxQueriesExtension
+    implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+  private static final ExtensionContext.Namespace NAMESPACE =
+      ExtensionContext.Namespace.create(MaxQueriesExtension.class);
+
+  @Override
+  public void beforeTestExecution(ExtensionContext extensionContext) {
+    extensionContext.getStore(NAMESPACE).put(Recording.class, SqlStatementCounter.start());
+  }
+
+  @Override
+  public void afterTestExecution(ExtensionContext extensionContext) {
+    Recording recording =
+        extensionContext.getStore(NAMESPACE).remove(Recording.class, Recording.class);
+    recording.stop();
+
+    if (extensionContext.getExecutionException().isPresent()) {
+      return;
+    }
+
+    MaxQueries maxQueries = findBudget(extensionContext);
+
+    List<String> violations = new ArrayList<>();
+    check(violations, recording, Kind.SELECT, maxQueries.select());
+    check(violations, recording, Kind.INSERT, maxQueries.insert());
+    check(violations, recording, Kind.UPDATE, maxQueries.update());
+    check(violations, recording, Kind.DELETE, maxQueries.delete());
+
+    if (!violations.isEmpty()) {
+      throw new AssertionError(
+          "SQL statement budget exceeded: "
+              + String.join(", ", violations)
+              + "\nExecuted statements:\n  "
+              + String.join("\n  ", recording.statements()));
+    }
+  }
+
+  private MaxQueries findBudget(ExtensionContext extensionContext) {
+    return AnnotationSupport.findAnnotation(
+            extensionContext.getRequiredTestMethod(), MaxQueries.class)
+        .or(
+            () ->
+                AnnotationSupport.findAnnotation(
+                    extensionContext.getRequiredTestClass(), MaxQueries.class))
+        .orElseThrow();
+  }
+
+  private void check(List<String> violations, Recording recording, Kind kind, int budget) {
+    long count = recording.count(kind);
+    if (count > budget) {
+      violations.add(kind + " " + count + " > " + budget);
+    }
+  }
+}
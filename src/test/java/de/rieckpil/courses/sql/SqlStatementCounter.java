@@ -0,0 +1,146 @@
+package de.rieckpil.courses.sql;
+
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+
+/**
+ * Counts the statements executed through p6spy by their kind. P6Spy picks this listener up via the
+ * {@link java.util.ServiceLoader}. Only statements of a thread taking part in a {@link Recording}
+ * are counted: the thread that started it, and request threads while they serve a request carrying
+ * the {@link #RECORDING_HEADER}. Work of other threads, like schedulers, listeners or tests running
+ * in parallel, never ends up in a budget.
+ */
+public class SqlStatementCounter extends SimpleJdbcEventListener {
+
+  /** Attributes the statements of a request to the recording of the test that sent it. */
+  public static final String RECORDING_HEADER = "X-Sql-Statement-Recording";
+
+  private static final int MAX_RECORDED_STATEMENTS = 100;
+
+  private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+  private static final Map<String, Recording> RECORDINGS = new ConcurrentHashMap<>();
+
+  public enum Kind {
+    SELECT,
+    INSERT,
+    UPDATE,
+    DELETE,
+    OTHER
+  }
+
+  @Override
+  public void onAfterAnyExecute(
+      StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+    Recording recording = CURRENT.get();
+    if (recording != null) {
+      recording.record(statementInformation.getSql());
+    }
+  }
+
+  /** Starts counting the statements of the calling thread until the recording is stopped. */
+  public static Recording start() {
+    Recording recording = new Recording(UUID.randomUUID().toString());
+    RECORDINGS.put(recording.getId(), recording);
+    CURRENT.set(recording);
+    return recording;
+  }
+
+  /** The recording of the calling thread, or {@code null} if its statements are not counted. */
+  public static Recording current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Counts the statements of the calling thread towards the recording with the given id until the
+   * returned scope is closed. Ids of stopped or unknown recordings are ignored.
+   */
+  public static Scope attach(String recordingId) {
+    Recording recording = recordingId == null ? null : RECORDINGS.get(recordingId);
+    if (recording == null) {
+      return () -> {};
+    }
+
+    Recording previous = CURRENT.get();
+    CURRENT.set(recording);
+    return () -> CURRENT.set(previous);
+  }
+
+  static Kind kindOf(String sql) {
+    String statement = sql == null ? "" : sql.stripLeading().toLowerCase(Locale.ROOT);
+
+    if (statement.startsWith("select") || statement.startsWith("with")) {
+      return Kind.SELECT;
+    } else if (statement.startsWith("insert")) {
+      return Kind.INSERT;
+    } else if (statement.startsWith("update")) {
+      return Kind.UPDATE;
+    } else if (statement.startsWith("delete")) {
+      return Kind.DELETE;
+    }
+
+    return Kind.OTHER;
+  }
+
+  public interface Scope extends AutoCloseable {
+
+    @Override
+    void close();
+  }
+
+  public static final class Recording {
+
+    private final String id;
+    private final Map<Kind, LongAdder> counts = new EnumMap<>(Kind.class);
+    private final Queue<String> statements = new ConcurrentLinkedQueue<>();
+
+    private Recording(String id) {
+      this.id = id;
+      for (Kind kind : Kind.values()) {
+        counts.put(kind, new LongAdder());
+      }
+    }
+
+    public String getId() {
+      return id;
+    }
+
+    public long count(Kind kind) {
+      return counts.get(kind).sum();
+    }
+
+    /** The first statements executed during the recording. */
+    public List<String> statements() {
+      return List.copyOf(statements);
+    }
+
+    /** Stops counting, also for requests that are still in flight. */
+    public void stop() {
+      RECORDINGS.remove(id);
+      if (CURRENT.get() == this) {
+        CURRENT.remove();
+      }
+    }
+
+    private void record(String sql) {
+      if (!RECORDINGS.containsKey(id)) {
+        return;
+      }
+
+      counts.get(kindOf(sql)).increment();
+      if (statements.size() < MAX_RECORDED_STATEMENTS) {
+        statements.add(sql);
+      }
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package de.rieckpil.courses.sql;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.p6spy.engine.common.StatementInformation;
+import de.rieckpil.courses.sql.SqlStatementCounter.Kind;
+import de.rieckpil.courses.sql.SqlStatementCounter.Recording;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SqlStatementCounterTest {
+
+  private final SqlStatementCounter cut = new SqlStatementCounter();
+
+  private Recording recording;
+
+  @BeforeEach
+  void setup() {
+    recording = SqlStatementCounter.start();
+  }
+
+  @AfterEach
+  void cleanUp() {
+    recording.stop();
+  }
+
+  @Test
+  void shouldOnlyCountStatementsOfTheRecordingThread() {
+    execute("SELECT 1");
+    CompletableFuture.runAsync(() -> execute("SELECT 2")).join();
+
+    assertEquals(1, recording.count(Kind.SELECT));
+  }
+
+  @Test
+  void shouldCountStatementsOfOtherThreadsWhileAttached() {
+    String recordingId = recording.getId();
+
+    CompletableFuture.runAsync(
+            () -> {
+              try (SqlStatementCounter.Scope scope = SqlStatementCounter.attach(recordingId)) {
+                execute("INSERT INTO books VALUES (1)");
+              }
+              assertNull(SqlStatementCounter.current());
+              execute("INSERT INTO books VALUES (2)");
+            })
+        .join();
+
+    assertEquals(1, recording.count(Kind.INSERT));
+  }
+
+  @Test
+  void shouldNotCountStatementsAfterRecordingStopped() {
+    String recordingId = recording.getId();
+    recording.stop();
+
+    execute("DELETE FROM books");
+    try (SqlStatementCounter.Scope scope = SqlStatementCounter.attach(recordingId)) {
+      execute("DELETE FROM books");
+    }
+
+    assertEquals(0, recording.count(Kind.DELETE));
+  }
+
+  private void execute(String sql) {
+    StatementInformation statementInformation = new StatementInformation(null);
+    statementInformation.setStatementQuery(sql);
+    cut.onAfterAnyExecute(statementInformation, 0, null);
+  }
+}
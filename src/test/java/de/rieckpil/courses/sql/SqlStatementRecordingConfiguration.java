@@ -0,0 +1,60 @@
+package de.rieckpil.courses.sql;
+
+import java.io.IOException;
+
+import de.rieckpil.courses.sql.SqlStatementCounter.Recording;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.reactive.server.WebTestClientBuilderCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+
+/**
+ * Attributes the statements of requests sent through the {@code WebTestClient} to the {@link
+ * MaxQueries} budget of the sending test, while the server handles them on its own threads.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlStatementRecordingConfiguration {
+
+  @Bean
+  public WebTestClientBuilderCustomizer sqlStatementRecordingWebTestClientCustomizer() {
+    return builder ->
+        builder.filter(
+            (request, next) -> {
+              // the filter runs on the thread sending the request, the test's thread
+              Recording recording = SqlStatementCounter.current();
+              return next.exchange(
+                  recording == null
+                      ? request
+                      : ClientRequest.from(request)
+                          .header(SqlStatementCounter.RECORDING_HEADER, recording.getId())
+                          .build());
+            });
+  }
+
+  @Bean
+  public FilterRegistrationBean<OncePerRequestFilter> sqlStatementRecordingFilter() {
+    FilterRegistrationBean<OncePerRequestFilter> registration =
+        new FilterRegistrationBean<>(
+            new OncePerRequestFilter() {
+              @Override
+              protected void doFilterInternal(
+                  HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                  throws ServletException, IOException {
+                try (SqlStatementCounter.Scope scope =
+                    SqlStatementCounter.attach(
+                        request.getHeader(SqlStatementCounter.RECORDING_HEADER))) {
+                  chain.doFilter(request, response);
+                }
+              }
+            });
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+}
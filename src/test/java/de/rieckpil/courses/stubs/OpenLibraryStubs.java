@@ -22,4 +22,16 @@ public class OpenLibraryStubs {
                     .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
                     .withBody(response)));
   }
+
+  /** Serves the cover and returns its URL. */
+  public String stubForCover(String coverId, byte[] cover) {
+    String path = "/openLibrary/covers/b/id/" + coverId + "-S.jpg";
+    this.wireMockServer.stubFor(
+        WireMock.get(path)
+            .willReturn(
+                aResponse()
+                    .withHeader("Content-Type", MediaType.IMAGE_JPEG_VALUE)
+                    .withBody(cover)));
+    return this.wireMockServer.baseUrl() + path;
+  }
 }
@@ -0,0 +1,9 @@
+INSERT INTO users (id, name, email, created_at) VALUES (1, 'Duke', 'duke@spring.io', '2020-08-11T07:45:00.500+0200');
+
+INSERT INTO books (id, title, isbn, author, genre, thumbnail_url, description, publisher, pages) VALUES (1, 'Testing Spring Boot Applications', '1234567891234', 'Philip', 'Software Engineering', 'http://localhost:8080/image.png', 'Unit and integration tests with JUnit 5', 'JavaPublisher', 42);
+INSERT INTO books (id, title, isbn, author, genre, thumbnail_url, description, publisher, pages) VALUES (2, 'Java Concurrency in Practice', '1234567891235', 'Brian', 'Software Engineering', 'http://localhost:8080/imageTwo.png', 'Threads and locks', 'JavaPublisher', 42);
+INSERT INTO books (id, title, isbn, author, genre, thumbnail_url, description, publisher, pages) VALUES (3, 'Effective Java', '1234567891236', 'Joshua', 'Software Engineering', 'http://localhost:8080/imageThree.png', 'Best practices for the Java platform', 'JavaPublisher', 42);
+INSERT INTO books (id, title, isbn, author, genre, thumbnail_url, description, publisher, pages) VALUES (4, 'Gardening for Beginners', '1234567891237', 'Anna', 'Hobby', 'http://localhost:8080/imageFour.png', 'Growing vegetables', 'GardenPublisher', 42);
+
+INSERT INTO reviews (title, content, rating, created_at, book_id, user_id, status) VALUES ('Must read', 'Helps a lot when testing concurrent code', 5, '2020-08-11T07:45:00.500+0200', 2, 1, 'PUBLISHED');
+INSERT INTO reviews (title, content, rating, created_at, book_id, user_id, status) VALUES ('Off topic', 'Nothing about testing in here', 1, '2020-08-11T07:45:00.500+0200', 4, 1, 'REJECTED');
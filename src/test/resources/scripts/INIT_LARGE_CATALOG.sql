@@ -0,0 +1,30 @@
+INSERT INTO books (title, isbn, author, genre, publisher, pages)
+SELECT 'Book ' || i,
+       LPAD(i::TEXT, 13, '0'),
+       'Author ' || i % 2000,
+       (ARRAY['Software Engineering', 'Fiction', 'History', 'Science', 'Biography'])[i % 5 + 1],
+       'Publisher ' || i % 100,
+       100 + i % 900
+FROM generate_series(1, 10000) AS i;
+
+INSERT INTO users (name, email, created_at)
+SELECT 'user' || i, 'user' || i || '@spring.io', NOW()
+FROM generate_series(1, 10000) AS i;
+
+-- the partitions the maintenance job would have created over the year
+SELECT create_review_partitions((NOW() - INTERVAL '1 year')::DATE, 3);
+
+-- one review every 30 seconds, reaching back about a year
+INSERT INTO reviews (title, content, rating, created_at, book_id, user_id, status)
+SELECT 'Review ' || i,
+       'Content of review ' || i,
+       (i * 7) % 5 + 1,
+       NOW() - i * INTERVAL '30 seconds',
+       (SELECT MIN(id) FROM books) + i % 10000,
+       (SELECT MIN(id) FROM users) + i % 10000,
+       CASE i % 50 WHEN 0 THEN 'PENDING' WHEN 1 THEN 'REJECTED' ELSE 'PUBLISHED' END
+FROM generate_series(1, 1000000) AS i;
+
+ANALYZE books;
+ANALYZE users;
+ANALYZE reviews;